@@ -0,0 +1,324 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+/**
+ * A set of spots of a rows x cols sized map, stored as a bitset. The spot at
+ * rowCoord/colCoord is represented by the bit rowCoord * cols + colCoord (i.e.,
+ * the same packed index the MineMap uses internally). Set operations and the
+ * neighbourhood computation work on 64 spots at a time.
+ * 
+ * The MineMap uses this class to share bulk information about its explored
+ * state (e.g., {@link MineMap#getFrontierMask()}). The boards handed out by
+ * the map are copies, solvers are free to modify them.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class BitBoard {
+	/**
+	 * The dimensions of the map this board represents.
+	 */
+	public final int rows, cols;
+	/**
+	 * The number of spots in the board (rows * cols).
+	 */
+	public final int size;
+	private final long[] words;
+
+	/**
+	 * Creates an empty board (i.e., no spots are in the set).
+	 * 
+	 * @param rows the number of rows in the represented map
+	 * @param cols the number of columns in the represented map
+	 */
+	public BitBoard(final int rows, final int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		size = rows * cols;
+		words = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Creates an exact copy of another board.
+	 * 
+	 * @param other the board to copy
+	 */
+	public BitBoard(final BitBoard other) {
+		rows = other.rows;
+		cols = other.cols;
+		size = other.size;
+		words = other.words.clone();
+	}
+
+	/**
+	 * Tells if a spot is in the set.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 * @return true if the spot is in the set
+	 */
+	public boolean get(final int idx) {
+		return (words[idx >>> 6] & (1L << idx)) != 0;
+	}
+
+	/**
+	 * Tells if a spot is in the set.
+	 * 
+	 * @param rowCoord the row of the spot
+	 * @param colCoord the column of the spot
+	 * @return true if the spot is in the set
+	 */
+	public boolean get(final int rowCoord, final int colCoord) {
+		return get(rowCoord * cols + colCoord);
+	}
+
+	/**
+	 * Adds a spot to the set.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 */
+	public void set(final int idx) {
+		words[idx >>> 6] |= 1L << idx;
+	}
+
+	/**
+	 * Removes a spot from the set.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 */
+	public void clear(final int idx) {
+		words[idx >>> 6] &= ~(1L << idx);
+	}
+
+	/**
+	 * Allows iterating through the spots in the set:
+	 * 
+	 * <pre>
+	 * for (int idx = board.nextSetBit(0); idx >= 0; idx = board.nextSetBit(idx + 1)) {
+	 * 	// use idx / board.cols and idx % board.cols
+	 * }
+	 * </pre>
+	 * 
+	 * @param from the packed index to start the search from (inclusive)
+	 * @return the packed index of the first spot in the set at or after from, -1
+	 *         if there is no such spot
+	 */
+	public int nextSetBit(final int from) {
+		if (from >= size) {
+			return -1;
+		}
+		int wordIdx = from >>> 6;
+		long word = words[wordIdx] & (-1L << from);
+		while (word == 0) {
+			if (++wordIdx == words.length) {
+				return -1;
+			}
+			word = words[wordIdx];
+		}
+		return (wordIdx << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @return the number of spots in the set
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (final long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return true if there are no spots in the set
+	 */
+	public boolean isEmpty() {
+		for (final long word : words) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds all spots of the other board to this one.
+	 * 
+	 * @param other the board to unite with, must have the same dimensions
+	 * @return this board
+	 */
+	public BitBoard or(final BitBoard other) {
+		checkDimensions(other);
+		for (int i = 0; i < words.length; i++) {
+			words[i] |= other.words[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Keeps only those spots that are in the other board as well.
+	 * 
+	 * @param other the board to intersect with, must have the same dimensions
+	 * @return this board
+	 */
+	public BitBoard and(final BitBoard other) {
+		checkDimensions(other);
+		for (int i = 0; i < words.length; i++) {
+			words[i] &= other.words[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Removes all spots that are in the other board.
+	 * 
+	 * @param other the board to subtract, must have the same dimensions
+	 * @return this board
+	 */
+	public BitBoard andNot(final BitBoard other) {
+		checkDimensions(other);
+		for (int i = 0; i < words.length; i++) {
+			words[i] &= ~other.words[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Complements the set: all spots of the map that were not in the set will be
+	 * in, and vice versa.
+	 * 
+	 * @return this board
+	 */
+	public BitBoard flip() {
+		for (int i = 0; i < words.length; i++) {
+			words[i] = ~words[i];
+		}
+		clearTail(words);
+		return this;
+	}
+
+	/**
+	 * Determines the neighbourhood of the set: all spots that are in the set or
+	 * that are next to (including diagonally) a spot in the set. The set is first
+	 * spread horizontally with single bit shifts, then vertically with shifts of a
+	 * whole row.
+	 * 
+	 * @return a new board with the neighbourhood, this board is left untouched
+	 */
+	public BitBoard neighbourhood() {
+		final BitBoard result = new BitBoard(rows, cols);
+		if (size == 0) {
+			return result;
+		}
+		final long[] horizontal = words.clone();
+		final long[] shifted = new long[words.length];
+		final long[] firstCol = columnMask(0), lastCol = columnMask(cols - 1);
+		// Spots moving one column to the right, those arriving to the first column
+		// wrapped around from the end of the previous row
+		shift(words, 1, shifted);
+		for (int i = 0; i < words.length; i++) {
+			horizontal[i] |= shifted[i] & ~firstCol[i];
+		}
+		// Spots moving one column to the left, those arriving to the last column
+		// wrapped around from the start of the next row
+		shift(words, -1, shifted);
+		for (int i = 0; i < words.length; i++) {
+			horizontal[i] |= shifted[i] & ~lastCol[i];
+		}
+		System.arraycopy(horizontal, 0, result.words, 0, words.length);
+		shift(horizontal, cols, shifted);
+		for (int i = 0; i < words.length; i++) {
+			result.words[i] |= shifted[i];
+		}
+		shift(horizontal, -cols, shifted);
+		for (int i = 0; i < words.length; i++) {
+			result.words[i] |= shifted[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Produces the bitset of a single column of the map.
+	 * 
+	 * @param colCoord the column to include in the set
+	 * @return the words of the bitset
+	 */
+	private long[] columnMask(final int colCoord) {
+		final long[] mask = new long[words.length];
+		for (int idx = colCoord; idx < size; idx += cols) {
+			mask[idx >>> 6] |= 1L << idx;
+		}
+		return mask;
+	}
+
+	/**
+	 * Moves all bits of a bitset by a given distance. Bits shifted out of the
+	 * range of the board are dropped.
+	 * 
+	 * @param src      the bitset to shift
+	 * @param distance positive values move the bits towards the higher indexes,
+	 *                 negative values towards the lower ones
+	 * @param dst      the array to store the shifted bitset in, must not be the
+	 *                 same as src
+	 */
+	private void shift(final long[] src, final int distance, final long[] dst) {
+		final int wordShift = Math.abs(distance) >>> 6, bitShift = Math.abs(distance) & 63;
+		if (distance >= 0) {
+			for (int i = 0; i < dst.length; i++) {
+				final int from = i - wordShift;
+				long word = from >= 0 ? src[from] << bitShift : 0;
+				if (bitShift != 0 && from > 0) {
+					word |= src[from - 1] >>> (64 - bitShift);
+				}
+				dst[i] = word;
+			}
+		} else {
+			for (int i = 0; i < dst.length; i++) {
+				final int from = i + wordShift;
+				long word = from < src.length ? src[from] >>> bitShift : 0;
+				if (bitShift != 0 && from + 1 < src.length) {
+					word |= src[from + 1] << (64 - bitShift);
+				}
+				dst[i] = word;
+			}
+		}
+		clearTail(dst);
+	}
+
+	/**
+	 * Ensures the bits beyond the last spot of the board are never set.
+	 * 
+	 * @param bitset the words of the bitset to clean
+	 */
+	private void clearTail(final long[] bitset) {
+		if ((size & 63) != 0) {
+			bitset[bitset.length - 1] &= -1L >>> (64 - (size & 63));
+		}
+	}
+
+	private void checkDimensions(final BitBoard other) {
+		if (other.rows != rows || other.cols != cols) {
+			throw new IllegalArgumentException("Boards of different dimensions cannot be combined");
+		}
+	}
+}
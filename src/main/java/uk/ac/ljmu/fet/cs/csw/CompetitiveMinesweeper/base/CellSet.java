@@ -0,0 +1,177 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A set of spots identified by their packed index (rowCoord * cols + colCoord).
+ * The spots are kept in a dense array with a position index on the side, so
+ * adding, removing and membership tests are all constant time, and the
+ * members can be listed in time proportional to their number (independently
+ * from the size of the map). Removal moves the last member into the place of
+ * the removed one, thus the order of the members is not preserved.
+ * 
+ * The MineMap uses this class for its incrementally maintained spot indexes
+ * (e.g., {@link MineMap#getFrontierNumbers()}).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class CellSet {
+	// The members, only the first size items are in use
+	private final int[] cells;
+	// The position of every possible member in cells plus one (0 marks the spots
+	// not in the set)
+	private final int[] positions;
+	private int size = 0;
+
+	/**
+	 * Creates an empty set.
+	 * 
+	 * @param capacity the number of spots in the map (the packed indexes of the
+	 *                 members must be below this)
+	 */
+	public CellSet(final int capacity) {
+		cells = new int[capacity];
+		positions = new int[capacity];
+	}
+
+	/**
+	 * Creates an exact copy of another set.
+	 * 
+	 * @param other the set to copy
+	 */
+	public CellSet(final CellSet other) {
+		cells = other.cells.clone();
+		positions = other.positions.clone();
+		size = other.size;
+	}
+
+	/**
+	 * Adds a spot to the set.
+	 * 
+	 * @param idx the packed index of the spot
+	 * @return true if the spot was not in the set before
+	 */
+	public boolean add(final int idx) {
+		if (positions[idx] != 0) {
+			return false;
+		}
+		cells[size] = idx;
+		positions[idx] = ++size;
+		return true;
+	}
+
+	/**
+	 * Removes a spot from the set.
+	 * 
+	 * @param idx the packed index of the spot
+	 * @return true if the spot was in the set before
+	 */
+	public boolean remove(final int idx) {
+		final int pos = positions[idx] - 1;
+		if (pos < 0) {
+			return false;
+		}
+		final int last = cells[--size];
+		cells[pos] = last;
+		positions[last] = pos + 1;
+		positions[idx] = 0;
+		return true;
+	}
+
+	/**
+	 * Tells if a spot is in the set.
+	 * 
+	 * @param idx the packed index of the spot
+	 * @return true if the spot is in the set
+	 */
+	public boolean contains(final int idx) {
+		return positions[idx] != 0;
+	}
+
+	/**
+	 * Allows iterating through the members:
+	 * 
+	 * <pre>
+	 * for (int i = 0; i &lt; set.size(); i++) {
+	 * 	final int idx = set.get(i);
+	 * }
+	 * </pre>
+	 * 
+	 * The set must not be changed during such an iteration.
+	 * 
+	 * @param i the position of the member to return (0 &lt;= i &lt; size())
+	 * @return the packed index of the member at the given position
+	 */
+	public int get(final int i) {
+		return cells[i];
+	}
+
+	/**
+	 * Chooses a member uniformly at random in constant time.
+	 * 
+	 * @param rnd the random generator to choose with
+	 * @return the packed index of the chosen member, or -1 if the set is empty
+	 */
+	public int random(final Random rnd) {
+		return size == 0 ? -1 : cells[rnd.nextInt(size)];
+	}
+
+	/**
+	 * @return the number of spots in the set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if there are no spots in the set
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all spots from the set. Costs time proportional to the number of
+	 * members.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[cells[i]] = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Lists the members of the set.
+	 * 
+	 * @return the packed indexes of the spots in the set, in no particular order.
+	 *         The array is owned by the caller.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(cells, size);
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+/**
+ * Keeps track of the frontier of a MineMap: the explored safe spots that still
+ * have unexplored neighbours, and the unexplored spots next to them. For every
+ * spot, the number of its unexplored and safe neighbours is counted, thus a
+ * state change only needs to look at the changed spot's neighbourhood to keep
+ * the frontier up to date.
+ * 
+ * Flags are neither unexplored nor safe: a flagged spot leaves the frontier,
+ * and its explored neighbours are only on the frontier if they have other
+ * unexplored neighbours.
+ * 
+ * Instances are owned by a single map and are only modified in its write
+ * sections.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+final class FrontierIndex {
+	private final int rows, cols;
+	// The explored states of the map (shared with the map, never modified here)
+	private final byte[] states;
+	// The number of unexplored/safe spots around each spot
+	private final byte[] unexploredAround, safeAround;
+	/**
+	 * The explored safe spots with at least one unexplored neighbour.
+	 */
+	final CellSet numbers;
+	/**
+	 * The unexplored spots with at least one explored safe neighbour.
+	 */
+	final CellSet unexplored;
+
+	/**
+	 * Builds the frontier of a map with a single scan.
+	 * 
+	 * @param rows   the number of rows of the map
+	 * @param cols   the number of columns of the map
+	 * @param states the explored states of the map
+	 */
+	FrontierIndex(final int rows, final int cols, final byte[] states) {
+		this.rows = rows;
+		this.cols = cols;
+		this.states = states;
+		unexploredAround = new byte[states.length];
+		safeAround = new byte[states.length];
+		numbers = new CellSet(states.length);
+		unexplored = new CellSet(states.length);
+		for (int idx = 0; idx < states.length; idx++) {
+			final int du = states[idx] == MineMap.STATE_UNEXPLORED ? 1 : 0;
+			final int ds = states[idx] == MineMap.STATE_SAFE ? 1 : 0;
+			if (du + ds != 0) {
+				adjustAround(idx, du, ds, false);
+			}
+		}
+		for (int idx = 0; idx < states.length; idx++) {
+			update(idx);
+		}
+	}
+
+	/**
+	 * Updates the frontier after a spot changed its state. Must be called after
+	 * the state of the spot was changed in the map.
+	 * 
+	 * @param idx      the packed index of the changed spot
+	 * @param oldState the state of the spot before the change
+	 */
+	void stateChanged(final int idx, final int oldState) {
+		final int newState = states[idx];
+		final int du = (newState == MineMap.STATE_UNEXPLORED ? 1 : 0)
+				- (oldState == MineMap.STATE_UNEXPLORED ? 1 : 0);
+		final int ds = (newState == MineMap.STATE_SAFE ? 1 : 0) - (oldState == MineMap.STATE_SAFE ? 1 : 0);
+		if (du != 0 || ds != 0) {
+			adjustAround(idx, du, ds, true);
+		}
+		update(idx);
+	}
+
+	/**
+	 * Adjusts the neighbour counters of the spots around a spot.
+	 * 
+	 * @param idx     the packed index of the spot
+	 * @param du      the change in the number of unexplored neighbours
+	 * @param ds      the change in the number of safe neighbours
+	 * @param refresh true if the frontier membership of the neighbours should be
+	 *                updated as well
+	 */
+	private void adjustAround(final int idx, final int du, final int ds, final boolean refresh) {
+		final int rowCoord = idx / cols, colCoord = idx - rowCoord * cols;
+		final int maxRow = Math.min(rowCoord + 1, rows - 1), maxCol = Math.min(colCoord + 1, cols - 1);
+		for (int rc = Math.max(rowCoord - 1, 0); rc <= maxRow; rc++) {
+			for (int cc = Math.max(colCoord - 1, 0); cc <= maxCol; cc++) {
+				final int nidx = rc * cols + cc;
+				if (nidx != idx) {
+					unexploredAround[nidx] += (byte) du;
+					safeAround[nidx] += (byte) ds;
+					if (refresh) {
+						update(nidx);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds or removes a spot to/from the frontier sets based on its state and
+	 * neighbour counters.
+	 * 
+	 * @param idx the packed index of the spot
+	 */
+	private void update(final int idx) {
+		final int state = states[idx];
+		if (state == MineMap.STATE_SAFE && unexploredAround[idx] != 0) {
+			numbers.add(idx);
+		} else {
+			numbers.remove(idx);
+		}
+		if (state == MineMap.STATE_UNEXPLORED && safeAround[idx] != 0) {
+			unexplored.add(idx);
+		} else {
+			unexplored.remove(idx);
+		}
+	}
+}
@@ -22,20 +22,53 @@
  */
 package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
 
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapChangeListener;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapView;
 
 /**
  * The representation of a mine map. Allows random generation of mines as well
  * as copying from other mine maps. The main operations to be used by AIs are
  * pickASpot and flagASpot. These operations are expected to be used in a
  * sequential fashion (no multithreaded access is allowed to them). Apart from
- * these two important methods, a minemap also contains some functionality for
- * limiting AI's to speeds perceivable in UIs.
+ * these two important methods, a minemap also tells its viewers the pace the
+ * AI's moves should be shown at in UIs.
+ * 
+ * <b>Concurrency model:</b> a map has a single writer, the solver calling
+ * pickASpot and flagASpot. Every change the writer does (including a complete
+ * flood fill of an empty region) is a single write section, guarded by the
+ * write lock of a {@link StampedLock}. Other threads (e.g., UIs or the match
+ * organiser) only read the map and never block the writer:
+ * <ul>
+ * <li>{@link #isEnded()}, {@link #getLastRow()} and {@link #getLastCol()} are
+ * volatile reads, the result of the game is safe to query once isEnded returned
+ * true.</li>
+ * <li>{@link #getPos(int, int)} reads a single spot without any
+ * synchronisation. It is always accurate for the writer itself, other threads
+ * might see a slightly outdated spot.</li>
+ * <li>{@link #getSnapshot()} and the mask queries (e.g.,
+ * {@link #getFrontierMask()}) use optimistic reads: they copy the state of the
+ * map and retry if a write section overlapped with the copy. Thus they never
+ * return a half finished change.</li>
+ * <li>{@link #getGameEnd()} is completed by the writer right after the write
+ * section that ended the game, so others can wait for the end of the game
+ * without polling {@link #isEnded()}.</li>
+ * </ul>
  * 
  * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
  *         Moores University, (c) 2019"
  */
-public class MineMap {
+public class MineMap implements MapView {
 
 	public class MapCopyException extends Exception {
 		private static final long serialVersionUID = -8312441820699627778L;
@@ -46,19 +79,60 @@ public class MineMap {
 
 	}
 
-	// the random generator for all minemaps
+	/**
+	 * The random generator that used to be shared by all minemaps.
+	 * 
+	 * @deprecated MineMaps now use their own generator seeded at construction
+	 *             time (see {@link #MineMap(int, int, double, int, long)}), this
+	 *             generator is not used by them anymore.
+	 */
+	@Deprecated
 	public static final Random r = new Random();
 
-	// Map representations. All have the following dimensions:
-	// - first dimension is rows,
-	// - second is columns.
+	// Layout of a single spot in the packed mine layout:
+	// - bits 0-3 hold the number of mines around the spot,
+	// - bit 4 is set if there is a mine underneath the spot.
+	private static final int COUNT_MASK = 0x0F;
+	private static final int MINE_SHIFT = 4;
+	private static final int MINE_BIT = 1 << MINE_SHIFT;
+
+	// The possible explored states of a spot (as stored in the explored layer)
+	static final int STATE_UNEXPLORED = 0;
+	static final int STATE_SAFE = 1;
+	static final int STATE_FLAG = 2;
+	static final int STATE_EXPLODED = 3;
+
+	// The flyweights handed out by getPos. As ExploredSpots are unmodifiable, all
+	// maps can share these instances and no allocation is needed when the state of
+	// a spot changes.
+	private static final ExploredSpot unexploredSpot = new ExploredSpot(Spot.UNEXPLORED, -1);
+	private static final ExploredSpot flaggedSpot = new ExploredSpot(Spot.FLAG, -1);
+	private static final ExploredSpot explodedSpot = new ExploredSpot(Spot.EXPLODED, Integer.MAX_VALUE);
+	private static final ExploredSpot[] safeSpots = new ExploredSpot[9];
 
-	// The actual map
-	private final Spot[][] completeMap;
-	// The explored version of the map
-	private final ExploredSpot[][] exploredMap;
-	// Near-mine counts for each individual spot
-	private final int[][] howManyAround;
+	static {
+		for (int i = 0; i < safeSpots.length; i++) {
+			safeSpots[i] = new ExploredSpot(Spot.SAFE, i);
+		}
+	}
+
+	// Maps with at least this many spots have their near mine counts computed in
+	// parallel. Below this size the fork join overhead dominates the counting.
+	private static final int parallelCountThreshold = 1 << 18;
+
+	// The map representation, the spot at rowCoord/colCoord is at
+	// rowCoord * cols + colCoord in both layers:
+	// - layout: the mines and the near mine counts (see the layout above). This
+	// never changes after the map is generated, thus all copies of a map share the
+	// same array.
+	// - states: the explored state of every spot (see the STATE_* constants). This
+	// is the only layer copied when a map is copied.
+	private final byte[] layout, states;
+	// The explored states as bitsets for the bulk queries (e.g., the frontier).
+	// Kept in sync with the states array by changeState:
+	// - exploredLayer: the safe and exploded spots,
+	// - flagLayer: the flagged spots.
+	private final BitBoard exploredLayer, flagLayer;
 
 	/**
 	 * The number of rows and columns in this minefield.
@@ -74,18 +148,80 @@ public class MineMap {
 	 */
 	public final int mineCount;
 
-	// The delay applied for each MineMap
+	/**
+	 * The pace (in ms per move) the viewers of this map should replay the moves
+	 * of the AI at. The map itself never waits, AIs always play at full speed:
+	 * it is the UI's task to buffer the moves and show them at this pace (see
+	 * {@link MapChangeListener#moveCompleted(MineMap, int, int)}).
+	 */
 	public final int uidelay;
 
-	// true after a mine spot was picked or after the game was won
-	private boolean gameEnded;
-	// true if the constructor has done deploying the mines. If true, the
-	// sweepAround method is used for tracing unexplored non-mined areas
-	private boolean preparedMap;
+	// true after a mine spot was picked or after the game was won. Set by the
+	// writer as the last step of the write section that ended the game.
+	private volatile boolean gameEnded;
+	// The System.nanoTime of the end of the game, set at the end of the write
+	// section that ended the game
+	private long endedAt;
+	// Completed once the game ended, see getGameEnd
+	private final CompletableFuture<MineMap> gameEnd = new CompletableFuture<>();
+	// true if the map was copied from an already ended game. The future of such a
+	// copy is completed on its first use (see gameEnd()), so the constructor does
+	// not hand out the map before it is fully built.
+	private boolean copiedAfterEnd;
+
+	// Separates the write sections of the single writer from the optimistic reads
+	// of the other threads (see the class documentation)
+	private final StampedLock stateLock = new StampedLock();
+	// Serialises the moves (and the building of the lazy indexes). This is not a
+	// monitor, so solvers on virtual threads waiting for it don't pin their
+	// carrier thread.
+	private final ReentrantLock writerLock = new ReentrantLock();
+
+	// The parties interested in the changes of this map
+	private final CopyOnWriteArrayList<MapChangeListener> listeners = new CopyOnWriteArrayList<>();
+	// The changes of the current write section waiting to be published. Only
+	// collected (recordChanges) if there were listeners when the section started.
+	// The buffers are allocated on first use and reused afterwards.
+	private boolean recordChanges, endedBeforeWrite;
+	private long pickedBeforeWrite;
+	private int[] changedSpots;
+	private byte[] changedStates;
+	private int changeCount;
+
+	// The work list of traceFrom, it holds the packed indexes of the spots with no
+	// mines around them whose neighbourhood is still to be revealed. Allocated on
+	// the first trace and reused afterwards. Every spot is pushed at most once, so
+	// it never grows beyond the size of the map.
+	private int[] traceStack;
+
+	// The incrementally maintained frontier of the explored area. Built on the
+	// first frontier query (so maps never asked about it don't pay for its
+	// upkeep), and kept up to date by changeState afterwards. Copies of the map
+	// build their own.
+	private volatile FrontierIndex frontier;
+	// The explored safe spots grouped by their near mine counts. Built on first
+	// use just like the frontier.
+	private volatile NumberBuckets buckets;
+	// The unexplored (and not flagged) spots of the map. Built on first use just
+	// like the frontier.
+	private volatile CellSet unexploredSpots;
+
+	// The neighbour offset tables of the map, created on first use and shared
+	// with the copies of the map (it only depends on the dimensions)
+	private Neighbourhood neighbourhood;
 
 	private boolean allowCopy = true;
 
-	private int lastCol = -1, lastRow = -1;
+	// The last picked/flagged spot, packed into a single value (row in the high,
+	// column in the low 32 bits) so readers always see matching coordinates
+	private volatile long lastPicked = packCoords(-1, -1);
+
+	// Running counters of the explored map. These are maintained by changeState so
+	// the end of game and scoring queries don't need to scan the whole map.
+	// - exploredCount: the number of safe and exploded spots,
+	// - correctFlags: the number of flags placed on mines,
+	// - wrongFlags: the number of flags placed on safe spots.
+	private int exploredCount, correctFlags, wrongFlags;
 
 	/**
 	 * Enables the creation of completely randomly generated MineMaps
@@ -94,8 +230,8 @@ public class MineMap {
 	 * @param cols      How many columns should the map have.
 	 * @param mineRatio What's the percentage of the mines to the total number of
 	 *                  spots in the whole map.
-	 * @param uidelay   How long should we wait before each AI operation takes
-	 *                  action.
+	 * @param uidelay   How long should the UI wait between showing two AI
+	 *                  operations.
 	 * 
 	 * @throws IllegalArgumentException   if the number of mines would be more than
 	 *                                    the total number of spots, or when the
@@ -103,46 +239,133 @@ public class MineMap {
 	 *                                    the delay before we even start?!)
 	 * @throws NegativeArraySizeException if the nr. of columns or rows were set to
 	 *                                    a negative value
+	 * @throws IllegalArgumentException   if the map would have more spots than
+	 *                                    what an int can address
 	 */
 	public MineMap(final int rows, final int cols, final double mineRatio, int uidelay) {
+		this(rows, cols, mineRatio, uidelay, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Enables the creation of randomly generated, but reproducible MineMaps. Maps
+	 * generated with the same dimensions, mine ratio and seed will have exactly
+	 * the same mine layout. Every map uses its own generator, thus maps can be
+	 * generated in parallel without contention.
+	 * 
+	 * @param rows      How many rows should the map have.
+	 * @param cols      How many columns should the map have.
+	 * @param mineRatio What's the percentage of the mines to the total number of
+	 *                  spots in the whole map.
+	 * @param uidelay   How long should the UI wait between showing two AI
+	 *                  operations.
+	 * @param seed      The seed for the random generator deploying the mines.
+	 * 
+	 * @throws IllegalArgumentException   if the number of mines would be more than
+	 *                                    the total number of spots, or when the
+	 *                                    uidelay would be negative (should finish
+	 *                                    the delay before we even start?!)
+	 * @throws NegativeArraySizeException if the nr. of columns or rows were set to
+	 *                                    a negative value
+	 * @throws IllegalArgumentException   if the map would have more spots than
+	 *                                    what an int can address
+	 */
+	public MineMap(final int rows, final int cols, final double mineRatio, int uidelay, final long seed) {
 		if (mineRatio > 1) {
 			throw new IllegalArgumentException("Impossible to create a map with more mines than spots");
 		}
 		checkForCorrectUIDelay(uidelay);
+		checkDimensions(rows, cols);
 		// Basic init
 		this.uidelay = uidelay;
 		this.rows = rows;
 		this.cols = cols;
 		fieldSize = rows * cols;
-		completeMap = new Spot[rows][cols];
-		howManyAround = new int[rows][cols];
-		exploredMap = new ExploredSpot[rows][cols];
+		// Java zeroes the arrays, so the map starts completely unexplored and mine free
+		layout = new byte[fieldSize];
+		states = new byte[fieldSize];
+		exploredLayer = new BitBoard(rows, cols);
+		flagLayer = new BitBoard(rows, cols);
 		gameEnded = false;
-		preparedMap = false;
 
-		// Declaring the map completely unexplored
+		// Deploying the mines in the playing field
+		final SplittableRandom rnd = new SplittableRandom(seed);
+		mineCount = (int) (Math.round(fieldSize * mineRatio));
+		// Floyd's sampling: picks distinct spots uniformly with exactly one random
+		// draw per spot, independently from how dense the map is. The mine bits of
+		// the map serve as the set of already picked spots. On dense maps it is the
+		// mine free spots that are picked from a completely mined map instead.
+		final boolean pickFreeSpots = mineCount > fieldSize / 2;
+		if (pickFreeSpots) {
+			Arrays.fill(layout, (byte) MINE_BIT);
+		}
+		final int spotsToPick = pickFreeSpots ? fieldSize - mineCount : mineCount;
+		for (int candidate = fieldSize - spotsToPick; candidate < fieldSize; candidate++) {
+			final int idx = rnd.nextInt(candidate + 1);
+			// Already picked spots are replaced with the candidate itself
+			layout[isMine(idx) == pickFreeSpots ? idx : candidate] ^= MINE_BIT;
+		}
+		computeNearMineCounts();
+	}
+
+	/**
+	 * Enables the creation of MineMaps with a predefined mine layout. This is
+	 * useful to test solvers (or the map itself) in particular situations that
+	 * would rarely occur on randomly generated maps.
+	 * 
+	 * @param mineLayout The mines to deploy, the first dimension is rows, the
+	 *                   second is columns. A true value marks a mined spot. All
+	 *                   rows must have the same length.
+	 * @param uidelay    How long should the UI wait between showing two AI
+	 *                   action.
+	 * @throws IllegalArgumentException when the uidelay would be negative or if
+	 *                                  the rows of the layout are not equally
+	 *                                  long
+	 */
+	public MineMap(final boolean[][] mineLayout, final int uidelay) {
+		checkForCorrectUIDelay(uidelay);
+		rows = mineLayout.length;
+		cols = rows == 0 ? 0 : mineLayout[0].length;
+		checkDimensions(rows, cols);
+		this.uidelay = uidelay;
+		fieldSize = rows * cols;
+		layout = new byte[fieldSize];
+		states = new byte[fieldSize];
+		exploredLayer = new BitBoard(rows, cols);
+		flagLayer = new BitBoard(rows, cols);
+		gameEnded = false;
+		int mines = 0;
 		for (int rc = 0; rc < rows; rc++) {
+			if (mineLayout[rc].length != cols) {
+				throw new IllegalArgumentException("All rows of the layout must have the same length");
+			}
 			for (int cc = 0; cc < cols; cc++) {
-				exploredMap[rc][cc] = new ExploredSpot(Spot.UNEXPLORED, -1);
-				completeMap[rc][cc] = Spot.UNEXPLORED;
+				if (mineLayout[rc][cc]) {
+					layout[rc * cols + cc] |= MINE_BIT;
+					mines++;
+				}
 			}
 		}
+		mineCount = mines;
+		computeNearMineCounts();
+	}
 
-		// Deploying the mines in the playing field
-		mineCount = (int) (Math.round(fieldSize * mineRatio));
-		for (int howManyMinesSoFar = 0; howManyMinesSoFar < mineCount; howManyMinesSoFar++) {
-			int cc = r.nextInt(cols);
-			int rc = r.nextInt(rows);
-			// Ensuring that we don't deploy a mine two times at the same spot
-			if (Spot.MINE.equals(completeMap[rc][cc])) {
-				howManyMinesSoFar--;
-				continue;
-			}
-			completeMap[rc][cc] = Spot.MINE;
-			// Updating the how many around matrix
-			sweepAround(rc, cc);
+	/**
+	 * Checks if a map with the specified dimensions can be represented.
+	 * 
+	 * @param rows The number of rows the map would have
+	 * @param cols The number of columns the map would have
+	 * @throws NegativeArraySizeException if the nr. of columns or rows were set to
+	 *                                    a negative value
+	 * @throws IllegalArgumentException   if the map would have more spots than
+	 *                                    what an int can address
+	 */
+	private static void checkDimensions(final int rows, final int cols) {
+		if (rows < 0 || cols < 0) {
+			throw new NegativeArraySizeException("Maps cannot have negative dimensions");
+		}
+		if ((long) rows * cols > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Impossible to create a map with so many spots");
 		}
-		preparedMap = true;
 	}
 
 	/**
@@ -153,6 +376,10 @@ public class MineMap {
 	 * an alternative solver to tackle the rest of the map independently from the
 	 * original.
 	 * 
+	 * The mine layout never changes after generation, so the copy shares it with
+	 * the original. Only the explored state of the map is duplicated (a single
+	 * array copy), thus copies are cheap even for huge maps.
+	 * 
 	 * @param otherToCopy The original map to copy from.
 	 * @param allowCopy   Specify if we allow further copies of this map. True if we
 	 *                    allow them, false otherwise.
@@ -165,11 +392,12 @@ public class MineMap {
 		uidelay = otherToCopy.uidelay;
 		rows = otherToCopy.rows;
 		cols = otherToCopy.cols;
-		completeMap = new Spot[rows][cols];
-		howManyAround = new int[rows][cols];
-		exploredMap = new ExploredSpot[rows][cols];
 		fieldSize = otherToCopy.fieldSize;
 		mineCount = otherToCopy.mineCount;
+		layout = otherToCopy.layout;
+		states = otherToCopy.states.clone();
+		exploredLayer = new BitBoard(otherToCopy.exploredLayer);
+		flagLayer = new BitBoard(otherToCopy.flagLayer);
 		copyHelper(otherToCopy);
 	}
 
@@ -200,14 +428,14 @@ public class MineMap {
 	}
 
 	/**
-	 * Checks if the specified UI delay is acceptable as Thread.sleep's input. If
-	 * not it throws an IllegalArgumentException.
+	 * Checks if the specified UI delay is acceptable as a pause between showing
+	 * two moves. If not it throws an IllegalArgumentException.
 	 * 
 	 * <i>Warning: this method does not actually set the delay, just checks its
 	 * value. It is still the constructor that is responsible for setting the value
 	 * itself in the corresponding data field.</i>
 	 * 
-	 * @param uidelay How long should we wait before each AI operation takes action.
+	 * @param uidelay How long should the UI wait between showing two AI operations.
 	 * @throws IllegalArgumentException when the uidelay would be negative (should
 	 *                                  finish the delay before we even start?!)
 	 */
@@ -238,11 +466,12 @@ public class MineMap {
 		uidelay = newUIdelay;
 		rows = otherToCopy.rows;
 		cols = otherToCopy.cols;
-		completeMap = new Spot[rows][cols];
-		howManyAround = new int[rows][cols];
-		exploredMap = new ExploredSpot[rows][cols];
 		fieldSize = otherToCopy.fieldSize;
 		mineCount = otherToCopy.mineCount;
+		layout = otherToCopy.layout;
+		states = otherToCopy.states.clone();
+		exploredLayer = new BitBoard(otherToCopy.exploredLayer);
+		flagLayer = new BitBoard(otherToCopy.flagLayer);
 		copyHelper(otherToCopy);
 	}
 
@@ -255,22 +484,121 @@ public class MineMap {
 	}
 
 	/**
-	 * Makes sure the deep copy phase of the copy constructors is done well
+	 * Makes sure the non-array state of the copy constructors is copied well. The
+	 * layers of the map are handled by the constructors as they are final: the
+	 * immutable mine layout is shared, while the explored states are cloned.
 	 * 
 	 * @param otherToCopy The original map to copy from.
 	 */
 	private void copyHelper(final MineMap otherToCopy) {
-		gameEnded = otherToCopy.gameEnded;
-		preparedMap = true;
+		final boolean ended = otherToCopy.gameEnded;
+		if (ended) {
+			endedAt = otherToCopy.getEndedAt();
+			copiedAfterEnd = true;
+		}
+		exploredCount = otherToCopy.exploredCount;
+		correctFlags = otherToCopy.correctFlags;
+		wrongFlags = otherToCopy.wrongFlags;
+		neighbourhood = otherToCopy.neighbourhood;
+		// Written last, so the readers seeing the end see the rest of the copy
+		gameEnded = ended;
+	}
 
-		// Deep copy of the arrays.
-		for (int rc = 0; rc < rows; rc++) {
-			for (int cc = 0; cc < cols; cc++) {
-				exploredMap[rc][cc] = otherToCopy.exploredMap[rc][cc];
-				completeMap[rc][cc] = otherToCopy.completeMap[rc][cc];
-				howManyAround[rc][cc] = otherToCopy.howManyAround[rc][cc];
+	/**
+	 * Tells if there is a mine underneath a particular spot.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 * @return true if the spot is mined
+	 */
+	private boolean isMine(final int idx) {
+		return (layout[idx] & MINE_BIT) != 0;
+	}
+
+	/**
+	 * Tells how many mines are around a particular spot.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 * @return the number of mines in the 8 spots surrounding the spot
+	 */
+	private int countAround(final int idx) {
+		return layout[idx] & COUNT_MASK;
+	}
+
+	/**
+	 * Tells the explored state of a particular spot.
+	 * 
+	 * @param idx the packed index of the spot (rowCoord * cols + colCoord)
+	 * @return one of the STATE_* constants
+	 */
+	private int stateOf(final int idx) {
+		return states[idx];
+	}
+
+	/**
+	 * Changes the explored state of a particular spot. Keeps the running counters of the map in sync
+	 * with the change.
+	 * 
+	 * @param idx   the packed index of the spot (rowCoord * cols + colCoord)
+	 * @param state one of the STATE_* constants
+	 */
+	private void changeState(final int idx, final int state) {
+		final int oldState = states[idx];
+		countState(idx, -1);
+		states[idx] = (byte) state;
+		countState(idx, 1);
+		final FrontierIndex currentFrontier = frontier;
+		if (currentFrontier != null) {
+			currentFrontier.stateChanged(idx, oldState);
+		}
+		final NumberBuckets currentBuckets = buckets;
+		if (currentBuckets != null && state == STATE_SAFE) {
+			currentBuckets.add(idx, countAround(idx));
+		}
+		final CellSet currentUnexplored = unexploredSpots;
+		if (currentUnexplored != null) {
+			if (state == STATE_UNEXPLORED) {
+				currentUnexplored.add(idx);
+			} else {
+				currentUnexplored.remove(idx);
+			}
+		}
+		if (recordChanges) {
+			recordChange(idx, state);
+		}
+		if (state == STATE_SAFE || state == STATE_EXPLODED) {
+			exploredLayer.set(idx);
+		} else {
+			exploredLayer.clear(idx);
+		}
+		if (state == STATE_FLAG) {
+			flagLayer.set(idx);
+		} else {
+			flagLayer.clear(idx);
+		}
+	}
 
+	/**
+	 * Adds or removes the current state of a spot to/from the running counters.
+	 * 
+	 * @param idx   the packed index of the spot (rowCoord * cols + colCoord)
+	 * @param delta 1 if the spot's state should be counted, -1 if it should be
+	 *              discounted
+	 */
+	private void countState(final int idx, final int delta) {
+		switch (stateOf(idx)) {
+		case STATE_SAFE:
+		case STATE_EXPLODED:
+			exploredCount += delta;
+			break;
+		case STATE_FLAG:
+			if (isMine(idx)) {
+				correctFlags += delta;
+			} else {
+				wrongFlags += delta;
 			}
+			break;
+		default:
+			// Unexplored spots are not counted
 		}
 	}
 
@@ -284,29 +612,99 @@ public class MineMap {
 	 *         false otherwise.
 	 */
 	public boolean checkOutOfRange(final int rowCoord, final int colCoord) {
-		return colCoord < 0 || rowCoord < 0 || rowCoord >= completeMap.length || colCoord >= completeMap[0].length;
+		return colCoord < 0 || rowCoord < 0 || rowCoord >= rows || colCoord >= cols;
 	}
 
 	/**
-	 * Helper for the tracing and mine counting operations. Allows the tracing and
-	 * mine counting to take affect in the immediate vicinity of a given spot.
+	 * Allows to determine if a packed index lies outside the perimeter of this map
+	 * or not.
 	 * 
-	 * @param rowCoord The row coordinate of the spot to be looked around.
-	 * @param colCoord The column coordinate of the spot to be looked around.
+	 * @param idx The packed index to test
+	 * @return true if the index does not point to a spot of this map. false
+	 *         otherwise.
 	 */
-	private void sweepAround(final int rowCoord, final int colCoord) {
-		for (int dc = colCoord - 1; dc < colCoord + 2; dc++) {
-			for (int dr = rowCoord - 1; dr < rowCoord + 2; dr++) {
-				if (checkOutOfRange(dr, dc))
-					continue;
-				// The internals of this method act differently dependin on whether the mehtod
-				// is called from the constructor or afterwards.
-				if (preparedMap) {
-					traceFrom(dr, dc);
-				} else {
-					howManyAround[dr][dc]++;
-				}
+	private boolean checkOutOfRange(final int idx) {
+		return idx < 0 || idx >= fieldSize;
+	}
+
+	/**
+	 * Packs a coordinate pair into a single index. The batch operations
+	 * ({@link #pickMany(int[])}, {@link #flagMany(int[])}) expect their spots in
+	 * this form.
+	 * 
+	 * @param rowCoord The row coordinate of the spot
+	 * @param colCoord The column coordinate of the spot
+	 * @return the packed index of the spot
+	 */
+	public int toIndex(final int rowCoord, final int colCoord) {
+		return rowCoord * cols + colCoord;
+	}
+
+	/**
+	 * Tells the row coordinate of a packed index.
+	 * 
+	 * @param idx The packed index of a spot (see {@link #toIndex(int, int)})
+	 * @return the row coordinate of the spot
+	 */
+	public int rowOf(final int idx) {
+		return idx / cols;
+	}
+
+	/**
+	 * Tells the column coordinate of a packed index.
+	 * 
+	 * @param idx The packed index of a spot (see {@link #toIndex(int, int)})
+	 * @return the column coordinate of the spot
+	 */
+	public int colOf(final int idx) {
+		return idx % cols;
+	}
+
+	/**
+	 * Helper for the mine deployment. Fills in the near mine counts of all spots
+	 * once all mines are deployed. Maps of at least
+	 * {@link #parallelCountThreshold} spots are processed row by row in parallel
+	 * on the common fork join pool.
+	 */
+	private void computeNearMineCounts() {
+		if (fieldSize < parallelCountThreshold) {
+			for (int rc = 0; rc < rows; rc++) {
+				computeNearMineCounts(rc);
 			}
+		} else {
+			IntStream.range(0, rows).parallel().forEach(this::computeNearMineCounts);
+		}
+	}
+
+	/**
+	 * Fills in the near mine counts of a single row. The count of a spot is the
+	 * number of mines in the 3x3 block centred on it (i.e., a mined spot counts
+	 * itself as well, this is never revealed though). The block sums are
+	 * computed with a sliding window of column sums, so every mine bit of the
+	 * neighbouring rows is read only once.
+	 * 
+	 * <i>Note:</i> rows processed in parallel only read the mine bits of each
+	 * other, and they only write the count bits of their own row. The mine bits
+	 * are never changed during this pass.
+	 * 
+	 * @param rowCoord The row to fill in
+	 */
+	private void computeNearMineCounts(final int rowCoord) {
+		final int here = rowCoord * cols;
+		// Outside the map, the row above/below is replaced with the current row
+		// and its mine bits are masked out
+		final int above = rowCoord > 0 ? here - cols : here, aboveBit = rowCoord > 0 ? MINE_BIT : 0;
+		final int below = rowCoord < rows - 1 ? here + cols : here, belowBit = rowCoord < rows - 1 ? MINE_BIT : 0;
+		int left, middle = 0, right = cols == 0 ? 0
+				: ((layout[above] & aboveBit) + (layout[here] & MINE_BIT) + (layout[below] & belowBit)) >>> MINE_SHIFT;
+		for (int cc = 0; cc < cols; cc++) {
+			left = middle;
+			middle = right;
+			final int next = cc + 1;
+			right = next < cols ? ((layout[above + next] & aboveBit) + (layout[here + next] & MINE_BIT)
+					+ (layout[below + next] & belowBit)) >>> MINE_SHIFT : 0;
+			// The count never goes above 9, so it never overflows into the mine bit
+			layout[here + cc] |= (byte) (left + middle + right);
 		}
 	}
 
@@ -318,8 +716,169 @@ public class MineMap {
 	 * @param colCoord The column coordinate of the spot that changed last time
 	 */
 	private void markPicked(final int rowCoord, final int colCoord) {
-		lastCol = colCoord;
-		lastRow = rowCoord;
+		lastPicked = packCoords(rowCoord, colCoord);
+	}
+
+	/**
+	 * Packs a coordinate pair into a single long so they can be published
+	 * atomically.
+	 * 
+	 * @param rowCoord The row coordinate to pack
+	 * @param colCoord The column coordinate to pack
+	 * @return the packed coordinates
+	 */
+	private static long packCoords(final int rowCoord, final int colCoord) {
+		return ((long) rowCoord << 32) | (colCoord & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Starts a write section: optimistic readers will retry their reads until the
+	 * section is over.
+	 * 
+	 * @return the stamp to finish the section with
+	 */
+	private long beginWrite() {
+		final long stamp = stateLock.writeLock();
+		// Changes are only collected if there is someone to tell about them
+		recordChanges = !listeners.isEmpty();
+		changeCount = 0;
+		endedBeforeWrite = gameEnded;
+		pickedBeforeWrite = lastPicked;
+		return stamp;
+	}
+
+	/**
+	 * Finishes a write section. Before releasing the readers, it checks if the
+	 * game was won with the changes of the section. After the readers are
+	 * released, the changes of the section are published to the listeners.
+	 * 
+	 * @param stamp the stamp received from {@link #beginWrite()}
+	 */
+	private void endWrite(final long stamp) {
+		if (!gameEnded && isWon()) {
+			gameEnded = true;
+		}
+		final boolean justEnded = gameEnded && !endedBeforeWrite;
+		if (justEnded) {
+			endedAt = System.nanoTime();
+		}
+		stateLock.unlockWrite(stamp);
+		if (justEnded) {
+			// Those waiting for the end are told before the (possibly slow) listeners
+			gameEnd.complete(this);
+		}
+		if (recordChanges) {
+			publishChanges();
+		}
+	}
+
+	/**
+	 * Records a state change of the current write section, so it can be
+	 * published once the section is over.
+	 * 
+	 * @param idx   the packed index of the changed spot
+	 * @param state the new state of the spot
+	 */
+	private void recordChange(final int idx, final int state) {
+		if (changedSpots == null) {
+			changedSpots = new int[Math.min(fieldSize, 64)];
+			changedStates = new byte[changedSpots.length];
+		} else if (changeCount == changedSpots.length) {
+			final int newLength = 2 * changeCount;
+			changedSpots = Arrays.copyOf(changedSpots, newLength);
+			changedStates = Arrays.copyOf(changedStates, newLength);
+		}
+		changedSpots[changeCount] = idx;
+		changedStates[changeCount++] = (byte) state;
+	}
+
+	/**
+	 * Tells the listeners about the changes of the last write section. Revealed
+	 * spots are reported in batches, all other changes one by one in the order
+	 * they happened. Every write section is a single move for the listeners.
+	 */
+	private void publishChanges() {
+		int batchStart = 0;
+		for (int i = 0; i <= changeCount; i++) {
+			if (i < changeCount && changedStates[i] == STATE_SAFE) {
+				continue;
+			}
+			if (i > batchStart) {
+				final int[] spots = Arrays.copyOfRange(changedSpots, batchStart, i);
+				final int[] counts = new int[spots.length];
+				for (int j = 0; j < spots.length; j++) {
+					counts[j] = countAround(spots[j]);
+				}
+				for (MapChangeListener l : listeners) {
+					l.spotsRevealed(this, spots, counts);
+				}
+			}
+			batchStart = i + 1;
+			if (i == changeCount) {
+				break;
+			}
+			final int rowCoord = changedSpots[i] / cols, colCoord = changedSpots[i] % cols;
+			for (MapChangeListener l : listeners) {
+				if (changedStates[i] == STATE_EXPLODED) {
+					l.exploded(this, rowCoord, colCoord);
+				} else {
+					l.flagChanged(this, rowCoord, colCoord, changedStates[i] == STATE_FLAG);
+				}
+			}
+		}
+		final long picked = lastPicked;
+		if (changeCount > 0 || picked != pickedBeforeWrite) {
+			final int lastRow = (int) (picked >> 32), lastCol = (int) picked;
+			for (MapChangeListener l : listeners) {
+				l.moveCompleted(this, lastRow, lastCol);
+			}
+		}
+		if (gameEnded && !endedBeforeWrite) {
+			final boolean won = isWon();
+			for (MapChangeListener l : listeners) {
+				l.gameEnded(this, won);
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener to be notified about all future changes of this map.
+	 * Listeners are not inherited by the copies of the map.
+	 * 
+	 * @param listener the listener to notify
+	 */
+	public void addChangeListener(final MapChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stops notifying a listener about the changes of this map.
+	 * 
+	 * @param listener the listener to be removed
+	 */
+	public void removeChangeListener(final MapChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Reads some data of the map without blocking the writer. If the writer
+	 * changed the map while the data was read, the read is repeated.
+	 * 
+	 * @param reader the operation reading the map, must not have side effects as
+	 *               it could be executed multiple times
+	 * @return the result of the first read that did not overlap with a write
+	 */
+	private <T> T optimisticRead(final Supplier<T> reader) {
+		while (true) {
+			final long stamp = stateLock.tryOptimisticRead();
+			if (stamp != 0) {
+				final T result = reader.get();
+				if (stateLock.validate(stamp)) {
+					return result;
+				}
+			}
+			Thread.onSpinWait();
+		}
 	}
 
 	/**
@@ -331,44 +890,103 @@ public class MineMap {
 	 * @param rowCoord the row coordinate of a suspected spot
 	 * @param colCoord the column coordinate of a suspected spot
 	 */
-	public synchronized void flagASpot(final int rowCoord, final int colCoord) {
-		// initial checks
-		if (gameEnded || checkOutOfRange(rowCoord, colCoord))
-			return;
-
-		// UI specific actions
-		delayForUI();
-		boolean mark = true;
+	public void flagASpot(final int rowCoord, final int colCoord) {
+		writerLock.lock();
+		try {
+			// initial checks
+			if (gameEnded || checkOutOfRange(rowCoord, colCoord))
+				return;
 
-		// Our main business here, flagging/unflagging the given spot depending on its
-		// previous state
-		if (Spot.UNEXPLORED.equals(exploredMap[rowCoord][colCoord].type)) {
-			exploredMap[rowCoord][colCoord] = new ExploredSpot(Spot.FLAG, -1);
-		} else if (Spot.FLAG.equals(exploredMap[rowCoord][colCoord].type)) {
-			exploredMap[rowCoord][colCoord] = new ExploredSpot(Spot.UNEXPLORED, -1);
-		} else {
-			// No UI related change has happened
-			mark = false;
+			// Our main business here, flagging/unflagging the given spot depending on its
+			// previous state
+			final long stamp = beginWrite();
+			try {
+				toggleFlag(toIndex(rowCoord, colCoord));
+			} finally {
+				endWrite(stamp);
+			}
+		} finally {
+			writerLock.unlock();
 		}
+	}
 
-		if (mark) {
-			// There was a UI specific change, this should be recorded about the suspected
-			// spot.
-			markPicked(rowCoord, colCoord);
-		}
+	/**
+	 * Flags/unflags a whole list of spots in one go. Every listed spot is handled
+	 * the same way as {@link #flagASpot(int, int)} would handle it, but the moves
+	 * are applied without leaving the map's writer lock in between. The whole
+	 * batch is a single move for the viewers of the map.
+	 * 
+	 * @param spots the packed indexes (see {@link #toIndex(int, int)}) of the
+	 *              spots to flag or unflag
+	 */
+	public void flagMany(final int[] spots) {
+		flagMany(spots, false);
 	}
 
 	/**
-	 * Allows an introduction of some delay in the minemap automated operations.
-	 * This makes sure the UI can catch up with all the updates the AI does.
+	 * Flags/unflags a whole list of spots in one go. Every listed spot is handled
+	 * the same way as {@link #flagASpot(int, int)} would handle it, but the moves
+	 * are applied without leaving the map's writer lock in between.
+	 * 
+	 * @param spots        the packed indexes (see {@link #toIndex(int, int)}) of
+	 *                     the spots to flag or unflag
+	 * @param paceEachMove if true, each move is published separately (so the UI
+	 *                     replays them one by one at its own pace), otherwise
+	 *                     the whole batch is a single move of the map
 	 */
-	private void delayForUI() {
-		// Rate of requests to flag a spot are limited by uidelay.
+	public void flagMany(final int[] spots, final boolean paceEachMove) {
+		writerLock.lock();
 		try {
-			Thread.sleep(uidelay);
-		} catch (InterruptedException iex) {
+			if (gameEnded) {
+				return;
+			}
+			if (paceEachMove) {
+				for (final int idx : spots) {
+					if (!checkOutOfRange(idx)) {
+						final long stamp = beginWrite();
+						try {
+							toggleFlag(idx);
+						} finally {
+							endWrite(stamp);
+						}
+					}
+				}
+			} else {
+				final long stamp = beginWrite();
+				try {
+					for (final int idx : spots) {
+						if (!checkOutOfRange(idx)) {
+							toggleFlag(idx);
+						}
+					}
+				} finally {
+					endWrite(stamp);
+				}
+			}
+		} finally {
+			writerLock.unlock();
+		}
+	}
 
+	/**
+	 * Flips the flag on a single spot, must be called within a write section.
+	 * Explored spots are left untouched.
+	 * 
+	 * @param idx the packed index of the spot to flag or unflag
+	 */
+	private void toggleFlag(final int idx) {
+		final int state = stateOf(idx);
+		if (state == STATE_UNEXPLORED) {
+			changeState(idx, STATE_FLAG);
+		} else if (state == STATE_FLAG) {
+			changeState(idx, STATE_UNEXPLORED);
+		} else {
+			// No UI related change has happened
+			return;
 		}
+		// There was a UI specific change, this should be recorded about the
+		// suspected spot.
+		markPicked(rowOf(idx), colOf(idx));
 	}
 
 	/**
@@ -383,46 +1001,224 @@ public class MineMap {
 	 * @return true if the game has ended/if there is no reason to call pick a spot
 	 *         again. false otherwise.
 	 */
-	public synchronized boolean pickASpot(final int rowCoord, final int colCoord) {
-		// initial checks
-		if (gameEnded) {
-			return true;
+	public boolean pickASpot(final int rowCoord, final int colCoord) {
+		writerLock.lock();
+		try {
+			// initial checks
+			if (gameEnded) {
+				return true;
+			}
+			if (checkOutOfRange(rowCoord, colCoord) || stateOf(rowCoord * cols + colCoord) == STATE_FLAG) {
+				return false;
+			}
+
+			final long stamp = beginWrite();
+			try {
+				return revealSpot(toIndex(rowCoord, colCoord));
+			} finally {
+				endWrite(stamp);
+			}
+		} finally {
+			writerLock.unlock();
+		}
+	}
+
+	/**
+	 * Picks a whole list of spots in one go. Every listed spot is handled the same
+	 * way as {@link #pickASpot(int, int)} would handle it, but the moves are
+	 * applied without leaving the map's writer lock in between. The whole batch
+	 * is a single move for the viewers of the map.
+	 * 
+	 * @param spots the packed indexes (see {@link #toIndex(int, int)}) of the
+	 *              spots to uncover
+	 * @return true if the game has ended/if there is no reason to call pick a spot
+	 *         again. false otherwise.
+	 */
+	public boolean pickMany(final int[] spots) {
+		return pickMany(spots, false);
+	}
+
+	/**
+	 * Picks a whole list of spots in one go. Every listed spot is handled the same
+	 * way as {@link #pickASpot(int, int)} would handle it, but the moves are
+	 * applied without leaving the map's writer lock in between. Flagged and out
+	 * of range spots are skipped. If one of the spots is a mine, the rest of the
+	 * list is ignored.
+	 * 
+	 * @param spots        the packed indexes (see {@link #toIndex(int, int)}) of
+	 *                     the spots to uncover
+	 * @param paceEachMove if true, each move is published separately (so the UI
+	 *                     replays them one by one at its own pace), otherwise
+	 *                     the whole batch is a single move of the map
+	 * @return true if the game has ended/if there is no reason to call pick a spot
+	 *         again. false otherwise.
+	 */
+	public boolean pickMany(final int[] spots, final boolean paceEachMove) {
+		writerLock.lock();
+		try {
+			if (gameEnded) {
+				return true;
+			}
+			if (paceEachMove) {
+				for (final int idx : spots) {
+					if (!checkOutOfRange(idx) && stateOf(idx) != STATE_FLAG) {
+						final long stamp = beginWrite();
+						try {
+							if (revealSpot(idx)) {
+								return true;
+							}
+						} finally {
+							endWrite(stamp);
+						}
+					}
+				}
+			} else {
+				final long stamp = beginWrite();
+				try {
+					for (final int idx : spots) {
+						if (!checkOutOfRange(idx) && stateOf(idx) != STATE_FLAG && revealSpot(idx)) {
+							return true;
+						}
+					}
+				} finally {
+					endWrite(stamp);
+				}
+			}
+			return gameEnded;
+		} finally {
+			writerLock.unlock();
 		}
-		if (checkOutOfRange(rowCoord, colCoord) || Spot.FLAG.equals(exploredMap[rowCoord][colCoord].type)) {
-			return false;
+	}
+
+	/**
+	 * Uncovers all unflagged neighbours of an already explored spot, if the spot
+	 * is satisfied (i.e., it has exactly as many flags around it as its near mine
+	 * count). Just like in the classic game, wrong flags around the spot will make
+	 * this step onto a mine. If the spot is not explored or not satisfied, the map
+	 * is left as it is.
+	 * 
+	 * @param rowCoord the row coordinate of the explored spot
+	 * @param colCoord the column coordinate of the explored spot
+	 * @return true if the game has ended/if there is no reason to call pick a spot
+	 *         again. false otherwise.
+	 */
+	public boolean chord(final int rowCoord, final int colCoord) {
+		writerLock.lock();
+		try {
+			if (gameEnded) {
+				return true;
+			}
+			if (checkOutOfRange(rowCoord, colCoord)) {
+				return false;
+			}
+			final int centre = toIndex(rowCoord, colCoord);
+			if (stateOf(centre) != STATE_SAFE) {
+				return false;
+			}
+			final int minRow = Math.max(rowCoord - 1, 0), maxRow = Math.min(rowCoord + 1, rows - 1);
+			final int minCol = Math.max(colCoord - 1, 0), maxCol = Math.min(colCoord + 1, cols - 1);
+			int flags = 0, unexplored = 0;
+			for (int rc = minRow; rc <= maxRow; rc++) {
+				for (int cc = minCol; cc <= maxCol; cc++) {
+					final int state = stateOf(rc * cols + cc);
+					if (state == STATE_FLAG) {
+						flags++;
+					} else if (state == STATE_UNEXPLORED) {
+						unexplored++;
+					}
+				}
+			}
+			if (flags != countAround(centre) || unexplored == 0) {
+				return false;
+			}
+
+			final long stamp = beginWrite();
+			try {
+				for (int rc = minRow; rc <= maxRow; rc++) {
+					for (int cc = minCol; cc <= maxCol; cc++) {
+						final int idx = rc * cols + cc;
+						if (stateOf(idx) == STATE_UNEXPLORED && revealSpot(idx)) {
+							return true;
+						}
+					}
+				}
+				return false;
+			} finally {
+				endWrite(stamp);
+			}
+		} finally {
+			writerLock.unlock();
 		}
+	}
 
-		// UI related operations
-		delayForUI();
+	/**
+	 * Reveals a single spot, must be called within a write section. Flood fills
+	 * the area around the spot if it has no mines around.
+	 * 
+	 * @param idx the packed index of the spot to uncover
+	 * @return true if the spot was a mine (i.e., the game has ended)
+	 */
+	private boolean revealSpot(final int idx) {
 		// Remembering what location was picked (this is really important for the UI)
-		markPicked(rowCoord, colCoord);
+		markPicked(rowOf(idx), colOf(idx));
 
 		// The actual reveal of the spot
-		boolean ret = false;
-		if (Spot.MINE.equals(completeMap[rowCoord][colCoord])) {
+		if (isMine(idx)) {
 			// The game ended..
-			exploredMap[rowCoord][colCoord] = new ExploredSpot(Spot.EXPLODED, Integer.MAX_VALUE);
+			changeState(idx, STATE_EXPLODED);
 			gameEnded = true;
-			ret = true;
-		} else {
-			// The spot was not a mine, we can explore further
-			traceFrom(rowCoord, colCoord);
+			return true;
 		}
-		return ret;
+		// The spot was not a mine, we can explore further (the whole flood fill is
+		// in the same write section, readers never see it half done)
+		traceFrom(idx);
+		return false;
 	}
 
 	/**
 	 * Allows discovering the largest extent of unexplored, but completely safe
-	 * (i.e., spots with no mines on them) area
+	 * (i.e., spots with no mines on them) area. The tracing uses an explicit work
+	 * list instead of recursion, so it reveals arbitrarily large empty regions
+	 * without the risk of overflowing the stack. Every spot is revealed (and
+	 * looked around) only once.
 	 * 
-	 * @param rowCoord the row coordinate where the tracing should happen from
-	 * @param colCoord the column coordinate where the tracing should happen from
+	 * @param startIdx the packed index of the spot where the tracing should happen
+	 *                 from
 	 */
-	private void traceFrom(final int rowCoord, final int colCoord) {
-		if (Spot.UNEXPLORED.equals(exploredMap[rowCoord][colCoord].type)) {
-			exploredMap[rowCoord][colCoord] = new ExploredSpot(Spot.SAFE, howManyAround[rowCoord][colCoord]);
-			if (howManyAround[rowCoord][colCoord] == 0) {
-				sweepAround(rowCoord, colCoord);
+	private void traceFrom(final int startIdx) {
+		if (stateOf(startIdx) != STATE_UNEXPLORED) {
+			return;
+		}
+		changeState(startIdx, STATE_SAFE);
+		if (countAround(startIdx) != 0) {
+			return;
+		}
+		if (traceStack == null) {
+			traceStack = new int[Math.min(fieldSize, 64)];
+		}
+		int top = 0;
+		traceStack[top++] = startIdx;
+		while (top > 0) {
+			final int idx = traceStack[--top];
+			final int rowCoord = idx / cols;
+			final int colCoord = idx - rowCoord * cols;
+			final int maxRow = Math.min(rowCoord + 1, rows - 1);
+			final int maxCol = Math.min(colCoord + 1, cols - 1);
+			for (int dr = Math.max(rowCoord - 1, 0); dr <= maxRow; dr++) {
+				for (int dc = Math.max(colCoord - 1, 0); dc <= maxCol; dc++) {
+					final int nidx = dr * cols + dc;
+					if (stateOf(nidx) != STATE_UNEXPLORED) {
+						// Already revealed or flagged, flags are never traced over
+						continue;
+					}
+					changeState(nidx, STATE_SAFE);
+					if (countAround(nidx) == 0) {
+						if (top == traceStack.length) {
+							traceStack = Arrays.copyOf(traceStack, Math.min(fieldSize, top * 2));
+						}
+						traceStack[top++] = nidx;
+					}
+				}
 			}
 		}
 	}
@@ -434,13 +1230,57 @@ public class MineMap {
 	 * @return true if the game has no more moves. false otherwise.
 	 */
 	public boolean isEnded() {
-		if (gameEnded)
-			return true;
-		if (isWon()) {
-			gameEnded = true;
-			return true;
+		return gameEnded;
+	}
+
+	/**
+	 * Allows waiting for the end of the game (e.g., with a deadline) instead of
+	 * polling {@link #isEnded()}. The future is completed with this map right
+	 * after the move that ended the game.
+	 * 
+	 * @return a new future for every call, so completing or cancelling it does
+	 *         not affect the map or the other callers
+	 */
+	public CompletableFuture<MineMap> getGameEnd() {
+		return gameEnd().copy();
+	}
+
+	/**
+	 * @return the future completed at the end of the game, see
+	 *         {@link #getGameEnd()}
+	 */
+	private CompletableFuture<MineMap> gameEnd() {
+		if (gameEnded && copiedAfterEnd) {
+			gameEnd.complete(this);
 		}
-		return false;
+		return gameEnd;
+	}
+
+	/**
+	 * Tells when the game ended. The time is taken inside the move that ended the
+	 * game, so it does not depend on how quickly others noticed the end.
+	 * 
+	 * @return the value of {@link System#nanoTime()} at the end of the game
+	 * @throws IllegalStateException if the game has not ended yet
+	 */
+	public long getEndedAt() {
+		if (!gameEnded) {
+			throw new IllegalStateException("The game is still running");
+		}
+		// A mine explosion sets gameEnded before the write section is over, the end
+		// time is only guaranteed to be there once the future is completed
+		gameEnd().join();
+		return endedAt;
+	}
+
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	@Override
+	public int getCols() {
+		return cols;
 	}
 
 	/**
@@ -454,33 +1294,271 @@ public class MineMap {
 	}
 
 	/**
-	 * Tells how big of an area have been picked or flagged in this map
+	 * Tells how big of an area have been picked in this map (i.e., the spots that
+	 * are neither unexplored nor flagged).
 	 * 
-	 * @return the number of spots that have been interacted with
+	 * @return the number of spots that have been picked or traced
 	 */
 	public int getExploredAreaSize() {
-		int size = 0;
-		for (int rc = 0; rc < rows; rc++) {
-			for (int cc = 0; cc < cols; cc++) {
-				size += Spot.unknown.contains(exploredMap[rc][cc].type) ? 0 : 1;
+		return exploredCount;
+	}
+
+	/**
+	 * Tells how many flags are on the map at the moment. Unlike
+	 * {@link #getCorrectlyIdentifiedMineCount()}, this does not tell whether the
+	 * flags are right, so it is also available while the game is ongoing.
+	 * 
+	 * @return the number of flagged spots
+	 */
+	public int getFlagCount() {
+		return correctFlags + wrongFlags;
+	}
+
+	/**
+	 * Collects all spots that are still to be explored (i.e., the spots that are
+	 * neither explored nor flagged).
+	 * 
+	 * @return a new board with the unexplored spots, it can be freely modified by
+	 *         the caller
+	 */
+	public BitBoard getUnexploredMask() {
+		return optimisticRead(() -> new BitBoard(exploredLayer).or(flagLayer).flip());
+	}
+
+	/**
+	 * Collects the frontier of the explored area: the unexplored spots that are
+	 * next to (including diagonally) an already explored spot. These are the
+	 * spots about which the revealed near mine counts tell something. Flagged
+	 * spots are not part of the frontier.
+	 * 
+	 * @return a new board with the frontier spots, it can be freely modified by
+	 *         the caller
+	 */
+	public BitBoard getFrontierMask() {
+		return optimisticRead(() -> exploredLayer.neighbourhood().andNot(exploredLayer).andNot(flagLayer));
+	}
+
+	/**
+	 * Lists the explored safe spots that still have unexplored (and not flagged)
+	 * neighbours, i.e., the revealed numbers that can still tell something about
+	 * the unexplored area. Unlike a scan of the map, this costs time proportional
+	 * to the size of the frontier only: the frontier is maintained as the spots
+	 * change (the first call builds it with a single scan of the map).
+	 * 
+	 * @return the packed indexes (see {@link #toIndex(int, int)}) of the spots,
+	 *         in no particular order. The array is owned by the caller.
+	 */
+	public int[] getFrontierNumbers() {
+		final FrontierIndex index = frontierIndex();
+		return optimisticRead(() -> index.numbers.toArray());
+	}
+
+	/**
+	 * Tells the size of the list returned by {@link #getFrontierNumbers()}. Together
+	 * with {@link #getFrontierNumber(int)}, this allows going through the frontier
+	 * numbers without copying them:
+	 * 
+	 * <pre>
+	 * for (int i = 0; i &lt; map.getFrontierNumberCount(); i++) {
+	 * 	final int idx = map.getFrontierNumber(i);
+	 * }
+	 * </pre>
+	 * 
+	 * <i>Note:</i> such an iteration is meant for the solver playing the map
+	 * (i.e., the thread doing the moves), and the map should not be changed while
+	 * it is in progress.
+	 * 
+	 * @return the number of explored safe spots that have unexplored neighbours
+	 */
+	public int getFrontierNumberCount() {
+		return frontierIndex().numbers.size();
+	}
+
+	/**
+	 * Allows going through the frontier numbers one by one, see
+	 * {@link #getFrontierNumberCount()}.
+	 * 
+	 * @param i the position of the spot in the frontier (0 &lt;= i &lt;
+	 *          getFrontierNumberCount())
+	 * @return the packed index of the spot at the given position
+	 */
+	public int getFrontierNumber(final int i) {
+		return frontierIndex().numbers.get(i);
+	}
+
+	/**
+	 * Lists the unexplored (and not flagged) spots next to (including diagonally)
+	 * at least one explored safe spot. Maintained the same way as
+	 * {@link #getFrontierNumbers()}.
+	 * 
+	 * @return the packed indexes (see {@link #toIndex(int, int)}) of the spots,
+	 *         in no particular order. The array is owned by the caller.
+	 */
+	public int[] getFrontierUnexplored() {
+		final FrontierIndex index = frontierIndex();
+		return optimisticRead(() -> index.unexplored.toArray());
+	}
+
+	/**
+	 * Tells the size of the list returned by {@link #getFrontierUnexplored()}
+	 * without copying it. Like {@link #getFrontierNumberCount()}, this is meant
+	 * for the solver playing the map.
+	 * 
+	 * @return the number of unexplored spots next to explored safe spots
+	 */
+	public int getFrontierUnexploredCount() {
+		return frontierIndex().unexplored.size();
+	}
+
+	/**
+	 * Starts an iteration through the explored safe spots with a particular near
+	 * mine count:
+	 * 
+	 * <pre>
+	 * for (int idx = map.firstRevealed(count); idx >= 0; idx = map.nextRevealed(idx)) {
+	 * 	// use map.rowOf(idx) and map.colOf(idx)
+	 * }
+	 * </pre>
+	 * 
+	 * The spots are listed in the order they were revealed. The iteration costs
+	 * time proportional to the number of listed spots only (the first call builds
+	 * the buckets with a single scan of the map). Moves done during the iteration
+	 * are allowed, the spots they reveal are listed at the end of the iteration.
+	 * 
+	 * <i>Note:</i> the iteration is meant for the solver playing the map (i.e.,
+	 * the thread doing the moves), other threads should use
+	 * {@link #getSnapshot()}.
+	 * 
+	 * @param nearMineCount the near mine count of the spots to list (0-8)
+	 * @return the packed index (see {@link #toIndex(int, int)}) of the first spot
+	 *         with the given count, or -1 if there are no such spots
+	 */
+	public int firstRevealed(final int nearMineCount) {
+		return numberBuckets().first(nearMineCount);
+	}
+
+	/**
+	 * Continues an iteration started with {@link #firstRevealed(int)}.
+	 * 
+	 * @param idx the packed index of the last spot received from the iteration
+	 * @return the packed index of the next spot with the same near mine count, or
+	 *         -1 if there are no more such spots
+	 */
+	public int nextRevealed(final int idx) {
+		return numberBuckets().next(idx);
+	}
+
+	/**
+	 * Tells how many explored safe spots have a particular near mine count.
+	 * 
+	 * @param nearMineCount the near mine count to look for (0-8)
+	 * @return the number of explored safe spots with the given count
+	 */
+	public int getRevealedCount(final int nearMineCount) {
+		return numberBuckets().size(nearMineCount);
+	}
+
+	/**
+	 * Chooses one of the unexplored (and not flagged) spots of the map uniformly
+	 * at random. The map keeps its unexplored spots in a dense array, so the
+	 * choice takes constant time independently from the size of the map (the
+	 * first call builds the array with a single scan of the map).
+	 * 
+	 * @param rnd the random generator to choose with
+	 * @return the packed index (see {@link #toIndex(int, int)}) of the chosen
+	 *         spot, or -1 if there are no unexplored spots left
+	 */
+	public int randomUnexploredSpot(final Random rnd) {
+		CellSet index = unexploredSpots;
+		if (index == null) {
+			writerLock.lock();
+			try {
+				index = unexploredSpots;
+				if (index == null) {
+					index = new CellSet(fieldSize);
+					for (int idx = 0; idx < fieldSize; idx++) {
+						if (stateOf(idx) == STATE_UNEXPLORED) {
+							index.add(idx);
+						}
+					}
+					unexploredSpots = index;
+				}
+			} finally {
+				writerLock.unlock();
 			}
 		}
-		return size;
+		final CellSet choices = index;
+		return optimisticRead(() -> choices.random(rnd));
 	}
 
 	/**
-	 * Calculates the number of mines that have a flag on them
+	 * Returns the near mine count buckets of the map, builds them if this is the
+	 * first time they are needed.
 	 * 
-	 * @return the number of correctly flagged mines
+	 * @return the buckets
 	 */
-	private int getFlaggedMineCount() {
-		int idd = 0;
-		for (int rc = 0; rc < rows; rc++) {
-			for (int cc = 0; cc < cols; cc++) {
-				idd += Spot.FLAG.equals(exploredMap[rc][cc].type) && Spot.MINE.equals(completeMap[rc][cc]) ? 1 : 0;
+	private NumberBuckets numberBuckets() {
+		NumberBuckets index = buckets;
+		if (index == null) {
+			writerLock.lock();
+			try {
+				index = buckets;
+				if (index == null) {
+					index = new NumberBuckets(fieldSize);
+					for (int idx = 0; idx < fieldSize; idx++) {
+						if (stateOf(idx) == STATE_SAFE) {
+							index.add(idx, countAround(idx));
+						}
+					}
+					buckets = index;
+				}
+			} finally {
+				writerLock.unlock();
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the frontier index of the map, builds it if this is the first time
+	 * it is needed.
+	 * 
+	 * @return the frontier index
+	 */
+	private FrontierIndex frontierIndex() {
+		FrontierIndex index = frontier;
+		if (index == null) {
+			writerLock.lock();
+			try {
+				// Writers hold the lock, the map does not change during the build
+				index = frontier;
+				if (index == null) {
+					frontier = index = new FrontierIndex(rows, cols, states);
+				}
+			} finally {
+				writerLock.unlock();
 			}
 		}
-		return idd;
+		return index;
+	}
+
+	/**
+	 * Collects all flagged spots of the map.
+	 * 
+	 * @return a new board with the flagged spots, it can be freely modified by the
+	 *         caller
+	 */
+	public BitBoard getFlagMask() {
+		return optimisticRead(() -> new BitBoard(flagLayer));
+	}
+
+	/**
+	 * Tells the number of mines that have a flag on them
+	 * 
+	 * @return the number of correctly flagged mines
+	 */
+	private int getFlaggedMineCount() {
+		return correctFlags;
 	}
 
 	/**
@@ -505,13 +1583,7 @@ public class MineMap {
 	 */
 	public int getInCorrectlyIdentifiedMineCount() {
 		if (gameEnded) {
-			int idd = 0;
-			for (int rc = 0; rc < rows; rc++) {
-				for (int cc = 0; cc < cols; cc++) {
-					idd += Spot.FLAG.equals(exploredMap[rc][cc].type) && !Spot.MINE.equals(completeMap[rc][cc]) ? 1 : 0;
-				}
-			}
-			return idd;
+			return wrongFlags;
 		} else {
 			return -1;
 		}
@@ -519,7 +1591,8 @@ public class MineMap {
 
 	/**
 	 * This is one of the main interaction points for AIs. Allows to query the
-	 * explored map internally maintained by this MineMap.
+	 * explored map internally maintained by this MineMap. The returned objects are
+	 * shared flyweights, thus querying a spot does not allocate any memory.
 	 * 
 	 * @param rowCoord the row coordinate of the requested spot
 	 * @param colCoord the column coordinate of the requested spot
@@ -532,7 +1605,99 @@ public class MineMap {
 	 *                                        checkOutOfRange} method.
 	 */
 	public ExploredSpot getPos(final int rowCoord, final int colCoord) throws ArrayIndexOutOfBoundsException {
-		return exploredMap[rowCoord][colCoord];
+		if (checkOutOfRange(rowCoord, colCoord)) {
+			throw new ArrayIndexOutOfBoundsException("Spot " + rowCoord + "," + colCoord + " is not on the map");
+		}
+		final int idx = rowCoord * cols + colCoord;
+		return spotFor(states[idx], layout[idx]);
+	}
+
+	/**
+	 * Queries a spot just like {@link #getPos(int, int)}, but with a packed index.
+	 * Together with {@link #getNeighbourhood()} this allows walking the map
+	 * without converting between indexes and coordinates.
+	 * 
+	 * @param idx the packed index (see {@link #toIndex(int, int)}) of the
+	 *            requested spot
+	 * @return The details about the given spot in the explored map
+	 * @throws ArrayIndexOutOfBoundsException if the index does not point to a
+	 *                                        spot of the map
+	 */
+	public ExploredSpot getPos(final int idx) throws ArrayIndexOutOfBoundsException {
+		return spotFor(states[idx], layout[idx]);
+	}
+
+	/**
+	 * Allows listing the neighbours of the spots of this map without range checks
+	 * and allocations.
+	 * 
+	 * @return the neighbour helper of this map
+	 */
+	public Neighbourhood getNeighbourhood() {
+		Neighbourhood current = neighbourhood;
+		if (current == null) {
+			// Racing threads might create separate instances, these are immutable and
+			// equivalent so it does not matter which one is kept
+			neighbourhood = current = new Neighbourhood(rows, cols);
+		}
+		return current;
+	}
+
+	/**
+	 * Determines the flyweight describing a spot.
+	 * 
+	 * @param state      the explored state of the spot (one of the STATE_*
+	 *                   constants)
+	 * @param layoutByte the spot's byte in the mine layout
+	 * @return the shared ExploredSpot instance describing the spot
+	 */
+	private static ExploredSpot spotFor(final int state, final int layoutByte) {
+		switch (state) {
+		case STATE_SAFE:
+			return safeSpots[layoutByte & COUNT_MASK];
+		case STATE_FLAG:
+			return flaggedSpot;
+		case STATE_EXPLODED:
+			return explodedSpot;
+		default:
+			return unexploredSpot;
+		}
+	}
+
+	/**
+	 * Takes a consistent copy of the explored state of the map. It can be called
+	 * from any thread without blocking the writer of the map. The snapshot never
+	 * contains a half finished change (e.g., a partially traced region).
+	 * 
+	 * @return the snapshot of the map
+	 */
+	public Snapshot getSnapshot() {
+		return getSnapshot(null);
+	}
+
+	/**
+	 * Takes a consistent copy of the explored state of the map just like
+	 * {@link #getSnapshot()}, but avoids copying the map if it has not changed
+	 * since a previous snapshot. This is useful for periodic refreshes.
+	 * 
+	 * @param previous an earlier snapshot of this map (or null)
+	 * @return the previous snapshot if the map has not changed since it was taken,
+	 *         a new snapshot otherwise
+	 */
+	public Snapshot getSnapshot(final Snapshot previous) {
+		while (true) {
+			final long stamp = stateLock.tryOptimisticRead();
+			if (stamp != 0) {
+				if (previous != null && previous.source == this && previous.stamp == stamp) {
+					return previous;
+				}
+				final Snapshot current = new Snapshot(this, stamp);
+				if (stateLock.validate(stamp)) {
+					return current;
+				}
+			}
+			Thread.onSpinWait();
+		}
 	}
 
 	/**
@@ -541,7 +1706,7 @@ public class MineMap {
 	 * @return
 	 */
 	public int getLastCol() {
-		return lastCol;
+		return (int) lastPicked;
 	}
 
 	/**
@@ -550,6 +1715,119 @@ public class MineMap {
 	 * @return
 	 */
 	public int getLastRow() {
-		return lastRow;
+		return (int) (lastPicked >> 32);
+	}
+
+	/**
+	 * An unmodifiable, consistent copy of the explored state of a map at a given
+	 * moment (see {@link MineMap#getSnapshot()}). Snapshots share the mine layout
+	 * with their map, but they only reveal what the map reveals as well.
+	 * 
+	 * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+	 *         Moores University, (c) 2019"
+	 */
+	public static class Snapshot implements MapView {
+		/**
+		 * The dimensions of the map the snapshot was taken of.
+		 */
+		public final int rows, cols;
+		private final MineMap source;
+		private final long stamp;
+		private final byte[] layout, states;
+		private final boolean ended, won;
+		private final int exploredCount, flagCount, lastRow, lastCol;
+
+		/**
+		 * Copies the state of the map. The copy is only consistent if no write
+		 * section overlapped with it, this is checked by the map.
+		 * 
+		 * @param source the map to copy
+		 * @param stamp  the optimistic read stamp the copy was made with
+		 */
+		private Snapshot(final MineMap source, final long stamp) {
+			this.source = source;
+			this.stamp = stamp;
+			rows = source.rows;
+			cols = source.cols;
+			layout = source.layout;
+			states = source.states.clone();
+			ended = source.gameEnded;
+			won = source.isWon();
+			exploredCount = source.exploredCount;
+			flagCount = source.correctFlags + source.wrongFlags;
+			lastRow = source.getLastRow();
+			lastCol = source.getLastCol();
+		}
+
+		/**
+		 * Queries a spot just like {@link MineMap#getPos(int, int)} would have at
+		 * the time of the snapshot.
+		 * 
+		 * @param rowCoord the row coordinate of the requested spot
+		 * @param colCoord the column coordinate of the requested spot
+		 * @return The details about the given spot in the explored map
+		 * @throws ArrayIndexOutOfBoundsException if the requested position is not
+		 *                                        within the the map
+		 */
+		public ExploredSpot getPos(final int rowCoord, final int colCoord) throws ArrayIndexOutOfBoundsException {
+			if (colCoord < 0 || rowCoord < 0 || rowCoord >= rows || colCoord >= cols) {
+				throw new ArrayIndexOutOfBoundsException("Spot " + rowCoord + "," + colCoord + " is not on the map");
+			}
+			final int idx = rowCoord * cols + colCoord;
+			return spotFor(states[idx], layout[idx]);
+		}
+
+		@Override
+		public int getRows() {
+			return rows;
+		}
+
+		@Override
+		public int getCols() {
+			return cols;
+		}
+
+		/**
+		 * @return true if the game was over at the time of the snapshot
+		 */
+		public boolean isEnded() {
+			return ended;
+		}
+
+		/**
+		 * @return true if the game was won at the time of the snapshot
+		 */
+		public boolean isWon() {
+			return won;
+		}
+
+		/**
+		 * @return the number of explored spots at the time of the snapshot
+		 */
+		public int getExploredAreaSize() {
+			return exploredCount;
+		}
+
+		/**
+		 * @return the number of flags at the time of the snapshot
+		 */
+		public int getFlagCount() {
+			return flagCount;
+		}
+
+		/**
+		 * @return the row of the last picked/flagged spot at the time of the snapshot
+		 */
+		public int getLastRow() {
+			return lastRow;
+		}
+
+		/**
+		 * @return the column of the last picked/flagged spot at the time of the
+		 *         snapshot
+		 */
+		public int getLastCol() {
+			return lastCol;
+		}
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.StepSolver;
+
+/**
+ * A single move of a {@link StepSolver}. Moves are immutable, they only record
+ * what should be done on which spot, the map is changed when the move is
+ * applied to it.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class Move {
+	/**
+	 * The operations a move can do on a map.
+	 */
+	public enum Kind {
+		/**
+		 * See {@link MineMap#pickASpot(int, int)}
+		 */
+		PICK,
+		/**
+		 * See {@link MineMap#flagASpot(int, int)}
+		 */
+		FLAG,
+		/**
+		 * See {@link MineMap#chord(int, int)}
+		 */
+		CHORD
+	}
+
+	/**
+	 * The operation to do
+	 */
+	public final Kind kind;
+	/**
+	 * The coordinates of the spot the operation is done on
+	 */
+	public final int rowCoord, colCoord;
+
+	private Move(final Kind kind, final int rowCoord, final int colCoord) {
+		this.kind = kind;
+		this.rowCoord = rowCoord;
+		this.colCoord = colCoord;
+	}
+
+	/**
+	 * @param rowCoord the row of the spot to uncover
+	 * @param colCoord the column of the spot to uncover
+	 * @return a move that picks the spot
+	 */
+	public static Move pick(final int rowCoord, final int colCoord) {
+		return new Move(Kind.PICK, rowCoord, colCoord);
+	}
+
+	/**
+	 * @param rowCoord the row of the spot to flag or unflag
+	 * @param colCoord the column of the spot to flag or unflag
+	 * @return a move that toggles the flag on the spot
+	 */
+	public static Move flag(final int rowCoord, final int colCoord) {
+		return new Move(Kind.FLAG, rowCoord, colCoord);
+	}
+
+	/**
+	 * @param rowCoord the row of the explored spot
+	 * @param colCoord the column of the explored spot
+	 * @return a move that uncovers the neighbours of a satisfied spot
+	 */
+	public static Move chord(final int rowCoord, final int colCoord) {
+		return new Move(Kind.CHORD, rowCoord, colCoord);
+	}
+
+	/**
+	 * Does the move on a map.
+	 * 
+	 * @param theMap the map to change
+	 * @return true if the game has ended
+	 */
+	public boolean applyTo(final MineMap theMap) {
+		switch (kind) {
+		case PICK:
+			return theMap.pickASpot(rowCoord, colCoord);
+		case FLAG:
+			theMap.flagASpot(rowCoord, colCoord);
+			return theMap.isEnded();
+		default:
+			return theMap.chord(rowCoord, colCoord);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return kind + "(" + rowCoord + "," + colCoord + ")";
+	}
+}
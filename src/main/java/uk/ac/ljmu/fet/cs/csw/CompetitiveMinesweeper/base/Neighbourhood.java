@@ -0,0 +1,168 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Lists the neighbours (including the diagonal ones) of the spots of a rows x
+ * cols sized map, using packed indexes (rowCoord * cols + colCoord). Spots are
+ * sorted into border classes depending on whether they are in the first/last
+ * row and column of the map. Every class has a precomputed table of the index
+ * offsets of its neighbours, and the class of every spot is precomputed as
+ * well (a byte per spot). Thus listing the neighbours of a spot is two table
+ * lookups and a few additions: no range checks, no divisions to recover the
+ * coordinates and no allocations are needed.
+ * 
+ * Instances are immutable, a map and all of its copies share the same one (see
+ * {@link MineMap#getNeighbourhood()}).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class Neighbourhood {
+	/**
+	 * The most neighbours a spot can have. Buffers passed to
+	 * {@link #neighboursOf(int, int[])} should be at least this long.
+	 */
+	public static final int MAX_NEIGHBOURS = 8;
+	// Border class bits of a row/column: first, last (both for single row/column
+	// maps)
+	private static final byte FIRST = 1, LAST = 2;
+
+	/**
+	 * The dimensions of the map the neighbours are listed for.
+	 */
+	public final int rows, cols;
+	// The border class of every spot (row class * 4 + column class)
+	private final byte[] cellClass;
+	// The neighbour offsets for every border class (row class * 4 + column class)
+	private final int[][] offsets = new int[16][];
+
+	/**
+	 * Prepares the offset tables for a map.
+	 * 
+	 * @param rows the number of rows in the map
+	 * @param cols the number of columns in the map
+	 */
+	public Neighbourhood(final int rows, final int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		final byte[] rowClass = borderClasses(rows), colClass = borderClasses(cols);
+		cellClass = new byte[rows * cols];
+		for (int rc = 0; rc < rows; rc++) {
+			for (int cc = 0; cc < cols; cc++) {
+				cellClass[rc * cols + cc] = (byte) (rowClass[rc] << 2 | colClass[cc]);
+			}
+		}
+		for (int rc = 0; rc < 4; rc++) {
+			for (int cc = 0; cc < 4; cc++) {
+				final int[] table = new int[MAX_NEIGHBOURS];
+				int count = 0;
+				for (int dr = (rc & FIRST) != 0 ? 0 : -1; dr <= ((rc & LAST) != 0 ? 0 : 1); dr++) {
+					for (int dc = (cc & FIRST) != 0 ? 0 : -1; dc <= ((cc & LAST) != 0 ? 0 : 1); dc++) {
+						if (dr != 0 || dc != 0) {
+							table[count++] = dr * cols + dc;
+						}
+					}
+				}
+				offsets[rc << 2 | cc] = Arrays.copyOf(table, count);
+			}
+		}
+	}
+
+	/**
+	 * Determines the border classes along a dimension of the map.
+	 * 
+	 * @param length the number of rows/columns
+	 * @return the border class of every row/column
+	 */
+	private static byte[] borderClasses(final int length) {
+		final byte[] classes = new byte[length];
+		if (length > 0) {
+			classes[0] |= FIRST;
+			classes[length - 1] |= LAST;
+		}
+		return classes;
+	}
+
+	/**
+	 * Looks up the neighbour offsets of a spot.
+	 * 
+	 * @param idx the packed index of the spot
+	 * @return the offsets to add to idx to get its neighbours
+	 */
+	private int[] offsetsOf(final int idx) {
+		return offsets[cellClass[idx]];
+	}
+
+	/**
+	 * Collects the neighbours of a spot into a buffer supplied by the caller. This
+	 * allows iterating the neighbours without any allocations:
+	 * 
+	 * <pre>
+	 * final int[] buffer = new int[Neighbourhood.MAX_NEIGHBOURS];
+	 * ...
+	 * final int count = neighbourhood.neighboursOf(idx, buffer);
+	 * for (int i = 0; i &lt; count; i++) {
+	 * 	// use buffer[i]
+	 * }
+	 * </pre>
+	 * 
+	 * @param idx    the packed index of the spot
+	 * @param buffer the array to fill with the packed indexes of the neighbours,
+	 *               it should have at least {@link #MAX_NEIGHBOURS} items
+	 * @return the number of neighbours written to the start of the buffer
+	 */
+	public int neighboursOf(final int idx, final int[] buffer) {
+		final int[] table = offsetsOf(idx);
+		for (int i = 0; i < table.length; i++) {
+			buffer[i] = idx + table[i];
+		}
+		return table.length;
+	}
+
+	/**
+	 * Runs an action for every neighbour of a spot.
+	 * 
+	 * @param idx    the packed index of the spot
+	 * @param action receives the packed indexes of the neighbours
+	 */
+	public void forEach(final int idx, final IntConsumer action) {
+		for (final int offset : offsetsOf(idx)) {
+			action.accept(idx + offset);
+		}
+	}
+
+	/**
+	 * Tells how many neighbours a spot has (8 inside the map, less along the
+	 * borders).
+	 * 
+	 * @param idx the packed index of the spot
+	 * @return the number of neighbours
+	 */
+	public int count(final int idx) {
+		return offsetsOf(idx).length;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base;
+
+import java.util.Arrays;
+
+/**
+ * Groups the explored safe spots of a MineMap by their near mine counts. Every
+ * count (0-8) has its own list of spots. The lists are intrusive: the link to
+ * the next spot of a list is stored in a single array indexed by the spots
+ * themselves, thus the buckets of a map never allocate after their creation.
+ * 
+ * Safe spots never change their state again, so spots are only ever appended
+ * to the end of their bucket. This allows the owner of the map to iterate a
+ * bucket while its moves are revealing further spots: the newly revealed spots
+ * are visited at the end of the iteration.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+final class NumberBuckets {
+	/**
+	 * Marks the end of a bucket.
+	 */
+	static final int END = -1;
+	// The first and last spots of every bucket
+	private final int[] heads = new int[9], tails = new int[9];
+	// The number of spots in every bucket
+	private final int[] sizes = new int[9];
+	// The spot after every spot in its bucket
+	private final int[] next;
+
+	/**
+	 * Creates empty buckets for a map.
+	 * 
+	 * @param fieldSize the number of spots in the map
+	 */
+	NumberBuckets(final int fieldSize) {
+		next = new int[fieldSize];
+		Arrays.fill(heads, END);
+		Arrays.fill(tails, END);
+	}
+
+	/**
+	 * Appends a newly revealed spot to its bucket.
+	 * 
+	 * @param idx           the packed index of the spot
+	 * @param nearMineCount the number of mines around the spot
+	 */
+	void add(final int idx, final int nearMineCount) {
+		next[idx] = END;
+		if (tails[nearMineCount] == END) {
+			heads[nearMineCount] = idx;
+		} else {
+			next[tails[nearMineCount]] = idx;
+		}
+		tails[nearMineCount] = idx;
+		sizes[nearMineCount]++;
+	}
+
+	/**
+	 * @param nearMineCount the bucket to look at
+	 * @return the first spot of the bucket, or {@link #END} if it is empty
+	 */
+	int first(final int nearMineCount) {
+		return heads[nearMineCount];
+	}
+
+	/**
+	 * @param idx a spot in one of the buckets
+	 * @return the spot after the given one in its bucket, or {@link #END} if it
+	 *         was the last one
+	 */
+	int next(final int idx) {
+		return next[idx];
+	}
+
+	/**
+	 * @param nearMineCount the bucket to look at
+	 * @return the number of spots in the bucket
+	 */
+	int size(final int nearMineCount) {
+		return sizes[nearMineCount];
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Move;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.StepSolver;
+
+/**
+ * The base class of step based AIs. Subclasses only implement
+ * {@link #nextMove(uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapView)},
+ * this class makes them usable as a usual solver thread as well (i.e., in
+ * matches, competitions and the GUI): its {@link #run()} method keeps asking
+ * for moves and applies them until the game ends.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public abstract class AbstractStepSolver extends AbstractSolver implements StepSolver {
+	/**
+	 * Plays the received map until it ends or the solver gives up on it.
+	 */
+	@Override
+	public void run() {
+		super.run();
+		final MineMap myMap = getMyMap();
+		while (!myMap.isEnded()) {
+			final Move next = nextMove(myMap);
+			if (next == null) {
+				return;
+			}
+			next.applyTo(myMap);
+		}
+	}
+}
@@ -4,11 +4,13 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
-import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Endgame;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.CoordinatesForSpot;
 
 public class CSW6Solver extends AbstractSolver {
@@ -24,6 +26,7 @@ public class CSW6Solver extends AbstractSolver {
 	 */
 	CoordinatesForSpot spotToPickWithUncertainty = null;
 	float originalProbability = 1; //The probability of that spot being a mine
+	int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS]; //Reused buffer for the neighbours of a spot
 	
 	/**
 	 * The algorithm starts with a point at random and then iterate through all the spots 
@@ -34,14 +37,31 @@ public class CSW6Solver extends AbstractSolver {
 		// Run and get map to solve
 		super.run();
 		MineMap myMap = getMyMap(); 
+		//Suggests the safest spots once the frontier is small (using the number of mines left), created when first needed
+		Endgame endgame = null;
 		
 		//Iterate while the game is not ended
 		mainLoop: do {
+			if (endgame == null && Endgame.isDue(myMap, Endgame.defaultFrontierLimit))
+				endgame = new Endgame(myMap);
+			int mine = endgame == null ? -1 : endgame.knownMine();
+			int safest = endgame == null || mine >= 0 ? -1 : endgame.safestSpot();
+			//Flag the mines the endgame has found
+			if (mine >= 0) {
+				myMap.flagASpot(myMap.rowOf(mine), myMap.colOf(mine));
+			}
+			//Pick the safest spot if we are in the endgame
+			else if (safest >= 0) {
+				myMap.pickASpot(myMap.rowOf(safest), myMap.colOf(safest));
+				spotToPickWithUncertainty = null;
+				originalProbability = 1;
+			}
 			//Pick spot that has a lower probability of being a mine
-			if (originalProbability <= 0.5) {
+			else if (originalProbability <= 0.5) {
 				myMap.pickASpot(spotToPickWithUncertainty.rowCoord, spotToPickWithUncertainty.colCoord);
 				System.out.println("\n>>>>>>SPOT PICKED USING PROBABILITY " + originalProbability + " spot: (" + spotToPickWithUncertainty.rowCoord + "," + spotToPickWithUncertainty.colCoord +")");
 				spotToPickWithUncertainty = null;
+				originalProbability = 1;
 			} else {
 				pickAtRandom(myMap);
 			}
@@ -58,26 +78,22 @@ public class CSW6Solver extends AbstractSolver {
 				//A spot can have 1 through 8 mines around
 				for(int i = 1; i < 9; i++) {
 					System.out.println("\n-NEAR MINE COUNT " + i + ": " );
-					//Find all the spots that have i mines around
-					for (int cc = 0; cc < myMap.cols; cc++) {
-						for (int rc = 0; rc < myMap.rows; rc++) {
-							ExploredSpot aSpot = myMap.getPos(rc, cc);
-							if (Spot.SAFE.equals(aSpot.type)) {
-								if (aSpot.nearMineCount == i) {
-									System.out.print("(" + rc + ", " + cc +"): ");
-									//Search around the spot that has i mines around
-									searchAroundCentre(myMap, new CoordinatesForSpot(rc, cc));
-									//Break out the loop if the last action taken has ended the game
-									if (myMap.isEnded())
-										break mainLoop;
-								}
-							}
-						}
-					}	
+					//Go through all the spots that have i mines around (the map keeps them in buckets)
+					for (int idx = myMap.firstRevealed(i); idx >= 0; idx = myMap.nextRevealed(idx)) {
+						int rc = myMap.rowOf(idx), cc = myMap.colOf(idx);
+						System.out.print("(" + rc + ", " + cc +"): ");
+						//Search around the spot that has i mines around
+						searchAroundCentre(myMap, new CoordinatesForSpot(rc, cc));
+						//Break out the loop if the last action taken has ended the game
+						if (myMap.isEnded())
+							break mainLoop;
+					}
 				}
 			} while (actionTaken);
 			
 		} while(!myMap.isEnded());
+		if (endgame != null)
+			endgame.detach();
 		
 		//Print if the game ended with a win or loss
 		if(myMap.isWon()) {
@@ -97,21 +113,18 @@ public class CSW6Solver extends AbstractSolver {
 	public void searchAroundCentre(MineMap aMap, CoordinatesForSpot centre) {
 		ArrayList<CoordinatesForSpot> unexploredSpots = new ArrayList<>();
 		ArrayList<CoordinatesForSpot> flaggedSpots = new ArrayList<>();
-		//Loop through all the spots around a centre spot
-		for (int cc = centre.colCoord - 1; cc < centre.colCoord + 2; cc++) {
-			for (int rc = centre.rowCoord - 1; rc < centre.rowCoord + 2; rc++) {
-				if (!aMap.checkOutOfRange(rc, cc)) {
-					ExploredSpot aSpot = aMap.getPos(rc, cc);
-					//Add the spot to the respective list depending on its type
-					switch(aSpot.type) {
-						case UNEXPLORED:
-							unexploredSpots.add(new CoordinatesForSpot(rc, cc));
-							break;
-						case FLAG:
-							flaggedSpots.add(new CoordinatesForSpot(rc, cc));
-							break;
-					}
-				}
+		//Loop through all the spots around a centre spot (the map's neighbour tables save the range checks)
+		int count = aMap.getNeighbourhood().neighboursOf(aMap.toIndex(centre.rowCoord, centre.colCoord), neighbours);
+		for (int i = 0; i < count; i++) {
+			ExploredSpot aSpot = aMap.getPos(neighbours[i]);
+			//Add the spot to the respective list depending on its type
+			switch(aSpot.type) {
+				case UNEXPLORED:
+					unexploredSpots.add(new CoordinatesForSpot(aMap.rowOf(neighbours[i]), aMap.colOf(neighbours[i])));
+					break;
+				case FLAG:
+					flaggedSpots.add(new CoordinatesForSpot(aMap.rowOf(neighbours[i]), aMap.colOf(neighbours[i])));
+					break;
 			}
 		}
 		
@@ -126,7 +139,7 @@ public class CSW6Solver extends AbstractSolver {
 			//If flagging has been complete, pick all the rest of unexplored spots around the centre
 			else if (flaggedSpots.size() == aMap.getPos(centre.rowCoord, centre.colCoord).nearMineCount) {
 				System.out.println("Already Flagged, pick all the spots around it (flagged spots: " + flaggedSpots.size() + ")");
-				pickSpots(aMap, unexploredSpots);
+				aMap.chord(centre.rowCoord, centre.colCoord);
 				actionTaken = true;//An action has been taken, update the attribute
 			} 
 			//There's not enough data to take an action
@@ -170,9 +183,7 @@ public class CSW6Solver extends AbstractSolver {
 	 * @param spotsToPick The list of spots to pick.
 	 */
 	public void pickSpots(MineMap aMap, List<CoordinatesForSpot> spotsToPick) {
-		for (CoordinatesForSpot whatToPick : spotsToPick) {
-			aMap.pickASpot(whatToPick.rowCoord, whatToPick.colCoord);
-		}
+		aMap.pickMany(CoordinatesForSpot.toIndexes(aMap, spotsToPick));
 	}
 	
 	/**
@@ -181,9 +192,7 @@ public class CSW6Solver extends AbstractSolver {
 	 * @param spotsToFlag The list of spots to flag.
 	 */
 	public void flagSpots(MineMap aMap, List<CoordinatesForSpot> spotsToFlag) {
-		for(CoordinatesForSpot spot : spotsToFlag) {		
-			aMap.flagASpot(spot.rowCoord, spot.colCoord);
-		}
+		aMap.flagMany(CoordinatesForSpot.toIndexes(aMap, spotsToFlag));
 	}
 	
 	/**
@@ -191,20 +200,11 @@ public class CSW6Solver extends AbstractSolver {
 	 * @param aMap The map to explore and pick on
 	 */
 	public void pickAtRandom(MineMap aMap) {
-		List<CoordinatesForSpot> fullListOfUnexplored = new ArrayList<CoordinatesForSpot>();
-		for (int cc = 0; cc < aMap.cols; cc++) {
-			for (int rc = 0; rc < aMap.rows; rc++) {
-				ExploredSpot aSpot = aMap.getPos(rc, cc);
-				if (Spot.UNEXPLORED.equals(aSpot.type)) {
-					fullListOfUnexplored.add(new CoordinatesForSpot(rc, cc));
-				}
-			}
-		}
-		if (fullListOfUnexplored.size() == 0)
+		//The map can choose from its unexplored spots directly
+		int whatToPick = aMap.randomUnexploredSpot(ThreadLocalRandom.current());
+		if (whatToPick < 0)
 			return;
-		Collections.shuffle(fullListOfUnexplored);
-		CoordinatesForSpot whatToPick = fullListOfUnexplored.get(0);
-		aMap.pickASpot(whatToPick.rowCoord, whatToPick.colCoord);
+		aMap.pickASpot(aMap.rowOf(whatToPick), aMap.colOf(whatToPick));
 		System.out.println("\n>>>>>>RANDOM SPOT PICKED");
 	}
 	
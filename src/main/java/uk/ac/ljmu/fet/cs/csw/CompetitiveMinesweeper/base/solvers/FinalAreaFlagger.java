@@ -19,15 +19,7 @@ public class FinalAreaFlagger extends AbstractSolver {
 	}
 	
 	public static void flagSpots(MineMap myMap, List<CoordinatesForSpot> spotsToFlag) {
-		
-		
-		for(CoordinatesForSpot spot : spotsToFlag) {
-					
-			myMap.flagASpot(spot.rowCoord, spot.colCoord);
-		
-			
-		}
-		
+		myMap.flagMany(CoordinatesForSpot.toIndexes(myMap, spotsToFlag));
 	}
 
 
@@ -0,0 +1,161 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A growable list of ints. Solvers can use it to collect packed spot indexes
+ * (see {@link uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap#toIndex(int, int)
+ * MineMap.toIndex}) instead of building lists of coordinate objects. Lists are
+ * meant to be reused: clearing keeps the storage, so a solver collecting spots
+ * in every step of its loop does not allocate once the list has grown to the
+ * size it needs.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class IntList {
+	private int[] items;
+	private int size = 0;
+
+	/**
+	 * Creates an empty list with room for 16 items.
+	 */
+	public IntList() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty list.
+	 * 
+	 * @param capacity the number of items the list can hold before it first grows
+	 */
+	public IntList(final int capacity) {
+		items = new int[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Appends an item to the end of the list.
+	 * 
+	 * @param item the item to append
+	 */
+	public void add(final int item) {
+		if (size == items.length) {
+			items = Arrays.copyOf(items, size * 2);
+		}
+		items[size++] = item;
+	}
+
+	/**
+	 * Appends all items of another list to the end of this one.
+	 * 
+	 * @param other the list to copy the items from
+	 */
+	public void addAll(final IntList other) {
+		if (size + other.size > items.length) {
+			items = Arrays.copyOf(items, Math.max(size + other.size, size * 2));
+		}
+		System.arraycopy(other.items, 0, items, size, other.size);
+		size += other.size;
+	}
+
+	/**
+	 * @param i the position of the item (0 &lt;= i &lt; size())
+	 * @return the item at the position
+	 */
+	public int get(final int i) {
+		if (i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " is not in a list of " + size);
+		}
+		return items[i];
+	}
+
+	/**
+	 * Replaces an item of the list.
+	 * 
+	 * @param i    the position of the item (0 &lt;= i &lt; size())
+	 * @param item the new item
+	 */
+	public void set(final int i, final int item) {
+		if (i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " is not in a list of " + size);
+		}
+		items[i] = item;
+	}
+
+	/**
+	 * Removes the last item of the list.
+	 * 
+	 * @return the removed item
+	 */
+	public int removeLast() {
+		if (size == 0) {
+			throw new IndexOutOfBoundsException("The list is empty");
+		}
+		return items[--size];
+	}
+
+	/**
+	 * @return the number of items in the list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if there are no items in the list
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Empties the list, its storage is kept for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Puts the items of the list to a random order (Fisher-Yates shuffle).
+	 * 
+	 * @param rnd the random generator to shuffle with
+	 */
+	public void shuffle(final Random rnd) {
+		for (int i = size - 1; i > 0; i--) {
+			final int j = rnd.nextInt(i + 1);
+			final int item = items[i];
+			items[i] = items[j];
+			items[j] = item;
+		}
+	}
+
+	/**
+	 * @return a new array with the items of the list, owned by the caller
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(items, size);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints from a fixed range (0 up to the capacity), e.g., the packed
+ * spot indexes of a map. The members are listed in the order they were added.
+ * Membership is tracked with a generation stamp per possible member, so
+ * clearing the set takes constant time and reusing it between the steps of a
+ * solver does not allocate.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class IntSet {
+	// The generation in which each possible member was last added
+	private final int[] stamps;
+	private int generation = 1;
+	private final IntList members;
+
+	/**
+	 * Creates an empty set.
+	 * 
+	 * @param capacity the members must be below this value (e.g., the fieldSize of
+	 *                 the map the set holds spots of)
+	 */
+	public IntSet(final int capacity) {
+		stamps = new int[capacity];
+		members = new IntList();
+	}
+
+	/**
+	 * Adds an item to the set.
+	 * 
+	 * @param item the item to add
+	 * @return true if the item was not in the set before
+	 */
+	public boolean add(final int item) {
+		if (stamps[item] == generation) {
+			return false;
+		}
+		stamps[item] = generation;
+		members.add(item);
+		return true;
+	}
+
+	/**
+	 * @param item the item to look for
+	 * @return true if the item is in the set
+	 */
+	public boolean contains(final int item) {
+		return stamps[item] == generation;
+	}
+
+	/**
+	 * @param i the position of the member in the order of their addition (0
+	 *          &lt;= i &lt; size())
+	 * @return the member at the position
+	 */
+	public int get(final int i) {
+		return members.get(i);
+	}
+
+	/**
+	 * @return the number of items in the set
+	 */
+	public int size() {
+		return members.size();
+	}
+
+	/**
+	 * @return true if there are no items in the set
+	 */
+	public boolean isEmpty() {
+		return members.isEmpty();
+	}
+
+	/**
+	 * Empties the set in constant time.
+	 */
+	public void clear() {
+		members.clear();
+		if (++generation == 0) {
+			// The stamps wrapped around, the old stamps could be mistaken for members
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * @return a new array with the members in the order of their addition, owned
+	 *         by the caller
+	 */
+	public int[] toArray() {
+		return members.toArray();
+	}
+}
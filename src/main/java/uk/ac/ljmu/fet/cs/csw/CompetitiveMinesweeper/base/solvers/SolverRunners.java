@@ -0,0 +1,136 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.SolverRunner;
+
+/**
+ * The ways solvers can be run. Unless told otherwise, the matches and the GUI
+ * start their solvers with the {@link #defaultRunner}, which can be chosen with
+ * the system property {@value #runnerProperty}:
+ * <ul>
+ * <li><i>virtual</i> (the default): every solver gets its own virtual thread.
+ * Virtual threads are cheap, tens of thousands of games can be played in
+ * parallel without running out of OS threads.</li>
+ * <li><i>platform</i>: every solver gets its own platform thread, like before
+ * the runners were introduced.</li>
+ * <li><i>pool</i> or <i>pool:N</i>: the solvers share a fixed pool of N
+ * platform threads (one per processor if N is not given). Solvers over the
+ * pool size wait until a running one finishes.</li>
+ * </ul>
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class SolverRunners {
+	/**
+	 * The system property choosing the {@link #defaultRunner}.
+	 */
+	public static final String runnerProperty = "uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.runner";
+
+	/**
+	 * The runner chosen by the {@value #runnerProperty} system property.
+	 */
+	public static final SolverRunner defaultRunner = fromDescription(System.getProperty(runnerProperty, "virtual"));
+
+	private SolverRunners() {
+	}
+
+	/**
+	 * @return a runner that starts every task on a new virtual thread
+	 */
+	public static SolverRunner virtualThreads() {
+		return task -> {
+			final FutureTask<?> running = new FutureTask<>(reporting(task), null);
+			Thread.ofVirtual().start(running);
+			return running;
+		};
+	}
+
+	/**
+	 * @return a runner that starts every task on a new platform thread
+	 */
+	public static SolverRunner platformThreads() {
+		return task -> {
+			final FutureTask<?> running = new FutureTask<>(reporting(task), null);
+			new Thread(running).start();
+			return running;
+		};
+	}
+
+	/**
+	 * Creates a fixed pool of daemon threads to run the tasks on.
+	 * 
+	 * @param size the number of threads in the pool
+	 * @return a runner that queues the tasks for the pool
+	 */
+	public static SolverRunner platformPool(final int size) {
+		final ExecutorService pool = Executors.newFixedThreadPool(size, task -> {
+			final Thread worker = new Thread(task);
+			// The pool should not keep the JVM alive after the games are done
+			worker.setDaemon(true);
+			return worker;
+		});
+		return task -> pool.submit(reporting(task));
+	}
+
+	/**
+	 * Creates a runner from its textual description (see the class documentation
+	 * for the possible descriptions).
+	 * 
+	 * @param description the kind of runner needed
+	 * @return the runner
+	 * @throws IllegalArgumentException if the description is not understood
+	 */
+	public static SolverRunner fromDescription(final String description) {
+		if ("virtual".equals(description)) {
+			return virtualThreads();
+		} else if ("platform".equals(description)) {
+			return platformThreads();
+		} else if ("pool".equals(description)) {
+			return platformPool(Runtime.getRuntime().availableProcessors());
+		} else if (description.startsWith("pool:")) {
+			return platformPool(Integer.parseInt(description.substring("pool:".length())));
+		}
+		throw new IllegalArgumentException("Unknown solver runner: " + description);
+	}
+
+	/**
+	 * Futures swallow the exceptions of their tasks. Solvers used to run on their
+	 * own threads, where a failure was printed, so this keeps telling about them.
+	 */
+	private static Runnable reporting(final Runnable task) {
+		return () -> {
+			try {
+				task.run();
+			} catch (RuntimeException | Error e) {
+				e.printStackTrace();
+				throw e;
+			}
+		};
+	}
+}
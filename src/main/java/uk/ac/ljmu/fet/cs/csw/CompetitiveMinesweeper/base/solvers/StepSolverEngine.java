@@ -0,0 +1,302 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Move;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapView;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.StepSolver;
+
+/**
+ * Plays many games on a small, fixed pool of worker threads. Games of
+ * {@link StepSolver}s are played in slices of a few moves: after a slice the
+ * game goes to the back of the queue of the workers, so every game makes
+ * progress while the workers never have to wait or switch between more threads
+ * than there are cores. Step solvers only see a read only view of their map,
+ * only the engine changes it.
+ * 
+ * Usual {@link GameSolverThread}s can be submitted as well. As these only
+ * return at the end of their game, they hold onto their worker for the whole
+ * game. Their games are still played, but they are not interleaved with the
+ * others.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class StepSolverEngine implements AutoCloseable {
+	/**
+	 * The number of moves a step solver can make before its game is put back to
+	 * the end of the queue.
+	 */
+	public static final int movesPerSlice = 64;
+
+	private final ExecutorService workers;
+	/**
+	 * The number of games submitted but not yet finished. Guarded by this.
+	 */
+	private int unfinished = 0;
+
+	/**
+	 * The read only side of a live map. Unlike the map itself, it can not be cast
+	 * back to the map and changed outside the engine. Unlike a snapshot, it does
+	 * not copy the map for every move.
+	 */
+	private static final class ReadOnlyView implements MapView {
+		private final MineMap theMap;
+
+		ReadOnlyView(final MineMap theMap) {
+			this.theMap = theMap;
+		}
+
+		@Override
+		public int getRows() {
+			return theMap.getRows();
+		}
+
+		@Override
+		public int getCols() {
+			return theMap.getCols();
+		}
+
+		@Override
+		public ExploredSpot getPos(final int rowCoord, final int colCoord) throws ArrayIndexOutOfBoundsException {
+			return theMap.getPos(rowCoord, colCoord);
+		}
+
+		@Override
+		public boolean isEnded() {
+			return theMap.isEnded();
+		}
+
+		@Override
+		public boolean isWon() {
+			return theMap.isWon();
+		}
+
+		@Override
+		public int getExploredAreaSize() {
+			return theMap.getExploredAreaSize();
+		}
+
+		@Override
+		public int getFlagCount() {
+			return theMap.getFlagCount();
+		}
+
+		@Override
+		public int getLastRow() {
+			return theMap.getLastRow();
+		}
+
+		@Override
+		public int getLastCol() {
+			return theMap.getLastCol();
+		}
+	}
+
+	/**
+	 * A game of a step solver, each execution plays a slice of it.
+	 */
+	private class SteppedGame implements Runnable {
+		private final MineMap theMap;
+		private final MapView view;
+		private final StepSolver solver;
+
+		SteppedGame(final MineMap theMap, final StepSolver solver) {
+			this.theMap = theMap;
+			this.solver = solver;
+			view = new ReadOnlyView(theMap);
+		}
+
+		@Override
+		public void run() {
+			boolean playing = false;
+			try {
+				for (int i = 0; i < movesPerSlice && !theMap.isEnded(); i++) {
+					final Move next = solver.nextMove(view);
+					if (next == null) {
+						return;
+					}
+					next.applyTo(theMap);
+				}
+				playing = !theMap.isEnded();
+			} catch (RuntimeException e) {
+				solverFailed(solver, e);
+			} finally {
+				// Errors end the game as well, otherwise nobody could wait for the engine
+				if (!playing || !requeue()) {
+					gameFinished();
+				}
+			}
+		}
+
+		/**
+		 * Puts the game to the back of the queue.
+		 * 
+		 * @return false if the engine was closed in the meantime, the game is
+		 *         abandoned then
+		 */
+		private boolean requeue() {
+			try {
+				workers.execute(this);
+				return true;
+			} catch (RejectedExecutionException e) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Creates an engine with a worker for each available processor.
+	 */
+	public StepSolverEngine() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an engine and its workers.
+	 * 
+	 * @param workerCount the number of threads to play the games on
+	 */
+	public StepSolverEngine(final int workerCount) {
+		workers = Executors.newFixedThreadPool(workerCount, task -> {
+			final Thread worker = new Thread(task, "StepSolverEngine worker");
+			// The workers should not keep the JVM alive if the engine is not closed
+			worker.setDaemon(true);
+			return worker;
+		});
+	}
+
+	/**
+	 * Starts playing a game with a step solver. The method returns immediately.
+	 * 
+	 * @param theMap the map to play on, it should not be played on by anyone else
+	 * @param solver the solver deciding on the moves, it should not play other
+	 *               games
+	 * @throws RejectedExecutionException if the engine is already closed
+	 */
+	public void submit(final MineMap theMap, final StepSolver solver) {
+		start(new SteppedGame(theMap, solver));
+	}
+
+	/**
+	 * Starts playing a game with a solver thread. If the solver is also a step
+	 * solver (e.g., it is an {@link AbstractStepSolver}), its game is played in
+	 * slices, otherwise its run method is called on one of the workers. The method
+	 * returns immediately.
+	 * 
+	 * @param theMap the map to play on, it is sent to the solver
+	 * @param solver a new solver instance that has not received a map yet
+	 * @throws IllegalArgumentException   if the solver needs a GUI
+	 * @throws RejectedExecutionException if the engine is already closed
+	 */
+	public void submitSolverThread(final MineMap theMap, final GameSolverThread solver) {
+		if (solver.requiresGUI()) {
+			throw new IllegalArgumentException("GUI based solvers cannot be played by the engine");
+		}
+		solver.sendMap(theMap);
+		if (solver instanceof StepSolver) {
+			submit(theMap, (StepSolver) solver);
+			return;
+		}
+		start(() -> {
+			try {
+				solver.run();
+			} catch (RuntimeException e) {
+				solverFailed(solver, e);
+			} finally {
+				gameFinished();
+			}
+		});
+	}
+
+	/**
+	 * Waits until all the games submitted so far are finished (i.e., they ended
+	 * or their solvers gave up on them).
+	 * 
+	 * @throws InterruptedException if the waiting thread was interrupted
+	 */
+	public synchronized void awaitCompletion() throws InterruptedException {
+		while (unfinished > 0) {
+			wait();
+		}
+	}
+
+	/**
+	 * Waits until the already submitted games are finished, then stops the
+	 * workers. No new games can be submitted after this.
+	 * 
+	 * If the waiting thread is interrupted, the workers are stopped without
+	 * waiting and the thread's interrupt status is restored. Step solver games
+	 * are abandoned after their current slice then. Use
+	 * {@link #awaitCompletion()} to wait interruptibly.
+	 */
+	@Override
+	public void close() {
+		try {
+			awaitCompletion();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		workers.shutdown();
+	}
+
+	/**
+	 * Counts the game as unfinished and hands it to the workers.
+	 * 
+	 * @param game the first slice of the game
+	 * @throws RejectedExecutionException if the engine is already closed
+	 */
+	private void start(final Runnable game) {
+		synchronized (this) {
+			if (workers.isShutdown()) {
+				throw new RejectedExecutionException("The engine is already closed");
+			}
+			unfinished++;
+		}
+		try {
+			workers.execute(game);
+		} catch (RejectedExecutionException e) {
+			// Closed since the check above
+			gameFinished();
+			throw e;
+		}
+	}
+
+	private synchronized void gameFinished() {
+		if (--unfinished == 0) {
+			notifyAll();
+		}
+	}
+
+	private static void solverFailed(final Object solver, final RuntimeException e) {
+		System.err.println(solver.getClass().getName() + " failed, its game is abandoned.");
+		e.printStackTrace();
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.List;
+
+/**
+ * The outcome of enumerating an independent component of the frontier: how
+ * many mine layouts satisfy the component's constraints, split by the number
+ * of mines used by the layout. Keeping the counts per mine count allows
+ * weighting the layouts afterwards (e.g., by how many ways the remaining mines
+ * fit on the rest of the map).
+ * 
+ * Components that were too complex to enumerate only list their cells and
+ * constraints (see {@link #isSolved()}).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class ComponentResult {
+	/**
+	 * The constraints of the component
+	 */
+	public final List<Constraint> constraints;
+	/**
+	 * The packed indexes of the unexplored spots in the component
+	 */
+	public final int[] cells;
+	/**
+	 * The fewest mines used by any of the layouts
+	 */
+	public final int minMines;
+	/**
+	 * ways[k - minMines] is the number of layouts with k mines, null if the
+	 * component was not solved
+	 */
+	final double[] ways;
+	/**
+	 * mineWays[k - minMines][j] is the number of layouts with k mines having a
+	 * mine on cells[j]
+	 */
+	final double[][] mineWays;
+	/**
+	 * True for the cells which are mines in all layouts
+	 */
+	private final boolean[] alwaysMine;
+
+	ComponentResult(final List<Constraint> constraints, final int[] cells, final int minMines, final double[] ways,
+			final double[][] mineWays, final boolean[] alwaysMine) {
+		this.constraints = constraints;
+		this.cells = cells;
+		this.minMines = minMines;
+		this.ways = ways;
+		this.mineWays = mineWays;
+		this.alwaysMine = alwaysMine;
+	}
+
+	/**
+	 * Creates the result of a component that was not enumerated.
+	 */
+	ComponentResult(final List<Constraint> constraints, final int[] cells) {
+		this(constraints, cells, 0, null, null, null);
+	}
+
+	/**
+	 * @return true if the layouts of the component were enumerated
+	 */
+	public boolean isSolved() {
+		return ways != null;
+	}
+
+	/**
+	 * @return the most mines used by any of the layouts
+	 */
+	public int maxMines() {
+		return minMines + ways.length - 1;
+	}
+
+	/**
+	 * @param mines the number of mines in the component
+	 * @return the number of layouts with the given number of mines
+	 */
+	public double getWays(final int mines) {
+		return mines < minMines || mines > maxMines() ? 0 : ways[mines - minMines];
+	}
+
+	/**
+	 * @param j the position of the cell in {@link #cells}
+	 * @return true if the cell is a mine in none of the layouts
+	 */
+	public boolean isCertainlySafe(final int j) {
+		for (final double[] byCell : mineWays) {
+			if (byCell[j] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param j the position of the cell in {@link #cells}
+	 * @return true if the cell is a mine in all of the layouts
+	 */
+	public boolean isCertainlyMine(final int j) {
+		return alwaysMine[j];
+	}
+
+	/**
+	 * Calculates the mine probability of every cell, with the layouts weighted by
+	 * their number of mines.
+	 * 
+	 * @param logWeights the natural logarithm of the weight of a layout with k
+	 *                   mines at index k (from minMines to maxMines). The layouts
+	 *                   with the same number of mines are equally likely.
+	 * @return the probability of a mine on each of the cells (in the order of
+	 *         {@link #cells})
+	 */
+	public double[] probabilities(final double[] logWeights) {
+		final double[] weights = new double[ways.length];
+		double max = Double.NEGATIVE_INFINITY;
+		for (int k = 0; k < ways.length; k++) {
+			if (ways[k] > 0) {
+				max = Math.max(max, logWeights[minMines + k]);
+			}
+		}
+		double total = 0;
+		for (int k = 0; k < ways.length; k++) {
+			// Scaled by the largest weight to avoid over and underflows
+			weights[k] = ways[k] > 0 ? Math.exp(logWeights[minMines + k] - max) : 0;
+			total += ways[k] * weights[k];
+		}
+		final double[] probabilities = new double[cells.length];
+		for (int k = 0; k < ways.length; k++) {
+			if (weights[k] != 0) {
+				for (int j = 0; j < cells.length; j++) {
+					probabilities[j] += mineWays[k][j] * weights[k];
+				}
+			}
+		}
+		for (int j = 0; j < cells.length; j++) {
+			probabilities[j] /= total;
+		}
+		return probabilities;
+	}
+}
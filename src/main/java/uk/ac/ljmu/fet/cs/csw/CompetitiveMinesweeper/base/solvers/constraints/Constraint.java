@@ -0,0 +1,143 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.Arrays;
+
+/**
+ * A linear constraint over the unexplored spots of a map: exactly
+ * {@link #mines} of the listed spots are mines. Every explored number on the
+ * frontier gives such a constraint over its unexplored neighbours (its near
+ * mine count less the flags around it). Constraints are immutable.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class Constraint {
+	/**
+	 * The packed indexes of the spots in the constraint, in increasing order
+	 */
+	public final int[] cells;
+	/**
+	 * The number of mines among the spots
+	 */
+	public final int mines;
+
+	/**
+	 * Creates a constraint.
+	 * 
+	 * @param cells the packed indexes of the spots in increasing order, owned by
+	 *              the constraint from now on
+	 * @param mines the number of mines among the spots
+	 * @throws IllegalArgumentException if the mine count is not possible for the
+	 *                                  number of spots
+	 */
+	public Constraint(final int[] cells, final int mines) {
+		if (mines < 0 || mines > cells.length) {
+			throw new IllegalArgumentException(mines + " mines cannot be on " + cells.length + " spots");
+		}
+		this.cells = cells;
+		this.mines = mines;
+	}
+
+	/**
+	 * @return true if none of the spots are mines
+	 */
+	public boolean isAllSafe() {
+		return mines == 0;
+	}
+
+	/**
+	 * @return true if all of the spots are mines
+	 */
+	public boolean isAllMines() {
+		return mines == cells.length;
+	}
+
+	/**
+	 * @param cell the packed index of a spot
+	 * @return true if the spot is part of the constraint
+	 */
+	public boolean contains(final int cell) {
+		return Arrays.binarySearch(cells, cell) >= 0;
+	}
+
+	/**
+	 * @param other another constraint
+	 * @return the spots of this constraint which are not in the other one, in
+	 *         increasing order
+	 */
+	public int[] without(final Constraint other) {
+		final int[] result = new int[cells.length];
+		int count = 0, j = 0;
+		for (final int cell : cells) {
+			while (j < other.cells.length && other.cells[j] < cell) {
+				j++;
+			}
+			if (j == other.cells.length || other.cells[j] != cell) {
+				result[count++] = cell;
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * @param other another constraint
+	 * @return true if the two constraints have at least one spot in common
+	 */
+	public boolean overlaps(final Constraint other) {
+		int i = 0, j = 0;
+		while (i < cells.length && j < other.cells.length) {
+			if (cells[i] == other.cells[j]) {
+				return true;
+			} else if (cells[i] < other.cells[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Constraint)) {
+			return false;
+		}
+		final Constraint other = (Constraint) obj;
+		return mines == other.mines && Arrays.equals(cells, other.cells);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(cells) + mines;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(cells) + "=" + mines;
+	}
+}
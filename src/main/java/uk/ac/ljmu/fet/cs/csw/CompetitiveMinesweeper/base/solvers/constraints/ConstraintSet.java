@@ -0,0 +1,248 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapChangeListener;
+
+/**
+ * The constraints of the frontier of a map, kept up to date incrementally. The
+ * set listens to the changes of its map: a revealed or flagged spot only
+ * invalidates the constraints of the numbers around it. These are rebuilt and
+ * checked again by the next {@link #reduce(IntSet, IntSet)}, the rest of the
+ * frontier is left untouched.
+ * 
+ * The reduction applies the single constraint rules (no mines left, or as many
+ * mines as spots) and the pairwise subset/superset rule to the changed
+ * constraints and the constraints overlapping them. As the pairwise rule only
+ * depends on the two constraints, pairs of unchanged constraints never have to
+ * be checked again.
+ * 
+ * The set is meant to be used by the solver of the map, on the solver's
+ * thread.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class ConstraintSet implements MapChangeListener {
+	private final MineMap theMap;
+	private final Neighbourhood neighbourhood;
+	// The constraint of every explored number on the frontier, null elsewhere
+	private final Constraint[] byCentre;
+	// The centres whose constraints must be rebuilt and checked again
+	private final IntSet dirty;
+	private final int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS];
+
+	/**
+	 * Creates the constraints of a map and starts following its changes. The
+	 * first reduction checks all the constraints (i.e., the constraints of the
+	 * current frontier numbers of the map).
+	 * 
+	 * @param theMap the map to follow
+	 * @return the new set, already following the map
+	 */
+	public static ConstraintSet follow(final MineMap theMap) {
+		final ConstraintSet set = new ConstraintSet(theMap);
+		theMap.addChangeListener(set);
+		return set;
+	}
+
+	private ConstraintSet(final MineMap theMap) {
+		this.theMap = theMap;
+		neighbourhood = theMap.getNeighbourhood();
+		byCentre = new Constraint[theMap.fieldSize];
+		dirty = new IntSet(theMap.fieldSize);
+		final int count = theMap.getFrontierNumberCount();
+		for (int i = 0; i < count; i++) {
+			dirty.add(theMap.getFrontierNumber(i));
+		}
+	}
+
+	/**
+	 * Stops following the changes of the map.
+	 */
+	public void detach() {
+		theMap.removeChangeListener(this);
+	}
+
+	@Override
+	public void spotsRevealed(final MineMap source, final int[] spots, final int[] nearMineCounts) {
+		for (final int idx : spots) {
+			touch(idx);
+		}
+	}
+
+	@Override
+	public void flagChanged(final MineMap source, final int rowCoord, final int colCoord, final boolean flagged) {
+		touch(source.toIndex(rowCoord, colCoord));
+	}
+
+	/**
+	 * Marks the constraints depending on a changed spot for rebuilding.
+	 * 
+	 * @param idx the packed index of the changed spot
+	 */
+	private void touch(final int idx) {
+		dirty.add(idx);
+		final int count = neighbourhood.neighboursOf(idx, neighbours);
+		for (int i = 0; i < count; i++) {
+			dirty.add(neighbours[i]);
+		}
+	}
+
+	/**
+	 * Builds the constraint of a spot from the current state of the map.
+	 * 
+	 * @param centre the packed index of the spot
+	 * @return the constraint over the unexplored neighbours of the spot, or null
+	 *         if the spot is not an explored number with unexplored neighbours
+	 */
+	private Constraint build(final int centre) {
+		final ExploredSpot spot = theMap.getPos(centre);
+		if (spot.type != Spot.SAFE) {
+			return null;
+		}
+		final int count = neighbourhood.neighboursOf(centre, neighbours);
+		final int[] cells = new int[count];
+		int unexplored = 0, flags = 0;
+		for (int i = 0; i < count; i++) {
+			// The neighbours are listed in increasing order
+			final Spot type = theMap.getPos(neighbours[i]).type;
+			if (type == Spot.UNEXPLORED) {
+				cells[unexplored++] = neighbours[i];
+			} else if (type == Spot.FLAG) {
+				flags++;
+			}
+		}
+		if (unexplored == 0) {
+			return null;
+		}
+		return new Constraint(unexplored == count ? cells : Arrays.copyOf(cells, unexplored),
+				spot.nearMineCount - flags);
+	}
+
+	/**
+	 * Rebuilds the changed constraints and looks for spots that are certainly
+	 * safe or certainly mines according to them.
+	 * 
+	 * @param safe  receives the spots found to be safe
+	 * @param mines receives the spots found to be mines
+	 * @return true if any spots were found
+	 */
+	public boolean reduce(final IntSet safe, final IntSet mines) {
+		final int before = safe.size() + mines.size();
+		for (int i = 0; i < dirty.size(); i++) {
+			final int centre = dirty.get(i);
+			byCentre[centre] = build(centre);
+		}
+		for (int i = 0; i < dirty.size(); i++) {
+			final int centre = dirty.get(i);
+			final Constraint changed = byCentre[centre];
+			if (changed == null) {
+				continue;
+			}
+			if (changed.isAllSafe() || changed.isAllMines()) {
+				addAll(changed.isAllSafe() ? safe : mines, changed.cells);
+				continue;
+			}
+			// Constraints can only overlap if their centres are at most 2 rows and
+			// columns apart
+			final int row = theMap.rowOf(centre), col = theMap.colOf(centre);
+			final int maxRow = Math.min(row + 2, theMap.rows - 1), maxCol = Math.min(col + 2, theMap.cols - 1);
+			for (int rc = Math.max(row - 2, 0); rc <= maxRow; rc++) {
+				for (int cc = Math.max(col - 2, 0); cc <= maxCol; cc++) {
+					final Constraint other = byCentre[rc * theMap.cols + cc];
+					if (other != null && other != changed && changed.overlaps(other)) {
+						applyPair(changed, other, safe, mines);
+						applyPair(other, changed, safe, mines);
+					}
+				}
+			}
+		}
+		dirty.clear();
+		return safe.size() + mines.size() != before;
+	}
+
+	/**
+	 * The pairwise rule. If the second constraint has exactly as many mines more
+	 * than the first one as the number of its own spots (i.e., the spots that are
+	 * not in the first one), then all its own spots must be mines and the first
+	 * one's own spots must be safe. This covers the subset rule as well: if the
+	 * first constraint is within the second one, the remaining spots of the
+	 * second one hold the difference of their mines.
+	 */
+	private static void applyPair(final Constraint first, final Constraint second, final IntSet safe,
+			final IntSet mines) {
+		final int[] onlySecond = second.without(first);
+		if (second.mines - first.mines == onlySecond.length) {
+			addAll(mines, onlySecond);
+			addAll(safe, first.without(second));
+		}
+	}
+
+	private static void addAll(final IntSet target, final int[] cells) {
+		for (final int cell : cells) {
+			target.add(cell);
+		}
+	}
+
+	/**
+	 * Collects the current constraints of the frontier. Only valid right after a
+	 * {@link #reduce(IntSet, IntSet)} (i.e., when there are no changes waiting to
+	 * be processed).
+	 * 
+	 * @return the constraints, one per frontier number, in the order of the
+	 *         numbers' positions on the map
+	 */
+	public List<Constraint> getConstraints() {
+		final List<Constraint> all = new ArrayList<>();
+		final int count = theMap.getFrontierNumberCount();
+		final int[] centres = new int[count];
+		for (int i = 0; i < count; i++) {
+			centres[i] = theMap.getFrontierNumber(i);
+		}
+		Arrays.sort(centres);
+		for (final int centre : centres) {
+			if (byCentre[centre] != null) {
+				all.add(byCentre[centre]);
+			}
+		}
+		return all;
+	}
+
+	/**
+	 * @param centre the packed index of a spot
+	 * @return the current constraint of the spot, or null if it has none
+	 */
+	public Constraint get(final int centre) {
+		return byCentre[centre];
+	}
+}
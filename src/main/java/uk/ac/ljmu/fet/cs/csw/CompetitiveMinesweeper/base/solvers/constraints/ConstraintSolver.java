@@ -0,0 +1,128 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.List;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+
+/**
+ * A solver that reasons with the constraints of the whole frontier instead of
+ * single spots. Each move it:
+ * <ol>
+ * <li>applies the local rules (single constraints and overlapping pairs, see
+ * {@link ConstraintSet}) to the part of the frontier changed by the previous
+ * move,</li>
+ * <li>if these find nothing, enumerates the layouts of the frontier (see
+ * {@link FrontierEnumerator}) and takes the spots that are safe or mines in all
+ * of them,</li>
+ * <li>if there are no such spots either, it picks the spot with the lowest
+ * probability of being a mine. The layouts are weighted with the number of
+ * ways the rest of the mines fit off the frontier (as in the {@link Endgame}
+ * of other solvers).</li>
+ * </ol>
+ * Safe spots are picked and mines are flagged in batches.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class ConstraintSolver extends AbstractSolver {
+	private ConstraintSet constraints;
+	private final FrontierEnumerator enumerator;
+	private LogBinomials binomials;
+	private IntSet safe, mines, frontier;
+
+	/**
+	 * Creates a solver enumerating the frontier on its own thread.
+	 */
+	public ConstraintSolver() {
+		this(new FrontierEnumerator());
+	}
+
+	/**
+	 * @param enumerator the enumerator to use for the frontier
+	 */
+	protected ConstraintSolver(final FrontierEnumerator enumerator) {
+		this.enumerator = enumerator;
+	}
+
+	@Override
+	public void run() {
+		super.run();
+		final MineMap myMap = getMyMap();
+		constraints = ConstraintSet.follow(myMap);
+		binomials = LogBinomials.forSize(myMap.fieldSize);
+		safe = new IntSet(myMap.fieldSize);
+		mines = new IntSet(myMap.fieldSize);
+		frontier = new IntSet(myMap.fieldSize);
+		try {
+			while (!myMap.isEnded()) {
+				safe.clear();
+				mines.clear();
+				if (!constraints.reduce(safe, mines) && !enumerateFrontier(myMap)) {
+					continue;
+				}
+				if (!mines.isEmpty()) {
+					myMap.flagMany(mines.toArray());
+				}
+				if (!safe.isEmpty()) {
+					myMap.pickMany(safe.toArray());
+				}
+			}
+		} finally {
+			constraints.detach();
+		}
+	}
+
+	/**
+	 * Enumerates the frontier. Certainly safe spots and mines are collected, if
+	 * there are none, the safest spot is picked.
+	 * 
+	 * @param myMap the map to solve
+	 * @return true if certain spots were found, false if a spot was picked
+	 *         instead
+	 */
+	private boolean enumerateFrontier(final MineMap myMap) {
+		final List<ComponentResult> components = enumerator.enumerate(constraints.getConstraints());
+		frontier.clear();
+		for (final ComponentResult component : components) {
+			for (int j = 0; j < component.cells.length; j++) {
+				final int cell = component.cells[j];
+				frontier.add(cell);
+				if (component.isSolved() && component.isCertainlySafe(j)) {
+					safe.add(cell);
+				} else if (component.isSolved() && component.isCertainlyMine(j)) {
+					mines.add(cell);
+				}
+			}
+		}
+		if (!safe.isEmpty() || !mines.isEmpty()) {
+			return true;
+		}
+		final int bestSpot = Endgame.safestSpot(myMap, components, frontier, binomials);
+		myMap.pickASpot(myMap.rowOf(bestSpot), myMap.colOf(bestSpot));
+		return false;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+
+/**
+ * A solver that treats the frontier as a system of linear equations (see
+ * {@link FrontierMatrix}). Each move it eliminates the parts of the matrix
+ * changed by the previous move, then flags all the mines and picks all the
+ * safe spots found in one go. If the elimination finds nothing, it guesses
+ * the spot least likely to be a mine (see {@link SafestGuess}).
+ * 
+ * Unlike {@link ConstraintSolver}, it only enumerates layouts for its guesses,
+ * so the moves finding certain spots stay cheap on any map, but it also
+ * guesses more often.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class EliminationSolver extends AbstractSolver {
+	@Override
+	public void run() {
+		super.run();
+		final MineMap myMap = getMyMap();
+		final FrontierMatrix matrix = FrontierMatrix.follow(myMap);
+		final SafestGuess guess = new SafestGuess(myMap);
+		final IntSet safe = new IntSet(myMap.fieldSize), mines = new IntSet(myMap.fieldSize);
+		try {
+			while (!myMap.isEnded()) {
+				safe.clear();
+				mines.clear();
+				if (!matrix.solve(safe, mines)) {
+					final int spot = guess.safestSpot(matrix.getConstraints());
+					myMap.pickASpot(myMap.rowOf(spot), myMap.colOf(spot));
+					continue;
+				}
+				if (!mines.isEmpty()) {
+					myMap.flagMany(mines.toArray());
+				}
+				if (!safe.isEmpty()) {
+					myMap.pickMany(safe.toArray());
+				}
+			}
+		} finally {
+			matrix.detach();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+
+/**
+ * Guessing with the global mine count, for solvers that otherwise guess at
+ * random. Once the frontier of the map is small (fewer unexplored spots next to
+ * explored numbers than the limit of the endgame), its layouts are enumerated
+ * and weighted with the number of ways the rest of the mines
+ * ({@link MineMap#mineCount} minus the flags) fit on the unexplored spots off
+ * the frontier (see {@link MineCountWeights}). The spot with the lowest mine
+ * probability is suggested instead of a random one. Spots that are certainly
+ * safe are suggested right away. The deductions are kept until they are played:
+ * safe spots are suggested by the following calls, and the mines found are
+ * offered by {@link #knownMine()}, even once the frontier has grown over the
+ * limit again.
+ * 
+ * The endgame follows the changes of its map (through a {@link ConstraintSet}),
+ * so a suggestion only costs the rebuilding of the constraints changed since
+ * the previous one, and the enumeration of the components changed since then.
+ * Solvers can create the endgame once their frontier is small (see
+ * {@link MineMap#getFrontierUnexploredCount()}), then the earlier part of the
+ * game does not pay for following the map.
+ * Like the constraint set, it is meant to be used on the solver's thread, and
+ * should be detached at the end of the game.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class Endgame {
+	/**
+	 * The frontier size below which the endgame makes suggestions by default.
+	 */
+	public static final int defaultFrontierLimit = 100;
+
+	private final MineMap theMap;
+	private final int frontierLimit;
+	private final ConstraintSet constraints;
+	private final FrontierEnumerator enumerator = new FrontierEnumerator();
+	private final LogBinomials binomials;
+	private final Pending safe, mines;
+	private final IntSet frontier;
+
+	/**
+	 * The spots found to be safe or mines, in the order they were found. They
+	 * are dropped once they are no longer unexplored (i.e., they were played).
+	 */
+	private static final class Pending {
+		final IntSet spots;
+		private int next = 0;
+
+		Pending(final int capacity) {
+			spots = new IntSet(capacity);
+		}
+
+		/**
+		 * @return the first spot still unexplored, or -1 if there is none
+		 */
+		int first(final MineMap theMap) {
+			for (; next < spots.size(); next++) {
+				if (theMap.getPos(spots.get(next)).type == Spot.UNEXPLORED) {
+					return spots.get(next);
+				}
+			}
+			spots.clear();
+			next = 0;
+			return -1;
+		}
+	}
+
+	/**
+	 * Starts following a map with the default frontier limit.
+	 * 
+	 * @param theMap the map to make suggestions for
+	 */
+	public Endgame(final MineMap theMap) {
+		this(theMap, defaultFrontierLimit);
+	}
+
+	/**
+	 * Starts following a map.
+	 * 
+	 * @param theMap        the map to make suggestions for
+	 * @param frontierLimit suggestions are only made if the frontier has fewer
+	 *                      spots than this
+	 */
+	public Endgame(final MineMap theMap, final int frontierLimit) {
+		this.theMap = theMap;
+		this.frontierLimit = frontierLimit;
+		constraints = ConstraintSet.follow(theMap);
+		binomials = LogBinomials.forSize(theMap.fieldSize);
+		safe = new Pending(theMap.fieldSize);
+		mines = new Pending(theMap.fieldSize);
+		frontier = new IntSet(theMap.fieldSize);
+	}
+
+	/**
+	 * Tells if an endgame with the given limit would make suggestions on the map
+	 * now. Solvers can use this to create their endgame lazily.
+	 * 
+	 * @param theMap        the map played
+	 * @param frontierLimit the frontier limit of the endgame
+	 * @return true if the map's frontier is not empty but smaller than the limit
+	 */
+	public static boolean isDue(final MineMap theMap, final int frontierLimit) {
+		final int frontierSize = theMap.getFrontierUnexploredCount();
+		return frontierSize > 0 && frontierSize < frontierLimit;
+	}
+
+	/**
+	 * Stops following the changes of the map.
+	 */
+	public void detach() {
+		constraints.detach();
+	}
+
+	/**
+	 * Suggests the next spot to pick.
+	 * 
+	 * @return the packed index of the unexplored spot least likely to be a mine,
+	 *         -1 if the frontier is empty or too large for the endgame
+	 */
+	public int safestSpot() {
+		int known = safe.first(theMap);
+		if (known >= 0) {
+			return known;
+		}
+		if (!isDue(theMap, frontierLimit)) {
+			return -1;
+		}
+		constraints.reduce(safe.spots, mines.spots);
+		known = safe.first(theMap);
+		if (known >= 0) {
+			return known;
+		}
+		final List<Constraint> all = constraints.getConstraints();
+		frontier.clear();
+		for (final Constraint c : all) {
+			for (final int cell : c.cells) {
+				frontier.add(cell);
+			}
+		}
+		final List<ComponentResult> components = enumerator.enumerate(all);
+		for (final ComponentResult component : components) {
+			if (component.isSolved()) {
+				for (int j = 0; j < component.cells.length; j++) {
+					if (component.isCertainlySafe(j)) {
+						safe.spots.add(component.cells[j]);
+					} else if (component.isCertainlyMine(j)) {
+						mines.spots.add(component.cells[j]);
+					}
+				}
+			}
+		}
+		known = safe.first(theMap);
+		return known >= 0 ? known : safestSpot(theMap, components, frontier, binomials);
+	}
+
+	/**
+	 * Tells a mine found by the previous suggestions. Flagging these keeps the
+	 * frontier small and lets the mines count as found.
+	 * 
+	 * @return the packed index of an unexplored spot that is certainly a mine, or
+	 *         -1 if no such spot is known
+	 */
+	public int knownMine() {
+		return mines.first(theMap);
+	}
+
+	/**
+	 * Chooses the spot with the lowest mine probability, with the layouts of the
+	 * components weighted by the global mine count.
+	 * 
+	 * @param theMap     the map to choose on
+	 * @param components the enumerated components of the frontier
+	 * @param frontier   the packed indexes of the spots of the components
+	 * @param binomials  a table supporting the field size of the map
+	 * @return the packed index of the chosen spot
+	 */
+	static int safestSpot(final MineMap theMap, final List<ComponentResult> components, final IntSet frontier,
+			final LogBinomials binomials) {
+		final int minesLeft = theMap.mineCount - theMap.getFlagCount();
+		final int interior = theMap.fieldSize - theMap.getExploredAreaSize() - theMap.getFlagCount()
+				- frontier.size();
+		final double[][] probabilities = new double[components.size()][];
+		double unsolvedMines = 0;
+		for (int c = 0; c < probabilities.length; c++) {
+			if (!components.get(c).isSolved()) {
+				probabilities[c] = estimates(components.get(c));
+				for (final double p : probabilities[c]) {
+					unsolvedMines += p;
+				}
+			}
+		}
+		final MineCountWeights weights = new MineCountWeights(components,
+				(int) Math.round(minesLeft - unsolvedMines), interior, binomials);
+		double bestProbability = 2;
+		int bestSpot = -1;
+		for (int c = 0; c < probabilities.length; c++) {
+			final ComponentResult component = components.get(c);
+			if (component.isSolved()) {
+				probabilities[c] = component.probabilities(weights.getLogWeights(c));
+			}
+			for (int j = 0; j < component.cells.length; j++) {
+				if (probabilities[c][j] < bestProbability) {
+					bestProbability = probabilities[c][j];
+					bestSpot = component.cells[j];
+				}
+			}
+		}
+		if (interior > 0 && (bestSpot < 0 || weights.getInteriorProbability() < bestProbability)) {
+			bestSpot = interiorSpot(theMap, frontier);
+		}
+		return bestSpot;
+	}
+
+	/**
+	 * Estimates the mine probabilities of the cells of a component that was not
+	 * enumerated: the highest mine ratio of the constraints of the cell.
+	 */
+	private static double[] estimates(final ComponentResult component) {
+		final double[] estimates = new double[component.cells.length];
+		for (int j = 0; j < estimates.length; j++) {
+			for (final Constraint c : component.constraints) {
+				if (c.contains(component.cells[j])) {
+					estimates[j] = Math.max(estimates[j], (double) c.mines / c.cells.length);
+				}
+			}
+		}
+		return estimates;
+	}
+
+	/**
+	 * Chooses a random unexplored spot off the frontier.
+	 */
+	private static int interiorSpot(final MineMap theMap, final IntSet frontier) {
+		final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		for (int attempt = 0; attempt < 32; attempt++) {
+			final int spot = theMap.randomUnexploredSpot(rnd);
+			if (!frontier.contains(spot)) {
+				return spot;
+			}
+		}
+		for (int idx = 0; idx < theMap.fieldSize; idx++) {
+			if (theMap.getPos(idx).type == Spot.UNEXPLORED && !frontier.contains(idx)) {
+				return idx;
+			}
+		}
+		return theMap.randomUnexploredSpot(rnd);
+	}
+}
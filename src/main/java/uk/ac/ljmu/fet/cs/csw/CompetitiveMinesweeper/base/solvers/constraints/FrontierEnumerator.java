@@ -0,0 +1,428 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the mine layouts of the frontier. The constraints are split into
+ * independent components (components share no cells), each component is
+ * enumerated on its own.
+ * 
+ * A component is enumerated cell by cell, in breadth first order along the
+ * frontier. After deciding the first b cells, only the constraints that have
+ * both decided and undecided cells matter for the rest of the cells, and only
+ * through the number of mines they still need. These needs form the state of
+ * the enumeration: partial layouts reaching the same state are counted
+ * together instead of being explored one by one (memoisation), and states
+ * where a constraint needs more mines than it has undecided cells (or a
+ * negative number of mines) are dropped immediately (pruning). As the frontier
+ * is a narrow band, only a few constraints are open at any time, so the number
+ * of states stays small even for components with hundreds of cells.
+ * 
+ * A forward pass counts the partial layouts reaching every state, a backward
+ * pass counts the ways to complete them, the two together give the number of
+ * layouts with a mine on each cell.
+ * 
+ * The enumerator remembers the results of the components of its previous call,
+ * so the components left unchanged by a move are not enumerated again.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class FrontierEnumerator {
+	/**
+	 * Components with more states than this at any point of their enumeration
+	 * are left unsolved.
+	 */
+	public static final int maxStates = 1 << 16;
+	/**
+	 * Components with more states than this in all their boundaries together are
+	 * left unsolved, as the states of the forward pass are all kept until the
+	 * backward pass.
+	 */
+	public static final int maxTotalStates = 1 << 20;
+	/**
+	 * The number of constraints that fit into a state (4 bits for each need).
+	 * The top 4 bits are left unused, so states are never negative (negative
+	 * values mark the violating decisions).
+	 */
+	private static final int maxOpen = 15;
+
+	private Map<List<Constraint>, ComponentResult> previous = new HashMap<>();
+
+	/**
+	 * Splits the constraints into components and enumerates them (or takes their
+	 * results from the previous call if they are unchanged).
+	 * 
+	 * @param constraints the constraints of the frontier
+	 * @return the results of the components
+	 */
+	public List<ComponentResult> enumerate(final List<Constraint> constraints) {
+		final Map<List<Constraint>, ComponentResult> current = new HashMap<>();
+		final List<List<Constraint>> components = components(constraints);
+		final List<List<Constraint>> missing = new ArrayList<>();
+		for (final List<Constraint> component : components) {
+			final ComponentResult result = previous.get(component);
+			if (result == null) {
+				missing.add(component);
+			} else {
+				current.put(component, result);
+			}
+		}
+		final List<ComponentResult> solved = solveAll(missing);
+		for (int i = 0; i < missing.size(); i++) {
+			current.put(missing.get(i), solved.get(i));
+		}
+		final List<ComponentResult> results = new ArrayList<>();
+		for (final List<Constraint> component : components) {
+			results.add(current.get(component));
+		}
+		previous = current;
+		return results;
+	}
+
+	/**
+	 * Enumerates the components not known from the previous call. The components
+	 * are enumerated one after the other, subclasses can distribute them.
+	 * 
+	 * @param components the components to enumerate
+	 * @return the results in the order of the components
+	 */
+	protected List<ComponentResult> solveAll(final List<List<Constraint>> components) {
+		final List<ComponentResult> results = new ArrayList<>(components.size());
+		for (final List<Constraint> component : components) {
+			results.add(solve(component));
+		}
+		return results;
+	}
+
+	/**
+	 * Groups the constraints that share cells (directly or through other
+	 * constraints).
+	 * 
+	 * @param constraints the constraints to group
+	 * @return the components, the constraints keep their relative order
+	 */
+	public static List<List<Constraint>> components(final List<Constraint> constraints) {
+		final int[] parent = new int[constraints.size()];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+		}
+		final HashMap<Integer, Integer> owner = new HashMap<>();
+		for (int i = 0; i < parent.length; i++) {
+			for (final int cell : constraints.get(i).cells) {
+				final Integer other = owner.putIfAbsent(cell, i);
+				if (other != null) {
+					parent[find(parent, other)] = find(parent, i);
+				}
+			}
+		}
+		final Map<Integer, List<Constraint>> groups = new HashMap<>();
+		final List<List<Constraint>> components = new ArrayList<>();
+		for (int i = 0; i < parent.length; i++) {
+			List<Constraint> group = groups.get(find(parent, i));
+			if (group == null) {
+				group = new ArrayList<>();
+				groups.put(find(parent, i), group);
+				components.add(group);
+			}
+			group.add(constraints.get(i));
+		}
+		return components;
+	}
+
+	private static int find(final int[] parent, int i) {
+		while (parent[i] != i) {
+			i = parent[i] = parent[parent[i]];
+		}
+		return i;
+	}
+
+	/**
+	 * Orders the cells of a component for the enumeration: breadth first from a
+	 * cell at one end of the component, so the cells of a constraint are close
+	 * to each other in the order.
+	 */
+	private static int[] order(final List<Constraint> component) {
+		final HashMap<Integer, List<Constraint>> byCell = new HashMap<>();
+		for (final Constraint c : component) {
+			for (final int cell : c.cells) {
+				byCell.computeIfAbsent(cell, k -> new ArrayList<>()).add(c);
+			}
+		}
+		// The last cell reached from any cell is at one end of the component
+		int[] order = breadthFirst(component.get(0).cells[0], byCell);
+		order = breadthFirst(order[order.length - 1], byCell);
+		return order;
+	}
+
+	private static int[] breadthFirst(final int start, final HashMap<Integer, List<Constraint>> byCell) {
+		final int[] order = new int[byCell.size()];
+		final HashMap<Integer, Boolean> seen = new HashMap<>();
+		final ArrayDeque<Integer> queue = new ArrayDeque<>();
+		queue.add(start);
+		seen.put(start, true);
+		int count = 0;
+		while (!queue.isEmpty()) {
+			final int cell = queue.poll();
+			order[count++] = cell;
+			for (final Constraint c : byCell.get(cell)) {
+				for (final int next : c.cells) {
+					if (seen.putIfAbsent(next, true) == null) {
+						queue.add(next);
+					}
+				}
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * The number of partial layouts by their number of mines.
+	 */
+	private static final class Counts {
+		int lo = Integer.MAX_VALUE;
+		double[] ways = new double[0];
+
+		void add(final int mines, final double count) {
+			if (ways.length == 0) {
+				lo = mines;
+				ways = new double[1];
+			} else if (mines < lo) {
+				final double[] grown = new double[ways.length + lo - mines];
+				System.arraycopy(ways, 0, grown, lo - mines, ways.length);
+				ways = grown;
+				lo = mines;
+			} else if (mines >= lo + ways.length) {
+				ways = Arrays.copyOf(ways, mines - lo + 1);
+			}
+			ways[mines - lo] += count;
+		}
+
+		void addAll(final Counts other, final int shift) {
+			for (int k = 0; k < other.ways.length; k++) {
+				add(other.lo + k + shift, other.ways[k]);
+			}
+		}
+	}
+
+	/**
+	 * How deciding a cell changes the state of the enumeration.
+	 */
+	private static final class Step {
+		// The constraints open after the cell: where their need was in the previous
+		// state (-1 if they are opened by the cell), their mines, if they contain the
+		// cell, and how many of their cells are undecided after the cell
+		int[] source, mines, remaining;
+		boolean[] hits;
+		// The constraints closed by the cell: their previous position (or -1) and
+		// mines
+		int[] closingSource, closingMines;
+
+		/**
+		 * @return the next state, or -1 if the decision violates a constraint
+		 */
+		long next(final long state, final int mine) {
+			for (int i = 0; i < closingSource.length; i++) {
+				final int need = (closingSource[i] < 0 ? closingMines[i] : need(state, closingSource[i])) - mine;
+				if (need != 0) {
+					return -1;
+				}
+			}
+			long next = 0;
+			for (int i = 0; i < source.length; i++) {
+				int need = source[i] < 0 ? mines[i] : need(state, source[i]);
+				if (hits[i]) {
+					need -= mine;
+					if (need < 0 || need > remaining[i]) {
+						return -1;
+					}
+				}
+				next |= (long) need << (4 * i);
+			}
+			return next;
+		}
+
+		private static int need(final long state, final int position) {
+			return (int) (state >>> (4 * position)) & 0xF;
+		}
+	}
+
+	/**
+	 * Enumerates a single component.
+	 * 
+	 * @param component the constraints of the component
+	 * @return the result of the enumeration, unsolved if the component has too
+	 *         many states
+	 */
+	public static ComponentResult solve(final List<Constraint> component) {
+		final int[] cells = order(component);
+		final int n = cells.length;
+		final HashMap<Integer, Integer> position = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			position.put(cells[i], i);
+		}
+		final int m = component.size();
+		final int[] first = new int[m], last = new int[m];
+		final List<List<Integer>> containing = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			containing.add(new ArrayList<>());
+		}
+		for (int c = 0; c < m; c++) {
+			first[c] = Integer.MAX_VALUE;
+			last[c] = -1;
+			for (final int cell : component.get(c).cells) {
+				final int p = position.get(cell);
+				first[c] = Math.min(first[c], p);
+				last[c] = Math.max(last[c], p);
+				containing.get(p).add(c);
+			}
+		}
+		// The constraints open at every boundary (some of their cells are decided,
+		// some are not)
+		final int[][] open = new int[n + 1][];
+		for (int b = 0; b <= n; b++) {
+			final int[] ids = new int[m];
+			int count = 0;
+			for (int c = 0; c < m; c++) {
+				if (first[c] < b && last[c] >= b) {
+					ids[count++] = c;
+				}
+			}
+			if (count > maxOpen) {
+				return new ComponentResult(component, cells);
+			}
+			open[b] = Arrays.copyOf(ids, count);
+		}
+		final Step[] steps = new Step[n];
+		final int[] decided = new int[m];
+		for (int b = 0; b < n; b++) {
+			final Step step = steps[b] = new Step();
+			for (final int c : containing.get(b)) {
+				decided[c]++;
+			}
+			final int[] next = open[b + 1];
+			step.source = new int[next.length];
+			step.mines = new int[next.length];
+			step.remaining = new int[next.length];
+			step.hits = new boolean[next.length];
+			for (int i = 0; i < next.length; i++) {
+				final int c = next[i];
+				step.source[i] = Arrays.binarySearch(open[b], c);
+				step.source[i] = step.source[i] < 0 ? -1 : step.source[i];
+				step.mines[i] = component.get(c).mines;
+				step.remaining[i] = component.get(c).cells.length - decided[c];
+				step.hits[i] = containing.get(b).contains(c);
+			}
+			final List<Integer> closing = new ArrayList<>();
+			for (final int c : containing.get(b)) {
+				if (last[c] == b) {
+					closing.add(c);
+				}
+			}
+			step.closingSource = new int[closing.size()];
+			step.closingMines = new int[closing.size()];
+			for (int i = 0; i < closing.size(); i++) {
+				final int c = closing.get(i);
+				final int src = Arrays.binarySearch(open[b], c);
+				step.closingSource[i] = src < 0 ? -1 : src;
+				step.closingMines[i] = component.get(c).mines;
+			}
+		}
+		// Forward: the partial layouts reaching each state
+		final List<HashMap<Long, Counts>> forward = new ArrayList<>(n + 1);
+		forward.add(new HashMap<>());
+		forward.get(0).computeIfAbsent(0L, k -> new Counts()).add(0, 1);
+		int totalStates = 1;
+		for (int b = 0; b < n; b++) {
+			final HashMap<Long, Counts> reached = new HashMap<>();
+			for (final Map.Entry<Long, Counts> entry : forward.get(b).entrySet()) {
+				for (int mine = 0; mine <= 1; mine++) {
+					final long next = steps[b].next(entry.getKey(), mine);
+					if (next >= 0) {
+						reached.computeIfAbsent(next, k -> new Counts()).addAll(entry.getValue(), mine);
+					}
+				}
+			}
+			totalStates += reached.size();
+			if (reached.size() > maxStates || totalStates > maxTotalStates) {
+				return new ComponentResult(component, cells);
+			}
+			forward.add(reached);
+		}
+		// Every constraint is closed by the last cell, so the layouts reaching the
+		// end are the complete layouts
+		final Counts total = forward.get(n).get(0L);
+		if (total == null) {
+			// No layout satisfies the constraints, this only happens with wrong flags
+			return new ComponentResult(component, cells);
+		}
+		// Backward: the ways to complete the layout from each reached state. Combined
+		// with the forward counts, these give the layouts with a mine on each cell.
+		// Only the boundary after the current cell is kept, the forward states are
+		// dropped once used.
+		final double[][] mineWays = new double[total.ways.length][n];
+		final boolean[] alwaysMine = new boolean[n];
+		HashMap<Long, Counts> after = new HashMap<>();
+		after.computeIfAbsent(0L, k -> new Counts()).add(0, 1);
+		for (int b = n - 1; b >= 0; b--) {
+			final HashMap<Long, Counts> completing = new HashMap<>();
+			boolean canBeSafe = false;
+			for (final Map.Entry<Long, Counts> entry : forward.get(b).entrySet()) {
+				final Counts before = entry.getValue();
+				final Counts completions = new Counts();
+				for (int mine = 0; mine <= 1; mine++) {
+					final long next = steps[b].next(entry.getKey(), mine);
+					final Counts rest = next < 0 ? null : after.get(next);
+					if (rest == null) {
+						continue;
+					}
+					completions.addAll(rest, mine);
+					if (mine == 0) {
+						canBeSafe = true;
+						continue;
+					}
+					for (int k1 = 0; k1 < before.ways.length; k1++) {
+						for (int k2 = 0; k2 < rest.ways.length; k2++) {
+							mineWays[before.lo + k1 + 1 + rest.lo + k2 - total.lo][b] += before.ways[k1]
+									* rest.ways[k2];
+						}
+					}
+				}
+				if (completions.ways.length != 0) {
+					completing.put(entry.getKey(), completions);
+				}
+			}
+			alwaysMine[b] = !canBeSafe;
+			forward.set(b, null);
+			after = completing;
+		}
+		return new ComponentResult(component, cells, total.lo, total.ways, mineWays, alwaysMine);
+	}
+}
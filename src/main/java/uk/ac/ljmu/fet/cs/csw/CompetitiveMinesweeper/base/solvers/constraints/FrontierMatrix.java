@@ -0,0 +1,448 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapChangeListener;
+
+/**
+ * The frontier of a map as a system of linear equations: one row per explored
+ * number on the frontier, one column per unexplored spot next to such a
+ * number. A row has a 1 in the columns of the unexplored neighbours of its
+ * number, and its value is the number of mines among them (the number minus
+ * the flags around it). Rows are bitsets over the columns. Columns are handed
+ * out as spots join the frontier and are reused once their spots leave it, so
+ * the bitsets only grow with the size of the frontier, not with the map.
+ * 
+ * The matrix follows the changes of its map: a revealed or flagged spot only
+ * causes the rows of the numbers around it to be rebuilt (at the next
+ * {@link #solve(IntSet, IntSet)}). The solution only eliminates the components
+ * (rows connected through shared columns) that have changed rows, with
+ * integer Gaussian elimination. Every reduced row is checked with bounds
+ * reasoning: with the variables being 0 or 1, a row whose value equals the sum
+ * of its positive coefficients needs all those variables to be mines and all
+ * the ones with negative coefficients to be safe (and the opposite if the
+ * value equals the sum of the negative coefficients).
+ * 
+ * The matrix is meant to be used by the solver of the map, on the solver's
+ * thread.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class FrontierMatrix implements MapChangeListener {
+	/**
+	 * The largest coefficient allowed during the elimination. Components where
+	 * the coefficients would grow beyond this are left unsolved, so the products
+	 * of the elimination always fit into longs.
+	 */
+	private static final long maxCoefficient = 1L << 30;
+
+	/**
+	 * The row of an explored number.
+	 */
+	private static final class Row {
+		// The columns of the unexplored neighbours of the number
+		final long[] bits;
+		// The mines still needed among them
+		final int value;
+		// The number of unexplored neighbours
+		final int size;
+
+		Row(final long[] bits, final int value, final int size) {
+			this.bits = bits;
+			this.value = value;
+			this.size = size;
+		}
+	}
+
+	private final MineMap theMap;
+	private final Neighbourhood neighbourhood;
+	// The row of every explored number on the frontier, null elsewhere
+	private final Row[] byCentre;
+	// The column of every unexplored spot next to a frontier number, -1 elsewhere
+	private final int[] columnOf;
+	// The spot of every column, -1 for the columns not in use
+	private final IntList cellOf = new IntList();
+	private final IntList freeColumns = new IntList();
+	// The spots changed since the last solution
+	private final IntSet dirty;
+	// Reused during the solution
+	private final IntSet changedRows, visited;
+	private final IntList component = new IntList(), columns = new IntList();
+	private int[] localOf = new int[0];
+	private final int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS];
+
+	/**
+	 * Creates the matrix of a map and starts following its changes. The first
+	 * solution eliminates all the components.
+	 * 
+	 * @param theMap the map to follow
+	 * @return the new matrix, already following the map
+	 */
+	public static FrontierMatrix follow(final MineMap theMap) {
+		final FrontierMatrix matrix = new FrontierMatrix(theMap);
+		theMap.addChangeListener(matrix);
+		return matrix;
+	}
+
+	private FrontierMatrix(final MineMap theMap) {
+		this.theMap = theMap;
+		neighbourhood = theMap.getNeighbourhood();
+		byCentre = new Row[theMap.fieldSize];
+		columnOf = new int[theMap.fieldSize];
+		Arrays.fill(columnOf, -1);
+		dirty = new IntSet(theMap.fieldSize);
+		changedRows = new IntSet(theMap.fieldSize);
+		visited = new IntSet(theMap.fieldSize);
+		for (int idx = 0; idx < theMap.fieldSize; idx++) {
+			dirty.add(idx);
+		}
+	}
+
+	/**
+	 * Stops following the changes of the map.
+	 */
+	public void detach() {
+		theMap.removeChangeListener(this);
+	}
+
+	@Override
+	public void spotsRevealed(final MineMap source, final int[] spots, final int[] nearMineCounts) {
+		for (final int idx : spots) {
+			touch(idx);
+		}
+	}
+
+	@Override
+	public void flagChanged(final MineMap source, final int rowCoord, final int colCoord, final boolean flagged) {
+		touch(source.toIndex(rowCoord, colCoord));
+	}
+
+	/**
+	 * Marks a changed spot and the rows depending on it for rebuilding.
+	 * 
+	 * @param idx the packed index of the changed spot
+	 */
+	private void touch(final int idx) {
+		dirty.add(idx);
+		final int count = neighbourhood.neighboursOf(idx, neighbours);
+		for (int i = 0; i < count; i++) {
+			dirty.add(neighbours[i]);
+		}
+	}
+
+	/**
+	 * @return the column of an unexplored spot, a new one if it had none
+	 */
+	private int columnFor(final int cell) {
+		if (columnOf[cell] < 0) {
+			if (freeColumns.isEmpty()) {
+				columnOf[cell] = cellOf.size();
+				cellOf.add(cell);
+			} else {
+				columnOf[cell] = freeColumns.removeLast();
+				cellOf.set(columnOf[cell], cell);
+			}
+		}
+		return columnOf[cell];
+	}
+
+	/**
+	 * Builds the row of a spot from the current state of the map.
+	 * 
+	 * @param centre the packed index of the spot
+	 * @return the row over the unexplored neighbours of the spot, or null if the
+	 *         spot is not an explored number with unexplored neighbours
+	 */
+	private Row build(final int centre) {
+		final ExploredSpot spot = theMap.getPos(centre);
+		if (spot.type != Spot.SAFE) {
+			return null;
+		}
+		final int count = neighbourhood.neighboursOf(centre, neighbours);
+		int unexplored = 0, flags = 0, maxColumn = 0;
+		for (int i = 0; i < count; i++) {
+			final Spot type = theMap.getPos(neighbours[i]).type;
+			if (type == Spot.UNEXPLORED) {
+				// Reusing the buffer for the columns of the unexplored neighbours
+				neighbours[unexplored] = columnFor(neighbours[i]);
+				maxColumn = Math.max(maxColumn, neighbours[unexplored++]);
+			} else if (type == Spot.FLAG) {
+				flags++;
+			}
+		}
+		if (unexplored == 0) {
+			return null;
+		}
+		final long[] bits = new long[(maxColumn >> 6) + 1];
+		for (int i = 0; i < unexplored; i++) {
+			bits[neighbours[i] >> 6] |= 1L << neighbours[i];
+		}
+		return new Row(bits, spot.nearMineCount - flags, unexplored);
+	}
+
+	/**
+	 * Brings the rows up to date with the map: rebuilds the rows around the
+	 * changed spots and frees the columns of the spots that left the frontier.
+	 */
+	private void update() {
+		changedRows.clear();
+		for (int i = 0; i < dirty.size(); i++) {
+			final int centre = dirty.get(i);
+			byCentre[centre] = build(centre);
+			if (byCentre[centre] != null) {
+				changedRows.add(centre);
+			}
+		}
+		for (int i = 0; i < dirty.size(); i++) {
+			final int cell = dirty.get(i);
+			if (columnOf[cell] >= 0 && theMap.getPos(cell).type != Spot.UNEXPLORED) {
+				// All the rows around the spot were rebuilt without it
+				freeColumns.add(columnOf[cell]);
+				cellOf.set(columnOf[cell], -1);
+				columnOf[cell] = -1;
+			}
+		}
+		dirty.clear();
+	}
+
+	/**
+	 * Updates the changed rows and eliminates the components they belong to,
+	 * looking for spots that are certainly safe or certainly mines.
+	 * 
+	 * @param safe  receives the spots found to be safe
+	 * @param mines receives the spots found to be mines
+	 * @return true if any spots were found
+	 */
+	public boolean solve(final IntSet safe, final IntSet mines) {
+		final int before = safe.size() + mines.size();
+		update();
+		visited.clear();
+		for (int i = 0; i < changedRows.size(); i++) {
+			if (visited.add(changedRows.get(i))) {
+				collectComponent(changedRows.get(i));
+				eliminate(safe, mines);
+				for (int j = 0; j < columns.size(); j++) {
+					localOf[columns.get(j)] = -1;
+				}
+			}
+		}
+		return safe.size() + mines.size() != before;
+	}
+
+	/**
+	 * Collects the rows connected to a row through shared columns into
+	 * {@link #component}, and their columns into {@link #columns}.
+	 */
+	private void collectComponent(final int start) {
+		component.clear();
+		columns.clear();
+		if (localOf.length < cellOf.size()) {
+			// Entries are reset after each component, only new arrays have to be filled
+			localOf = new int[Math.max(cellOf.size(), 2 * localOf.length)];
+			Arrays.fill(localOf, -1);
+		}
+		component.add(start);
+		for (int r = 0; r < component.size(); r++) {
+			final long[] bits = byCentre[component.get(r)].bits;
+			for (int w = 0; w < bits.length; w++) {
+				for (long word = bits[w]; word != 0; word &= word - 1) {
+					final int column = (w << 6) + Long.numberOfTrailingZeros(word);
+					if (localOf[column] >= 0) {
+						continue;
+					}
+					localOf[column] = columns.size();
+					columns.add(column);
+					// The other rows of the column belong to the numbers around its spot
+					final int count = neighbourhood.neighboursOf(cellOf.get(column), neighbours);
+					for (int i = 0; i < count; i++) {
+						if (byCentre[neighbours[i]] != null && visited.add(neighbours[i])) {
+							component.add(neighbours[i]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Eliminates the rows of {@link #component} and applies the bounds
+	 * reasoning to the original and the reduced rows.
+	 */
+	private void eliminate(final IntSet safe, final IntSet mines) {
+		final int n = columns.size(), height = component.size();
+		// The last column of the matrix holds the values
+		final long[][] m = new long[height][n + 1];
+		for (int r = 0; r < height; r++) {
+			final Row row = byCentre[component.get(r)];
+			for (int w = 0; w < row.bits.length; w++) {
+				for (long word = row.bits[w]; word != 0; word &= word - 1) {
+					m[r][localOf[(w << 6) + Long.numberOfTrailingZeros(word)]] = 1;
+				}
+			}
+			m[r][n] = row.value;
+			applyBounds(m[r], safe, mines);
+		}
+		int pivots = 0;
+		for (int col = 0; col < n && pivots < height; col++) {
+			int found = pivots;
+			while (found < height && m[found][col] == 0) {
+				found++;
+			}
+			if (found == height) {
+				continue;
+			}
+			final long[] pivot = m[found];
+			m[found] = m[pivots];
+			m[pivots] = pivot;
+			if (pivot[col] < 0) {
+				for (int k = col; k <= n; k++) {
+					pivot[k] = -pivot[k];
+				}
+			}
+			for (int r = 0; r < height; r++) {
+				final long b = m[r][col];
+				if (r == pivots || b == 0) {
+					continue;
+				}
+				final long a = pivot[col];
+				final long[] target = m[r];
+				// Columns before the pivot are zero in the pivot row, they only change if
+				// the target has to be scaled
+				for (int k = a == 1 ? col : 0; k <= n; k++) {
+					target[k] = a * target[k] - b * pivot[k];
+				}
+				if (!normalise(target)) {
+					// The coefficients grew too large, the component is left unsolved
+					return;
+				}
+			}
+			pivots++;
+		}
+		for (int r = 0; r < pivots; r++) {
+			applyBounds(m[r], safe, mines);
+		}
+	}
+
+	/**
+	 * Divides a row by the greatest common divisor of its coefficients.
+	 * 
+	 * @return false if the coefficients are too large even after the division
+	 */
+	private static boolean normalise(final long[] row) {
+		long divisor = 0;
+		for (int k = 0; k < row.length; k++) {
+			divisor = gcd(divisor, Math.abs(row[k]));
+		}
+		if (divisor > 1) {
+			for (int k = 0; k < row.length; k++) {
+				row[k] /= divisor;
+			}
+		}
+		for (int k = 0; k < row.length; k++) {
+			if (Math.abs(row[k]) > maxCoefficient) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			final long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * The bounds reasoning on a single row of the matrix.
+	 */
+	private void applyBounds(final long[] row, final IntSet safe, final IntSet mines) {
+		final int n = row.length - 1;
+		long low = 0, high = 0;
+		for (int k = 0; k < n; k++) {
+			if (row[k] < 0) {
+				low += row[k];
+			} else {
+				high += row[k];
+			}
+		}
+		if (low == high || row[n] != low && row[n] != high) {
+			return;
+		}
+		// At the upper bound the positive coefficients are mines, at the lower
+		// bound the negative ones are
+		final long minesSign = row[n] == high ? 1 : -1;
+		for (int k = 0; k < n; k++) {
+			if (row[k] != 0) {
+				(Long.signum(row[k]) == minesSign ? mines : safe).add(cellOf.get(columns.get(k)));
+			}
+		}
+	}
+
+	/**
+	 * Lists the rows of the matrix as constraints. Only valid right after a
+	 * {@link #solve(IntSet, IntSet)} (i.e., when there are no changes waiting to
+	 * be processed).
+	 * 
+	 * @return the constraints, one per frontier number, in the order of the
+	 *         numbers' positions on the map
+	 */
+	public List<Constraint> getConstraints() {
+		final int count = theMap.getFrontierNumberCount();
+		final int[] centres = new int[count];
+		for (int i = 0; i < count; i++) {
+			centres[i] = theMap.getFrontierNumber(i);
+		}
+		Arrays.sort(centres);
+		final List<Constraint> all = new ArrayList<>();
+		for (final int centre : centres) {
+			final Row row = byCentre[centre];
+			if (row == null) {
+				continue;
+			}
+			final int[] cells = new int[row.size];
+			int j = 0;
+			for (int w = 0; w < row.bits.length; w++) {
+				for (long word = row.bits[w]; word != 0; word &= word - 1) {
+					cells[j++] = cellOf.get((w << 6) + Long.numberOfTrailingZeros(word));
+				}
+			}
+			Arrays.sort(cells);
+			all.add(new Constraint(cells, row.value));
+		}
+		return all;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+/**
+ * A table of the natural logarithms of factorials, giving the logarithm of any
+ * binomial coefficient with three lookups. The number of ways to place the
+ * remaining mines on a map overflows doubles already for small maps, so the
+ * solvers weight mine layouts in log space.
+ * 
+ * Tables only depend on their size, so solvers share them through
+ * {@link #forSize(int)} instead of filling their own for every game.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class LogBinomials {
+	/**
+	 * logFactorials[n] = ln(n!)
+	 */
+	private final double[] logFactorials;
+	/**
+	 * The largest table created so far by {@link #forSize(int)}
+	 */
+	private static volatile LogBinomials shared = new LogBinomials(0);
+
+	/**
+	 * Gives a shared table supporting at least the given size. Tables are never
+	 * modified after their creation, so they can be used by any number of
+	 * threads.
+	 * 
+	 * @param max the largest n needed (e.g., the field size of a map)
+	 * @return a table with {@link #getMax()} at least max
+	 */
+	public static LogBinomials forSize(final int max) {
+		LogBinomials table = shared;
+		if (table.getMax() < max) {
+			// Racing threads might fill a table each, any of them is fine to keep
+			table = new LogBinomials(Math.max(max, 2 * table.getMax()));
+			shared = table;
+		}
+		return table;
+	}
+
+	/**
+	 * @param max the largest n the table should support (e.g., the field size of
+	 *            a map)
+	 */
+	public LogBinomials(final int max) {
+		logFactorials = new double[max + 1];
+		for (int n = 2; n <= max; n++) {
+			logFactorials[n] = logFactorials[n - 1] + Math.log(n);
+		}
+	}
+
+	/**
+	 * @return the largest n supported by the table
+	 */
+	public int getMax() {
+		return logFactorials.length - 1;
+	}
+
+	/**
+	 * @param n the number of items to choose from (at most {@link #getMax()})
+	 * @param k the number of items chosen
+	 * @return ln(n choose k), negative infinity if k is not between 0 and n
+	 */
+	public double logChoose(final int n, final int k) {
+		if (k < 0 || k > n) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return logFactorials[n] - logFactorials[k] - logFactorials[n - k];
+	}
+}
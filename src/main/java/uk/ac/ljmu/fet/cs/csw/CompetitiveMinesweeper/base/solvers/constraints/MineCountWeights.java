@@ -0,0 +1,221 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weights the layouts of the frontier components with the global mine count.
+ * A layout of the whole map is a layout for each component plus a placement
+ * of the rest of the mines on the unexplored spots off the frontier (the
+ * interior). If the components use K mines altogether, there are (I choose
+ * M-K) placements for the rest, with I interior spots and M mines left. So a
+ * layout of a component with k mines is worth the sum of
+ * 
+ * <pre>
+ * ways_others(K') * (I choose M - k - K')
+ * </pre>
+ * 
+ * over the mine counts K' of the other components. The mine counts of the
+ * other components are combined by convolving their layout counts, with the
+ * counts kept scaled (and the scales in log space) to stay in the range of
+ * doubles. Only the interior mine counts reachable with the possible frontier
+ * mine counts are considered, so the work depends on the size of the frontier,
+ * not on the number of mines left.
+ * 
+ * Unsolved components are left out of the combination, their mines should be
+ * deducted from the mines left by the caller.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class MineCountWeights {
+	/**
+	 * The log weights of each component, indexed by the mine count of the
+	 * component (see {@link ComponentResult#probabilities(double[])}), null for
+	 * the unsolved components
+	 */
+	private final double[][] logWeights;
+	/**
+	 * The probability of a mine on an interior spot
+	 */
+	private final double interiorProbability;
+
+	/**
+	 * A sequence of non-negative numbers: the i-th number is values[i - lo] *
+	 * e^logScale.
+	 */
+	private static final class Scaled {
+		final int lo;
+		final double[] values;
+		double logScale;
+
+		Scaled(final int lo, final double[] values, final double logScale) {
+			this.lo = lo;
+			this.values = values;
+			this.logScale = logScale;
+			normalise();
+		}
+
+		/**
+		 * Moves the largest value into the scale.
+		 */
+		void normalise() {
+			double max = 0;
+			for (final double v : values) {
+				max = Math.max(max, v);
+			}
+			if (max > 0) {
+				for (int i = 0; i < values.length; i++) {
+					values[i] /= max;
+				}
+				logScale += Math.log(max);
+			}
+		}
+
+		double get(final int i) {
+			return i < lo || i >= lo + values.length ? 0 : values[i - lo];
+		}
+	}
+
+	/**
+	 * Calculates the weights.
+	 * 
+	 * @param components the results of the frontier components
+	 * @param minesLeft  the number of mines on the frontier and the interior
+	 * @param interior   the number of unexplored spots off the frontier
+	 * @param binomials  a table supporting at least the size of the interior
+	 */
+	public MineCountWeights(final List<ComponentResult> components, final int minesLeft, final int interior,
+			final LogBinomials binomials) {
+		final int m = Math.max(minesLeft, 0);
+		final int count = components.size();
+		final Scaled[] ways = new Scaled[count];
+		int frontierMax = 0;
+		for (int c = 0; c < count; c++) {
+			final ComponentResult component = components.get(c);
+			ways[c] = component.isSolved() ? new Scaled(component.minMines, component.ways.clone(), 0)
+					: new Scaled(0, new double[] { 1 }, 0);
+			frontierMax += ways[c].lo + ways[c].values.length - 1;
+		}
+		// suffix[c](t): the weighted number of ways to place t mines on the
+		// components from c onwards and on the interior
+		final Scaled[] suffix = new Scaled[count + 1];
+		final int fewest = Math.max(0, m - frontierMax);
+		final double[] interiorWays = new double[m - fewest + 1];
+		double maxLog = Double.NEGATIVE_INFINITY;
+		for (int t = fewest; t <= m; t++) {
+			maxLog = Math.max(maxLog, binomials.logChoose(interior, t));
+		}
+		for (int t = fewest; t <= m && maxLog > Double.NEGATIVE_INFINITY; t++) {
+			interiorWays[t - fewest] = Math.exp(binomials.logChoose(interior, t) - maxLog);
+		}
+		suffix[count] = new Scaled(fewest, interiorWays, maxLog);
+		for (int c = count - 1; c >= 0; c--) {
+			suffix[c] = convolve(ways[c], suffix[c + 1]);
+		}
+		// prefix: the number of ways to place the mines on the components before c
+		Scaled prefix = new Scaled(0, new double[] { 1 }, 0);
+		logWeights = new double[count][];
+		boolean possible = true;
+		for (int c = 0; c < count; c++) {
+			final ComponentResult component = components.get(c);
+			if (component.isSolved()) {
+				final double[] weights = new double[component.maxMines() + 1];
+				double max = Double.NEGATIVE_INFINITY;
+				Arrays.fill(weights, Double.NEGATIVE_INFINITY);
+				for (int k = component.minMines; k < weights.length; k++) {
+					double sum = 0;
+					for (int a = 0; a < prefix.values.length; a++) {
+						sum += prefix.values[a] * suffix[c + 1].get(m - k - prefix.lo - a);
+					}
+					weights[k] = Math.log(sum) + prefix.logScale + suffix[c + 1].logScale;
+					if (component.getWays(k) > 0) {
+						max = Math.max(max, weights[k]);
+					}
+				}
+				logWeights[c] = weights;
+				possible &= max > Double.NEGATIVE_INFINITY;
+			}
+			prefix = convolve(prefix, ways[c]);
+		}
+		// The expected number of mines left for the interior
+		double total = 0, interiorMines = 0;
+		for (int a = 0; a < prefix.values.length; a++) {
+			final double w = prefix.values[a] * suffix[count].get(m - prefix.lo - a);
+			total += w;
+			interiorMines += w * (m - prefix.lo - a);
+		}
+		if (!possible || total == 0) {
+			// The mine count contradicts the frontier (e.g., because of wrong flags):
+			// all layouts are equally likely, the interior gets the average density
+			for (int c = 0; c < count; c++) {
+				if (logWeights[c] != null) {
+					logWeights[c] = new double[logWeights[c].length];
+				}
+			}
+			interiorProbability = interior == 0 ? 0 : Math.min(1, (double) m / (interior + frontierSize(components)));
+		} else {
+			interiorProbability = interior == 0 ? 0 : interiorMines / total / interior;
+		}
+	}
+
+	private static int frontierSize(final List<ComponentResult> components) {
+		int size = 0;
+		for (final ComponentResult component : components) {
+			size += component.cells.length;
+		}
+		return size;
+	}
+
+	private static Scaled convolve(final Scaled a, final Scaled b) {
+		final double[] values = new double[a.values.length + b.values.length - 1];
+		for (int i = 0; i < a.values.length; i++) {
+			if (a.values[i] != 0) {
+				for (int j = 0; j < b.values.length; j++) {
+					values[i + j] += a.values[i] * b.values[j];
+				}
+			}
+		}
+		return new Scaled(a.lo + b.lo, values, a.logScale + b.logScale);
+	}
+
+	/**
+	 * @param c the index of the component
+	 * @return the natural logarithm of the weights of the layouts of the
+	 *         component by their mine count (to be passed to
+	 *         {@link ComponentResult#probabilities(double[])}), null if the
+	 *         component is not solved
+	 */
+	public double[] getLogWeights(final int c) {
+		return logWeights[c];
+	}
+
+	/**
+	 * @return the probability of a mine on an unexplored spot off the frontier
+	 */
+	public double getInteriorProbability() {
+		return interiorProbability;
+	}
+}
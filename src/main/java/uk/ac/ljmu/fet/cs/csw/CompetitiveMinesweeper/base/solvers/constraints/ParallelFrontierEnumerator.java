@@ -0,0 +1,103 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A frontier enumerator that spreads its work over the cores with a fork/join
+ * pool. Independent components are enumerated as separate tasks, each of them
+ * with the same state budget as in the sequential enumeration.
+ * 
+ * The results are the same as the ones of {@link FrontierEnumerator}, only the
+ * enumeration of frontiers with many components (e.g., in the middle of a game
+ * on a big map) finishes earlier. Pools with a single worker gain nothing from
+ * the tasks, so with them the components are enumerated on the calling thread.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class ParallelFrontierEnumerator extends FrontierEnumerator {
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates an enumerator running on the common fork/join pool.
+	 */
+	public ParallelFrontierEnumerator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool the pool to run the enumeration tasks in
+	 */
+	public ParallelFrontierEnumerator(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	protected List<ComponentResult> solveAll(final List<List<Constraint>> components) {
+		if (pool.getParallelism() < 2 || components.size() < 2) {
+			// Nothing to distribute, or nobody to distribute it to
+			return super.solveAll(components);
+		}
+		final List<ComponentTask> tasks = new ArrayList<>(components.size());
+		for (final List<Constraint> component : components) {
+			tasks.add(new ComponentTask(component));
+		}
+		return pool.invoke(new RecursiveTask<List<ComponentResult>>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected List<ComponentResult> compute() {
+				ForkJoinTask.invokeAll(tasks);
+				final List<ComponentResult> results = new ArrayList<>(tasks.size());
+				for (final ComponentTask task : tasks) {
+					results.add(task.join());
+				}
+				return results;
+			}
+		});
+	}
+
+	/**
+	 * Enumerates a single component.
+	 */
+	private static class ComponentTask extends RecursiveTask<ComponentResult> {
+		private static final long serialVersionUID = 1L;
+		// Tasks are never serialised, they only live during an enumeration
+		private final transient List<Constraint> component;
+
+		ComponentTask(final List<Constraint> component) {
+			this.component = component;
+		}
+
+		@Override
+		protected ComponentResult compute() {
+			return solve(component);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints;
+
+import java.util.List;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+
+/**
+ * The guess of solvers that find their certain spots without enumerating the
+ * layouts of the frontier (e.g., with elimination or with a SAT solver). Once
+ * such a solver is stuck, the frontier constraints it already has are
+ * enumerated and weighted with the global mine count, the same way as in the
+ * {@link Endgame}, and the spot least likely to be a mine is suggested. The
+ * components unchanged since the previous guess are not enumerated again.
+ * 
+ * The guess is meant to be used by the solver of the map, on the solver's
+ * thread.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class SafestGuess {
+	private final MineMap theMap;
+	private final FrontierEnumerator enumerator = new FrontierEnumerator();
+	private final LogBinomials binomials;
+	private final IntSet frontier;
+
+	/**
+	 * @param theMap the map to make guesses for
+	 */
+	public SafestGuess(final MineMap theMap) {
+		this.theMap = theMap;
+		binomials = LogBinomials.forSize(theMap.fieldSize);
+		frontier = new IntSet(theMap.fieldSize);
+	}
+
+	/**
+	 * Suggests the next spot to pick.
+	 * 
+	 * @param constraints the current constraints of the frontier of the map
+	 * @return the packed index of the unexplored spot least likely to be a mine
+	 *         (a random unexplored spot if the frontier is empty)
+	 */
+	public int safestSpot(final List<Constraint> constraints) {
+		frontier.clear();
+		for (final Constraint c : constraints) {
+			for (final int cell : c.cells) {
+				frontier.add(cell);
+			}
+		}
+		return Endgame.safestSpot(theMap, enumerator.enumerate(constraints), frontier, binomials);
+	}
+}
@@ -22,6 +22,11 @@
  */
 package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority;
 
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+
 /**
  * Allows to store the two coordinates of a spot on a minemap. Objects of this
  * class keep their data constant to allow rapid access to them.
@@ -46,4 +51,24 @@ public class CoordinatesForSpot {
 		rowCoord = rowC;
 		colCoord = colC;
 	}
+
+	/**
+	 * Converts a list of coordinates to the packed form expected by the batch
+	 * operations of the map (e.g., {@link MineMap#pickMany(int[])}).
+	 * 
+	 * @param theMap The map the coordinates belong to.
+	 * @param spots  The coordinates to convert.
+	 * @return the packed indexes of the spots in the order they were listed,
+	 *         spots outside the map are left out.
+	 */
+	public static int[] toIndexes(final MineMap theMap, final List<CoordinatesForSpot> spots) {
+		final int[] indexes = new int[spots.size()];
+		int count = 0;
+		for (final CoordinatesForSpot spot : spots) {
+			if (!theMap.checkOutOfRange(spot.rowCoord, spot.colCoord)) {
+				indexes[count++] = theMap.toIndex(spot.rowCoord, spot.colCoord);
+			}
+		}
+		return count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+	}
 }
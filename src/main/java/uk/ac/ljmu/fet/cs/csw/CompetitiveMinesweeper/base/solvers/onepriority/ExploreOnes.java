@@ -25,12 +25,16 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SimpleLineByLineSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Endgame;
 
 /**
  * Sample solution to the AI. Although it is more complex than
@@ -40,12 +44,22 @@ import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SimpleLineByLin
  * areas first which are in the vicinity of an already explored spot with one
  * mine in its neighbourhood. This "AI" can often times win the easiest games,
  * but loses if there are mines which don't have a spot around them with only
- * one mine around.
+ * one mine around. Once the frontier is small, its guesses are not random
+ * anymore: the {@link Endgame} suggests the spot least likely to be a mine,
+ * given the number of mines left.
  * 
  * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
  *         Moores University, (c) 2019"
  */
 public class ExploreOnes extends AbstractSolver {
+	/**
+	 * Reused buffer for the neighbours of a spot.
+	 */
+	private final int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS];
+	/**
+	 * Suggests the guesses once the frontier is small, null before that.
+	 */
+	private Endgame endgame = null;
 
 	/**
 	 * Implements the following technique: the algorithm randomly explores the map
@@ -58,24 +72,36 @@ public class ExploreOnes extends AbstractSolver {
 		super.run();
 		MineMap theMapToSolve = getMyMap();
 
-		// The actual algorithm starts here
+		// The actual algorithm starts here. The spots are handled as packed indexes
+		// in lists reused throughout the game, so the loop does not allocate.
+		IntList allOnes = new IntList(), aNeighbourhood = new IntList(), neighbourhoodToPickFrom = new IntList();
+		try {
+			play(theMapToSolve, allOnes, aNeighbourhood, neighbourhoodToPickFrom);
+		} finally {
+			if (endgame != null) {
+				endgame.detach();
+				endgame = null;
+			}
+		}
+	}
+
+	private void play(MineMap theMapToSolve, IntList allOnes, IntList aNeighbourhood,
+			IntList neighbourhoodToPickFrom) {
 		mainloop: do {
-			List<CoordinatesForSpot> allOnes = searchForOnes(theMapToSolve);
+			searchForOnesOnFrontier(theMapToSolve, allOnes);
 			if (allOnes.isEmpty()) {
-				// We have to go for a random choice, nothing is explored so far
-				doFullAreaRandomPick(theMapToSolve);
+				// We have to go for a random choice, nothing is explored so far (or there
+				// are no ones on the frontier)
+				guess(theMapToSolve, null);
 			} else {
 				// Randomise the spots with ones so we don't explore the map in a predefined
 				// order
-				Collections.shuffle(allOnes);
-				List<List<CoordinatesForSpot>> unexploredLocationsAroundOnes = searchUnexploredAround(theMapToSolve,
-						allOnes);
+				allOnes.shuffle(ThreadLocalRandom.current());
 				int biggestSize = -1;
-				List<CoordinatesForSpot> neighbourhoodToPickFrom = null;
-				for (int i = 0; i < unexploredLocationsAroundOnes.size(); i++) {
-					List<CoordinatesForSpot> aNeighbourhood = unexploredLocationsAroundOnes.get(i);
-					CoordinatesForSpot neighbourhoodCentre = allOnes.get(i);
-					if (areThereAnyFlagsAround(theMapToSolve, neighbourhoodCentre)) {
+				for (int i = 0; i < allOnes.size(); i++) {
+					int neighbourhoodCentre = allOnes.get(i);
+					searchUnexploredAround(theMapToSolve, neighbourhoodCentre, aNeighbourhood, neighbours);
+					if (areThereAnyFlagsAround(theMapToSolve, neighbourhoodCentre, neighbours)) {
 						// We can pick all the spots in the neighbourhood of a 1 if we already know
 						// where is its mine (i.e., we have a flag on it)
 						pickAllOnList(theMapToSolve, aNeighbourhood);
@@ -84,8 +110,8 @@ public class ExploreOnes extends AbstractSolver {
 						if (aNeighbourhood.size() == 1) {
 							// There is just one unexplored neighbouring spot, that must be a mine then,
 							// let's flag it
-							CoordinatesForSpot theMine = aNeighbourhood.get(0);
-							theMapToSolve.flagASpot(theMine.rowCoord, theMine.colCoord);
+							int theMine = aNeighbourhood.get(0);
+							theMapToSolve.flagASpot(theMapToSolve.rowOf(theMine), theMapToSolve.colOf(theMine));
 							// As we now have an extra flag on the map, we are better of restarting the
 							// loop.
 							continue mainloop;
@@ -94,7 +120,8 @@ public class ExploreOnes extends AbstractSolver {
 							// unexplored area so we can pick a bit safer from them.
 							if (biggestSize < aNeighbourhood.size()) {
 								biggestSize = aNeighbourhood.size();
-								neighbourhoodToPickFrom = aNeighbourhood;
+								neighbourhoodToPickFrom.clear();
+								neighbourhoodToPickFrom.addAll(aNeighbourhood);
 							}
 						}
 					}
@@ -102,23 +129,53 @@ public class ExploreOnes extends AbstractSolver {
 				if (biggestSize > 1) {
 					// We had found a spot with one on it where there are multiple unexplored
 					// neighbours, we need to pick one of them.
-					pickARandomSpotFromList(theMapToSolve, neighbourhoodToPickFrom);
+					guess(theMapToSolve, neighbourhoodToPickFrom);
 				} else {
 					// There are no areas to explore around the ones, we have to guess the next spot
-					doFullAreaRandomPick(theMapToSolve);
+					guess(theMapToSolve, null);
 				}
 			}
 		} while (!theMapToSolve.isEnded());
 	}
 
+	/**
+	 * Guesses the next spot to pick. In the endgame the mines found are flagged
+	 * and the safest spot is picked, before that a random one. The endgame only
+	 * starts following the map once its frontier is small.
+	 * 
+	 * @param theMapToSolve the map to pick on
+	 * @param candidates    the spots to choose from randomly, null to choose from
+	 *                      the full area
+	 */
+	private void guess(MineMap theMapToSolve, IntList candidates) {
+		if (endgame == null && Endgame.isDue(theMapToSolve, Endgame.defaultFrontierLimit)) {
+			endgame = new Endgame(theMapToSolve);
+		}
+		int mine = endgame == null ? -1 : endgame.knownMine();
+		int safest = endgame == null || mine >= 0 ? -1 : endgame.safestSpot();
+		if (mine >= 0) {
+			theMapToSolve.flagASpot(theMapToSolve.rowOf(mine), theMapToSolve.colOf(mine));
+		} else if (safest >= 0) {
+			theMapToSolve.pickASpot(theMapToSolve.rowOf(safest), theMapToSolve.colOf(safest));
+		} else if (candidates == null) {
+			doFullAreaRandomPick(theMapToSolve);
+		} else {
+			pickARandomSpotFromList(theMapToSolve, candidates);
+		}
+	}
+
 	/**
 	 * Searches the map for unexplored spots and picks one randomly.
 	 * 
 	 * @param theMapToSolve the map to explore and pick on
 	 */
 	public static void doFullAreaRandomPick(MineMap theMapToSolve) {
-		List<CoordinatesForSpot> allUnexplored = searchForUnexplored(theMapToSolve);
-		pickARandomSpotFromList(theMapToSolve, allUnexplored);
+		// The map keeps its unexplored spots ready for a random choice, there is no
+		// need to collect them here
+		int whatToPick = theMapToSolve.randomUnexploredSpot(ThreadLocalRandom.current());
+		if (whatToPick >= 0) {
+			theMapToSolve.pickASpot(theMapToSolve.rowOf(whatToPick), theMapToSolve.colOf(whatToPick));
+		}
 	}
 
 	/**
@@ -161,16 +218,19 @@ public class ExploreOnes extends AbstractSolver {
 	public static List<List<CoordinatesForSpot>> searchUnexploredAround(MineMap theMapToSolve,
 			List<CoordinatesForSpot> theLocationsWhereWeNeedToLookAround) {
 		ArrayList<List<CoordinatesForSpot>> theFullList = new ArrayList<>();
+		Neighbourhood around = theMapToSolve.getNeighbourhood();
+		int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS];
 		for (CoordinatesForSpot spotToLookAround : theLocationsWhereWeNeedToLookAround) {
 			ArrayList<CoordinatesForSpot> aParticularSpotsList = new ArrayList<>();
-			for (int cc = spotToLookAround.colCoord - 1; cc < spotToLookAround.colCoord + 2; cc++) {
-				for (int rc = spotToLookAround.rowCoord - 1; rc < spotToLookAround.rowCoord + 2; rc++) {
-					if (!theMapToSolve.checkOutOfRange(rc, cc)) {
-						ExploredSpot aSpot = theMapToSolve.getPos(rc, cc);
-						if (Spot.UNEXPLORED.equals(aSpot.type)) {
-							aParticularSpotsList.add(new CoordinatesForSpot(rc, cc));
-						}
-					}
+			int centre = theMapToSolve.toIndex(spotToLookAround.rowCoord, spotToLookAround.colCoord);
+			if (Spot.UNEXPLORED.equals(theMapToSolve.getPos(centre).type)) {
+				aParticularSpotsList.add(spotToLookAround);
+			}
+			int count = around.neighboursOf(centre, neighbours);
+			for (int i = 0; i < count; i++) {
+				if (Spot.UNEXPLORED.equals(theMapToSolve.getPos(neighbours[i]).type)) {
+					aParticularSpotsList.add(
+							new CoordinatesForSpot(theMapToSolve.rowOf(neighbours[i]), theMapToSolve.colOf(neighbours[i])));
 				}
 			}
 			theFullList.add(aParticularSpotsList);
@@ -178,6 +238,49 @@ public class ExploreOnes extends AbstractSolver {
 		return theFullList;
 	}
 
+	/**
+	 * Collects the unexplored spots around a spot (the spot itself included if it
+	 * is unexplored). This is the allocation free variant of
+	 * {@link #searchUnexploredAround(MineMap, List)} for a single spot.
+	 * 
+	 * @param theMapToSolve The map where the exploration should happen.
+	 * @param centre        The packed index of the spot to look around.
+	 * @param unexplored    The list to collect the packed indexes of the
+	 *                      unexplored spots into (it is cleared first).
+	 * @param neighbours    A buffer of at least
+	 *                      {@link Neighbourhood#MAX_NEIGHBOURS} items, its
+	 *                      contents are overwritten.
+	 */
+	public static void searchUnexploredAround(MineMap theMapToSolve, int centre, IntList unexplored,
+			int[] neighbours) {
+		unexplored.clear();
+		if (Spot.UNEXPLORED.equals(theMapToSolve.getPos(centre).type)) {
+			unexplored.add(centre);
+		}
+		int count = theMapToSolve.getNeighbourhood().neighboursOf(centre, neighbours);
+		for (int i = 0; i < count; i++) {
+			if (Spot.UNEXPLORED.equals(theMapToSolve.getPos(neighbours[i]).type)) {
+				unexplored.add(neighbours[i]);
+			}
+		}
+	}
+
+	/**
+	 * Randomly chooses a spot from the list of areas and picks it on the map that
+	 * it receives.
+	 * 
+	 * @param theMapToSolve            The map on which we have to pick a spot.
+	 * @param theListofAreasToPickFrom The packed indexes of the spots from which
+	 *                                 the method can choose from when it decides
+	 *                                 which to pick.
+	 */
+	public static void pickARandomSpotFromList(MineMap theMapToSolve, IntList theListofAreasToPickFrom) {
+		if (theListofAreasToPickFrom.isEmpty())
+			return;
+		int whatToPick = theListofAreasToPickFrom.get(ThreadLocalRandom.current().nextInt(theListofAreasToPickFrom.size()));
+		theMapToSolve.pickASpot(theMapToSolve.rowOf(whatToPick), theMapToSolve.colOf(whatToPick));
+	}
+
 	/**
 	 * Randomly chooses a spot from the list of areas and picks it on the map that
 	 * it receives.
@@ -204,8 +307,21 @@ public class ExploreOnes extends AbstractSolver {
 	 *                                 could lead to mines exploding.
 	 */
 	public static void pickAllOnList(MineMap theMapToSolve, List<CoordinatesForSpot> theListofAreasToPickFrom) {
-		for (CoordinatesForSpot whatToPick : theListofAreasToPickFrom) {
-			theMapToSolve.pickASpot(whatToPick.rowCoord, whatToPick.colCoord);
+		theMapToSolve.pickMany(CoordinatesForSpot.toIndexes(theMapToSolve, theListofAreasToPickFrom));
+	}
+
+	/**
+	 * Picks all spots handed over as a list of packed indexes.
+	 * 
+	 * @param theMapToSolve            The map where we have to pick the spots.
+	 * @param theListofAreasToPickFrom The packed indexes of the spots to pick.
+	 *                                 WARNING: all spots will be picked. Incorrect
+	 *                                 use of this method could lead to mines
+	 *                                 exploding.
+	 */
+	public static void pickAllOnList(MineMap theMapToSolve, IntList theListofAreasToPickFrom) {
+		if (!theListofAreasToPickFrom.isEmpty()) {
+			theMapToSolve.pickMany(theListofAreasToPickFrom.toArray());
 		}
 	}
 
@@ -219,14 +335,31 @@ public class ExploreOnes extends AbstractSolver {
 	 * @return true if we found at least a flag in the vicinity. false otherwise.
 	 */
 	public static boolean areThereAnyFlagsAround(MineMap theMapToSolve, CoordinatesForSpot neighbourhoodCentre) {
-		for (int cc = neighbourhoodCentre.colCoord - 1; cc < neighbourhoodCentre.colCoord + 2; cc++) {
-			for (int rc = neighbourhoodCentre.rowCoord - 1; rc < neighbourhoodCentre.rowCoord + 2; rc++) {
-				if (!theMapToSolve.checkOutOfRange(rc, cc)) {
-					ExploredSpot aSpot = theMapToSolve.getPos(rc, cc);
-					if (Spot.FLAG.equals(aSpot.type)) {
-						return true;
-					}
-				}
+		return areThereAnyFlagsAround(theMapToSolve,
+				theMapToSolve.toIndex(neighbourhoodCentre.rowCoord, neighbourhoodCentre.colCoord),
+				new int[Neighbourhood.MAX_NEIGHBOURS]);
+	}
+
+	/**
+	 * Determines if the explored map around a particular spot contains any flags
+	 * (i.e., suspected mines). This variant does not allocate.
+	 * 
+	 * @param theMapToSolve The map where to look around.
+	 * @param centre        The packed index of the spot for which we need to check
+	 *                      its neighbourhood.
+	 * @param neighbours    A buffer of at least
+	 *                      {@link Neighbourhood#MAX_NEIGHBOURS} items, its
+	 *                      contents are overwritten.
+	 * @return true if we found at least a flag in the vicinity. false otherwise.
+	 */
+	public static boolean areThereAnyFlagsAround(MineMap theMapToSolve, int centre, int[] neighbours) {
+		if (Spot.FLAG.equals(theMapToSolve.getPos(centre).type)) {
+			return true;
+		}
+		int count = theMapToSolve.getNeighbourhood().neighboursOf(centre, neighbours);
+		for (int i = 0; i < count; i++) {
+			if (Spot.FLAG.equals(theMapToSolve.getPos(neighbours[i]).type)) {
+				return true;
 			}
 		}
 		return false;
@@ -256,4 +389,45 @@ public class ExploreOnes extends AbstractSolver {
 		}
 		return fullListOfOnes;
 	}
+
+	/**
+	 * Lists the coordinates on the map which has one mine in the vicinity and
+	 * still have unexplored spots around them. Unlike
+	 * {@link #searchForOnes(MineMap)}, this does not scan the map, it only looks
+	 * at the frontier maintained by the map.
+	 * 
+	 * @param aMap The map where we look for the spots with one mine in their
+	 *             vicinity.
+	 * @return The list of spots (depicted with their coordinates) that have exactly
+	 *         one mine in their vicinity and are next to unexplored spots.
+	 */
+	public static List<CoordinatesForSpot> searchForOnesOnFrontier(MineMap aMap) {
+		IntList ones = new IntList();
+		searchForOnesOnFrontier(aMap, ones);
+		List<CoordinatesForSpot> frontierOnes = new ArrayList<CoordinatesForSpot>(ones.size());
+		for (int i = 0; i < ones.size(); i++) {
+			frontierOnes.add(new CoordinatesForSpot(aMap.rowOf(ones.get(i)), aMap.colOf(ones.get(i))));
+		}
+		return frontierOnes;
+	}
+
+	/**
+	 * Collects the spots on the map which has one mine in the vicinity and still
+	 * have unexplored spots around them. This is the primitive variant of
+	 * {@link #searchForOnesOnFrontier(MineMap)}.
+	 * 
+	 * @param aMap The map where we look for the spots with one mine in their
+	 *             vicinity.
+	 * @param ones The list to collect the packed indexes of the spots into (it is
+	 *             cleared first).
+	 */
+	public static void searchForOnesOnFrontier(MineMap aMap, IntList ones) {
+		ones.clear();
+		for (int i = 0; i < aMap.getFrontierNumberCount(); i++) {
+			int idx = aMap.getFrontierNumber(i);
+			if (aMap.getPos(idx).nearMineCount == 1) {
+				ones.add(idx);
+			}
+		}
+	}
 }
@@ -0,0 +1,171 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Move;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractStepSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.StepSolverEngine;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapView;
+
+/**
+ * The technique of {@link ExploreOnes} one move at a time, so it can be played
+ * in a {@link StepSolverEngine} as well as a usual solver. It prefers the
+ * neighbourhoods of spots with one mine around: if the mine is flagged already,
+ * it uncovers the rest of the neighbourhood, if there is only one unexplored
+ * neighbour, it flags it, otherwise it picks randomly around the one with the
+ * most unexplored neighbours. As it only sees a read only view of the map, it
+ * can not ask the endgame where the last mines are. Instead, before guessing,
+ * it also looks at the other numbers: if all their mines are flagged, it
+ * uncovers their neighbourhood, if all their unexplored neighbours are mines,
+ * it flags them (the game is only won once all mines are flagged). Without
+ * such moves it picks randomly on the full map.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class ExploreOnesStepper extends AbstractStepSolver {
+	/**
+	 * Reused buffers for the unexplored neighbours of the current one and of the
+	 * one with the most unexplored neighbours so far.
+	 */
+	private final IntList aNeighbourhood = new IntList(), neighbourhoodToPickFrom = new IntList();
+
+	@Override
+	public Move nextMove(final MapView view) {
+		final int rows = view.getRows(), cols = view.getCols(), size = rows * cols;
+		final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		// The scan starts at a random spot so we don't explore the map in a predefined
+		// order
+		final int start = rnd.nextInt(size);
+		int biggestSize = -1;
+		Move sureMove = null;
+		for (int i = 0; i < size; i++) {
+			final int here = (start + i) % size, rc = here / cols, cc = here % cols;
+			final ExploredSpot aSpot = view.getPos(rc, cc);
+			if (!Spot.SAFE.equals(aSpot.type) || aSpot.nearMineCount == 0) {
+				continue;
+			}
+			final int flags = searchAround(view, rc, cc, aNeighbourhood);
+			if (aNeighbourhood.isEmpty()) {
+				continue;
+			}
+			if (aSpot.nearMineCount != 1) {
+				// Only used if the ones don't offer a move
+				if (sureMove == null && flags == aSpot.nearMineCount) {
+					sureMove = Move.chord(rc, cc);
+				} else if (sureMove == null && flags + aNeighbourhood.size() == aSpot.nearMineCount) {
+					final int theMine = aNeighbourhood.get(0);
+					sureMove = Move.flag(theMine / cols, theMine % cols);
+				}
+			} else if (flags == 1) {
+				// The mine of the one is known, the rest of its neighbourhood is safe
+				return Move.chord(rc, cc);
+			} else if (flags == 0) {
+				if (aNeighbourhood.size() == 1) {
+					// The only unexplored neighbour must be the mine
+					final int theMine = aNeighbourhood.get(0);
+					return Move.flag(theMine / cols, theMine % cols);
+				} else if (biggestSize < aNeighbourhood.size()) {
+					biggestSize = aNeighbourhood.size();
+					neighbourhoodToPickFrom.clear();
+					neighbourhoodToPickFrom.addAll(aNeighbourhood);
+				}
+			}
+		}
+		if (sureMove != null) {
+			return sureMove;
+		}
+		if (biggestSize > 1) {
+			final int whatToPick = neighbourhoodToPickFrom.get(rnd.nextInt(neighbourhoodToPickFrom.size()));
+			return Move.pick(whatToPick / cols, whatToPick % cols);
+		}
+		return randomUnexplored(view, rnd);
+	}
+
+	/**
+	 * Collects the unexplored neighbours of a spot and counts the flags around it.
+	 * 
+	 * @param view       the map to look around on
+	 * @param rowCoord   the row of the spot
+	 * @param colCoord   the column of the spot
+	 * @param unexplored the list to collect the packed indexes (row * cols + col)
+	 *                   of the unexplored neighbours into (it is cleared first)
+	 * @return the number of flags around the spot
+	 */
+	private static int searchAround(final MapView view, final int rowCoord, final int colCoord,
+			final IntList unexplored) {
+		unexplored.clear();
+		final int cols = view.getCols();
+		final int minRow = Math.max(rowCoord - 1, 0), maxRow = Math.min(rowCoord + 1, view.getRows() - 1);
+		final int minCol = Math.max(colCoord - 1, 0), maxCol = Math.min(colCoord + 1, cols - 1);
+		int flags = 0;
+		for (int rc = minRow; rc <= maxRow; rc++) {
+			for (int cc = minCol; cc <= maxCol; cc++) {
+				final Spot type = view.getPos(rc, cc).type;
+				if (Spot.FLAG.equals(type)) {
+					flags++;
+				} else if (Spot.UNEXPLORED.equals(type)) {
+					unexplored.add(rc * cols + cc);
+				}
+			}
+		}
+		return flags;
+	}
+
+	/**
+	 * Chooses an unexplored spot of the map randomly.
+	 * 
+	 * @param view the map to choose on
+	 * @param rnd  the source of the choice
+	 * @return the move picking the chosen spot, null if there are no unexplored
+	 *         spots left (i.e., only wrongly flagged spots keep the game going)
+	 */
+	private static Move randomUnexplored(final MapView view, final ThreadLocalRandom rnd) {
+		final int rows = view.getRows(), cols = view.getCols();
+		int count = 0;
+		for (int rc = 0; rc < rows; rc++) {
+			for (int cc = 0; cc < cols; cc++) {
+				if (Spot.UNEXPLORED.equals(view.getPos(rc, cc).type)) {
+					count++;
+				}
+			}
+		}
+		if (count == 0) {
+			return null;
+		}
+		int remaining = rnd.nextInt(count);
+		for (int rc = 0; rc < rows; rc++) {
+			for (int cc = 0; cc < cols; cc++) {
+				if (Spot.UNEXPLORED.equals(view.getPos(rc, cc).type) && remaining-- == 0) {
+					return Move.pick(rc, cc);
+				}
+			}
+		}
+		return null;
+	}
+}
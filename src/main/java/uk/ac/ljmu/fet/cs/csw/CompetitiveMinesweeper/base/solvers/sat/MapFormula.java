@@ -0,0 +1,179 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Constraint;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.FrontierEnumerator;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat.SatSolver.Result;
+
+/**
+ * The frontier of a map as propositional formulas, one per independent
+ * component of the frontier constraints (see
+ * {@link FrontierEnumerator#components(List)}). Every spot of a component has a
+ * variable that is true if the spot holds a mine, and every constraint adds
+ * that exactly as many of its spots are mines as it tells (with the sequential
+ * counter encoding of {@link SatSolver#addExactly(int[], int)}). The
+ * constraints come from a {@link ConstraintSet}, so they only cover the
+ * unexplored neighbours of the frontier numbers, with the flags already taken
+ * off their counts: the formulas grow with the frontier, not with the map.
+ * 
+ * The formulas are kept from one call to the next while their components do
+ * not change, together with the clauses learned while answering their
+ * questions. A component that was fully checked without finding anything is
+ * not checked again until it changes.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class MapFormula {
+	/**
+	 * The formulas of the components met in the previous call
+	 */
+	private Map<List<Constraint>, ComponentFormula> previous = new HashMap<>();
+
+	/**
+	 * The formula of a single component.
+	 */
+	private static class ComponentFormula {
+		private final SatSolver sat = new SatSolver();
+		// The spots of the component in increasing order, spot i gets variable i + 1
+		private final int[] cells;
+		// Set once every spot was tried without finding a forced one
+		private boolean exhausted = false;
+
+		ComponentFormula(final List<Constraint> component) {
+			final IntList all = new IntList();
+			for (final Constraint c : component) {
+				for (final int cell : c.cells) {
+					all.add(cell);
+				}
+			}
+			final int[] sorted = all.toArray();
+			Arrays.sort(sorted);
+			int distinct = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				if (i == 0 || sorted[i] != sorted[i - 1]) {
+					sorted[distinct++] = sorted[i];
+				}
+			}
+			cells = Arrays.copyOf(sorted, distinct);
+			for (int i = 0; i < cells.length; i++) {
+				sat.newVariable();
+			}
+			for (final Constraint c : component) {
+				final int[] literals = new int[c.cells.length];
+				for (int i = 0; i < literals.length; i++) {
+					literals[i] = Arrays.binarySearch(cells, c.cells[i]) + 1;
+				}
+				sat.addExactly(literals, c.mines);
+			}
+		}
+
+		/**
+		 * A spot can only be forced to the value it has in a model, so a model is
+		 * found first. Then every open spot is tried with the opposite value: if that
+		 * is unsatisfiable, the spot is forced (and the fact is added to the formula),
+		 * otherwise the new model rules out all the spots that differ in it.
+		 * 
+		 * @return false if the deadline passed before all the spots were tried
+		 */
+		boolean findForced(final IntSet safe, final IntSet mines, final long deadline) {
+			final Result first = sat.solve(deadline);
+			if (first != Result.SATISFIABLE) {
+				// Unsatisfiable components (e.g., with wrong flags) have nothing to offer
+				exhausted = first == Result.UNSATISFIABLE;
+				return exhausted;
+			}
+			final int n = cells.length;
+			final boolean[] modelValue = new boolean[n], open = new boolean[n];
+			for (int i = 0; i < n; i++) {
+				modelValue[i] = sat.modelValue(i + 1);
+				open[i] = true;
+			}
+			boolean found = false;
+			for (int i = 0; i < n; i++) {
+				if (!open[i]) {
+					continue;
+				}
+				final int variable = i + 1;
+				final Result result = sat.solve(deadline, modelValue[i] ? -variable : variable);
+				if (result == Result.UNKNOWN) {
+					return false;
+				}
+				if (result == Result.UNSATISFIABLE) {
+					(modelValue[i] ? mines : safe).add(cells[i]);
+					sat.addClause(modelValue[i] ? variable : -variable);
+					found = true;
+					continue;
+				}
+				for (int j = i + 1; j < n; j++) {
+					if (open[j] && sat.modelValue(j + 1) != modelValue[j]) {
+						open[j] = false;
+					}
+				}
+			}
+			exhausted = !found;
+			return true;
+		}
+	}
+
+	/**
+	 * Looks for frontier spots whose value is the same in all the layouts allowed
+	 * by the constraints. The components are checked one after the other until
+	 * the deadline.
+	 * 
+	 * @param constraints the constraints of the frontier (see
+	 *                    {@link ConstraintSet#getConstraints()})
+	 * @param safe        receives the spots that are certainly safe
+	 * @param mines       receives the spots that are certainly mines
+	 * @param deadline    the {@link System#nanoTime()} to give up at (the spots
+	 *                    found until then are still reported)
+	 * @return true if any spots were found
+	 */
+	public boolean findForced(final List<Constraint> constraints, final IntSet safe, final IntSet mines,
+			final long deadline) {
+		final int before = safe.size() + mines.size();
+		final Map<List<Constraint>, ComponentFormula> current = new HashMap<>();
+		boolean inTime = true;
+		for (final List<Constraint> component : FrontierEnumerator.components(constraints)) {
+			ComponentFormula formula = previous.get(component);
+			if (formula == null) {
+				formula = new ComponentFormula(component);
+			}
+			current.put(component, formula);
+			if (inTime && !formula.exhausted) {
+				inTime = formula.findForced(safe, mines, deadline);
+			}
+		}
+		previous = current;
+		return safe.size() + mines.size() != before;
+	}
+}
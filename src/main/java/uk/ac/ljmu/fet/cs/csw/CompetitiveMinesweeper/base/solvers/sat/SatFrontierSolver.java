@@ -0,0 +1,104 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Constraint;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.SafestGuess;
+
+/**
+ * A solver that falls back to a SAT solver when the local rules fail. Each
+ * move it first applies the rules of the {@link ConstraintSet} (single
+ * constraints and overlapping pairs). If these find nothing, the frontier spots
+ * are checked with the formulas of the frontier components (see
+ * {@link MapFormula}) for spots that are safe or mines in every layout. This
+ * does not depend on the number of layouts of the components, so it also works
+ * on dense maps where enumerating the layouts would explode. The SAT questions of a move share a time budget,
+ * once it is used up, the move goes on with what was found until then. If
+ * nothing was found, the solver guesses the spot least likely to be a mine
+ * (see {@link SafestGuess}).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class SatFrontierSolver extends AbstractSolver {
+	/**
+	 * The time the SAT questions of a move can take by default, in nanoseconds
+	 */
+	public static final long defaultMoveBudget = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private final long moveBudget;
+
+	/**
+	 * Creates a solver with the default budget for the SAT questions of a move.
+	 */
+	public SatFrontierSolver() {
+		this(defaultMoveBudget);
+	}
+
+	/**
+	 * @param moveBudget the time the SAT questions of a move can take, in
+	 *                   nanoseconds
+	 */
+	public SatFrontierSolver(final long moveBudget) {
+		this.moveBudget = moveBudget;
+	}
+
+	@Override
+	public void run() {
+		super.run();
+		final MineMap myMap = getMyMap();
+		final ConstraintSet constraints = ConstraintSet.follow(myMap);
+		final MapFormula formula = new MapFormula();
+		final SafestGuess guess = new SafestGuess(myMap);
+		final IntSet safe = new IntSet(myMap.fieldSize), mines = new IntSet(myMap.fieldSize);
+		try {
+			while (!myMap.isEnded()) {
+				safe.clear();
+				mines.clear();
+				if (!constraints.reduce(safe, mines)) {
+					final List<Constraint> frontier = constraints.getConstraints();
+					if (!formula.findForced(frontier, safe, mines, System.nanoTime() + moveBudget)) {
+						final int spot = guess.safestSpot(frontier);
+						myMap.pickASpot(myMap.rowOf(spot), myMap.colOf(spot));
+						continue;
+					}
+				}
+				if (!mines.isEmpty()) {
+					myMap.flagMany(mines.toArray());
+				}
+				if (!safe.isEmpty()) {
+					myMap.pickMany(safe.toArray());
+				}
+			}
+		} finally {
+			constraints.detach();
+		}
+	}
+}
@@ -0,0 +1,632 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
+
+/**
+ * A small conflict driven clause learning (CDCL) SAT solver. It follows the
+ * usual design of such solvers:
+ * <ul>
+ * <li>two watched literals per clause, so only the clauses watching a literal
+ * that has just become false are visited during unit propagation,</li>
+ * <li>first unique implication point learning with non-chronological
+ * backjumping,</li>
+ * <li>variable activities (VSIDS) kept in a heap for the decisions, with saved
+ * phases,</li>
+ * <li>restarts following the Luby sequence, and a periodic removal of the
+ * longer half of the learned clauses.</li>
+ * </ul>
+ * 
+ * The solver is incremental: clauses can be added between the calls to
+ * {@link #solve(long, int...)}, and everything learned so far is kept.
+ * Questions like "can this variable be false?" are asked with assumptions,
+ * which do not change the formula, so the learned clauses stay valid for the
+ * later questions as well. Every call has a deadline; if the deadline passes,
+ * the answer is {@link Result#UNKNOWN}.
+ * 
+ * Variables are numbered from 1, literals are written as in the DIMACS format:
+ * v for the variable being true, -v for it being false. Internally a literal
+ * is coded as 2v (true) or 2v+1 (false).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class SatSolver {
+	/**
+	 * The possible answers of the solver.
+	 */
+	public enum Result {
+		SATISFIABLE, UNSATISFIABLE,
+		/**
+		 * The deadline passed before the solver could decide
+		 */
+		UNKNOWN
+	}
+
+	private static final double activityDecay = 0.95;
+	private static final int restartBase = 100;
+
+	private int variables;
+	// Per variable: 1 true, -1 false, 0 unassigned
+	private byte[] values = new byte[1];
+	private int[] levels = new int[1];
+	// The clause that implied the variable, -1 for decisions and level 0
+	private int[] reasons = new int[1];
+	private double[] activity = new double[1];
+	// The last value of the variable, used for the next decision on it
+	private boolean[] phases = new boolean[1];
+	private boolean[] seen = new boolean[1];
+	private boolean[] model = new boolean[1];
+	private double increment = 1;
+
+	// The clauses by index, null once deleted
+	private final ArrayList<int[]> clauses = new ArrayList<>();
+	private IntList learnts = new IntList();
+	private int maxLearnts = 10000;
+	// Per literal code: the clauses watching the literal
+	private int[][] watches = new int[2][];
+	private int[] watchCounts = new int[2];
+
+	private final IntList trail = new IntList(), trailLimits = new IntList();
+	private int propagated;
+	private boolean consistent = true;
+	private long conflicts;
+
+	// The unassigned variables by activity
+	private int[] heap = new int[1];
+	private int heapSize;
+	private int[] heapIndex = new int[1];
+
+	/**
+	 * Creates a new variable.
+	 * 
+	 * @return the number of the variable
+	 */
+	public int newVariable() {
+		final int v = ++variables;
+		if (v >= values.length) {
+			final int size = 2 * v;
+			values = Arrays.copyOf(values, size);
+			levels = Arrays.copyOf(levels, size);
+			reasons = Arrays.copyOf(reasons, size);
+			activity = Arrays.copyOf(activity, size);
+			phases = Arrays.copyOf(phases, size);
+			seen = Arrays.copyOf(seen, size);
+			model = Arrays.copyOf(model, size);
+			heap = Arrays.copyOf(heap, size);
+			heapIndex = Arrays.copyOf(heapIndex, size);
+			watches = Arrays.copyOf(watches, 2 * size);
+			watchCounts = Arrays.copyOf(watchCounts, 2 * size);
+		}
+		reasons[v] = -1;
+		heapIndex[v] = -1;
+		heapInsert(v);
+		return v;
+	}
+
+	/**
+	 * @return the number of variables created so far
+	 */
+	public int getVariableCount() {
+		return variables;
+	}
+
+	/**
+	 * @return the number of learned clauses currently kept
+	 */
+	public int getLearntCount() {
+		return learnts.size();
+	}
+
+	/**
+	 * @return the number of conflicts met since the creation of the solver
+	 */
+	public long getConflictCount() {
+		return conflicts;
+	}
+
+	private static int code(final int literal) {
+		return literal > 0 ? 2 * literal : -2 * literal + 1;
+	}
+
+	/**
+	 * @return 1 if the coded literal is true, -1 if false, 0 if unassigned
+	 */
+	private int value(final int code) {
+		final int v = values[code >> 1];
+		return (code & 1) == 0 ? v : -v;
+	}
+
+	private int decisionLevel() {
+		return trailLimits.size();
+	}
+
+	/**
+	 * Adds a clause to the formula.
+	 * 
+	 * @param literals the literals of the clause
+	 * @return false if the formula is known to be unsatisfiable from now on
+	 */
+	public boolean addClause(final int... literals) {
+		if (!consistent) {
+			return false;
+		}
+		cancelUntil(0);
+		final int[] codes = new int[literals.length];
+		int size = 0;
+		for (final int literal : literals) {
+			final int c = code(literal);
+			if (value(c) == 1) {
+				// Already satisfied for good
+				return true;
+			}
+			if (value(c) == -1) {
+				continue;
+			}
+			boolean duplicate = false;
+			for (int i = 0; i < size; i++) {
+				if (codes[i] == (c ^ 1)) {
+					// Contains both a literal and its negation
+					return true;
+				}
+				duplicate |= codes[i] == c;
+			}
+			if (!duplicate) {
+				codes[size++] = c;
+			}
+		}
+		if (size == 0) {
+			consistent = false;
+		} else if (size == 1) {
+			enqueue(codes[0], -1);
+			consistent = propagate() < 0;
+		} else {
+			attach(Arrays.copyOf(codes, size));
+		}
+		return consistent;
+	}
+
+	/**
+	 * Adds the constraint that at most k of the literals are true, with the
+	 * sequential counter encoding: auxiliary variables s(i, j) tell that at least
+	 * j of the first i literals are true.
+	 * 
+	 * @param literals the literals to count
+	 * @param k        the most literals allowed to be true
+	 * @return false if the formula is known to be unsatisfiable from now on
+	 */
+	public boolean addAtMost(final int[] literals, final int k) {
+		final int n = literals.length;
+		if (k < 0) {
+			return addClause();
+		}
+		if (k >= n) {
+			return consistent;
+		}
+		if (k == 0) {
+			for (final int literal : literals) {
+				addClause(-literal);
+			}
+			return consistent;
+		}
+		// s[i][j] for the first i + 1 literals and j + 1 true ones
+		final int[][] s = new int[n - 1][k];
+		for (final int[] row : s) {
+			for (int j = 0; j < k; j++) {
+				row[j] = newVariable();
+			}
+		}
+		addClause(-literals[0], s[0][0]);
+		for (int j = 1; j < k; j++) {
+			addClause(-s[0][j]);
+		}
+		for (int i = 1; i < n - 1; i++) {
+			addClause(-literals[i], s[i][0]);
+			addClause(-s[i - 1][0], s[i][0]);
+			for (int j = 1; j < k; j++) {
+				addClause(-literals[i], -s[i - 1][j - 1], s[i][j]);
+				addClause(-s[i - 1][j], s[i][j]);
+			}
+			addClause(-literals[i], -s[i - 1][k - 1]);
+		}
+		return addClause(-literals[n - 1], -s[n - 2][k - 1]);
+	}
+
+	/**
+	 * Adds the constraint that at least k of the literals are true (i.e., at
+	 * most n-k of them are false).
+	 * 
+	 * @param literals the literals to count
+	 * @param k        the fewest literals allowed to be true
+	 * @return false if the formula is known to be unsatisfiable from now on
+	 */
+	public boolean addAtLeast(final int[] literals, final int k) {
+		final int[] negated = new int[literals.length];
+		for (int i = 0; i < negated.length; i++) {
+			negated[i] = -literals[i];
+		}
+		return addAtMost(negated, literals.length - k);
+	}
+
+	/**
+	 * Adds the constraint that exactly k of the literals are true.
+	 * 
+	 * @param literals the literals to count
+	 * @param k        the number of literals that must be true
+	 * @return false if the formula is known to be unsatisfiable from now on
+	 */
+	public boolean addExactly(final int[] literals, final int k) {
+		addAtMost(literals, k);
+		return addAtLeast(literals, k);
+	}
+
+	private int attach(final int[] clause) {
+		final int index = clauses.size();
+		clauses.add(clause);
+		watch(clause[0], index);
+		watch(clause[1], index);
+		return index;
+	}
+
+	private void watch(final int code, final int clause) {
+		if (watches[code] == null) {
+			watches[code] = new int[4];
+		} else if (watchCounts[code] == watches[code].length) {
+			watches[code] = Arrays.copyOf(watches[code], 2 * watchCounts[code]);
+		}
+		watches[code][watchCounts[code]++] = clause;
+	}
+
+	private void enqueue(final int code, final int reason) {
+		final int v = code >> 1;
+		values[v] = (byte) ((code & 1) == 0 ? 1 : -1);
+		levels[v] = decisionLevel();
+		reasons[v] = reason;
+		trail.add(code);
+	}
+
+	/**
+	 * Unit propagation over the watched literals.
+	 * 
+	 * @return the index of a conflicting clause, -1 if there is no conflict
+	 */
+	private int propagate() {
+		while (propagated < trail.size()) {
+			final int falseLiteral = trail.get(propagated++) ^ 1;
+			final int[] list = watches[falseLiteral];
+			final int count = watchCounts[falseLiteral];
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				final int index = list[i];
+				final int[] c = clauses.get(index);
+				if (c == null) {
+					// Deleted clauses leave their watch lists lazily
+					continue;
+				}
+				// The false literal goes to the second place
+				if (c[0] == falseLiteral) {
+					c[0] = c[1];
+					c[1] = falseLiteral;
+				}
+				if (value(c[0]) == 1) {
+					list[kept++] = index;
+					continue;
+				}
+				boolean moved = false;
+				for (int k = 2; k < c.length; k++) {
+					if (value(c[k]) != -1) {
+						c[1] = c[k];
+						c[k] = falseLiteral;
+						watch(c[1], index);
+						moved = true;
+						break;
+					}
+				}
+				if (moved) {
+					continue;
+				}
+				list[kept++] = index;
+				if (value(c[0]) == -1) {
+					for (i++; i < count; i++) {
+						list[kept++] = list[i];
+					}
+					watchCounts[falseLiteral] = kept;
+					propagated = trail.size();
+					return index;
+				}
+				enqueue(c[0], index);
+			}
+			watchCounts[falseLiteral] = kept;
+		}
+		return -1;
+	}
+
+	/**
+	 * First unique implication point conflict analysis.
+	 * 
+	 * @param conflict the index of the conflicting clause
+	 * @return the learned clause, its first literal is the one implied after the
+	 *         backjump, its second one (if any) is from the backjump level
+	 */
+	private int[] analyse(int conflict) {
+		final IntList learnt = new IntList();
+		// Place of the implied literal
+		learnt.add(0);
+		int paths = 0, p = -1, index = trail.size() - 1;
+		do {
+			final int[] c = clauses.get(conflict);
+			for (int j = p < 0 ? 0 : 1; j < c.length; j++) {
+				final int v = c[j] >> 1;
+				if (!seen[v] && levels[v] > 0) {
+					bump(v);
+					seen[v] = true;
+					if (levels[v] >= decisionLevel()) {
+						paths++;
+					} else {
+						learnt.add(c[j]);
+					}
+				}
+			}
+			while (!seen[trail.get(index) >> 1]) {
+				index--;
+			}
+			p = trail.get(index--);
+			conflict = reasons[p >> 1];
+			seen[p >> 1] = false;
+			paths--;
+		} while (paths > 0);
+		learnt.set(0, p ^ 1);
+		final int[] result = learnt.toArray();
+		int max = 1;
+		for (int i = 1; i < result.length; i++) {
+			seen[result[i] >> 1] = false;
+			if (levels[result[i] >> 1] > levels[result[max] >> 1]) {
+				max = i;
+			}
+		}
+		if (result.length > 1) {
+			final int swap = result[1];
+			result[1] = result[max];
+			result[max] = swap;
+		}
+		return result;
+	}
+
+	private void cancelUntil(final int level) {
+		if (decisionLevel() <= level) {
+			return;
+		}
+		final int limit = trailLimits.get(level);
+		while (trail.size() > limit) {
+			final int code = trail.removeLast();
+			final int v = code >> 1;
+			phases[v] = (code & 1) == 0;
+			values[v] = 0;
+			reasons[v] = -1;
+			if (heapIndex[v] < 0) {
+				heapInsert(v);
+			}
+		}
+		while (trailLimits.size() > level) {
+			trailLimits.removeLast();
+		}
+		propagated = trail.size();
+	}
+
+	/**
+	 * Decides the satisfiability of the formula under some assumptions.
+	 * 
+	 * @param deadline    the {@link System#nanoTime()} after which the solver
+	 *                    gives up
+	 * @param assumptions literals taken to be true for this call only
+	 * @return the answer, the model of a satisfiable formula can be queried with
+	 *         {@link #modelValue(int)}
+	 */
+	public Result solve(final long deadline, final int... assumptions) {
+		if (!consistent) {
+			return Result.UNSATISFIABLE;
+		}
+		cancelUntil(0);
+		int restarts = 0;
+		long untilRestart = luby(restarts) * restartBase;
+		while (true) {
+			final int conflict = propagate();
+			if (conflict >= 0) {
+				conflicts++;
+				if (decisionLevel() == 0) {
+					consistent = false;
+					return Result.UNSATISFIABLE;
+				}
+				final int[] learnt = analyse(conflict);
+				cancelUntil(learnt.length == 1 ? 0 : levels[learnt[1] >> 1]);
+				if (learnt.length == 1) {
+					enqueue(learnt[0], -1);
+				} else {
+					learnts.add(attach(learnt));
+					enqueue(learnt[0], clauses.size() - 1);
+				}
+				increment /= activityDecay;
+				if (System.nanoTime() - deadline > 0) {
+					cancelUntil(0);
+					return Result.UNKNOWN;
+				}
+				if (--untilRestart == 0) {
+					cancelUntil(0);
+					untilRestart = luby(++restarts) * restartBase;
+				}
+				continue;
+			}
+			if (decisionLevel() == 0 && learnts.size() > maxLearnts) {
+				reduceLearnts();
+			}
+			int next = -1;
+			while (decisionLevel() < assumptions.length) {
+				final int assumed = code(assumptions[decisionLevel()]);
+				if (value(assumed) == 1) {
+					// Already holds, an empty level keeps the levels and assumptions aligned
+					trailLimits.add(trail.size());
+				} else if (value(assumed) == -1) {
+					cancelUntil(0);
+					return Result.UNSATISFIABLE;
+				} else {
+					next = assumed;
+					break;
+				}
+			}
+			while (next < 0 && heapSize > 0) {
+				final int v = heapRemoveMax();
+				if (values[v] == 0) {
+					next = phases[v] ? 2 * v : 2 * v + 1;
+				}
+			}
+			if (next < 0) {
+				for (int v = 1; v <= variables; v++) {
+					model[v] = values[v] == 1;
+				}
+				cancelUntil(0);
+				return Result.SATISFIABLE;
+			}
+			if (System.nanoTime() - deadline > 0) {
+				// Long runs of decisions without conflicts have to stop in time as well
+				cancelUntil(0);
+				return Result.UNKNOWN;
+			}
+			trailLimits.add(trail.size());
+			enqueue(next, -1);
+		}
+	}
+
+	/**
+	 * @param variable the number of a variable
+	 * @return the value of the variable in the model found by the last
+	 *         satisfiable call of {@link #solve(long, int...)}
+	 */
+	public boolean modelValue(final int variable) {
+		return model[variable];
+	}
+
+	/**
+	 * Removes the longer half of the learned clauses (binary and ternary clauses
+	 * are always kept). Only called on level 0, where no clause is the reason of
+	 * an assignment used by the conflict analysis.
+	 */
+	private void reduceLearnts() {
+		final int[] byLength = learnts.toArray();
+		final Integer[] order = new Integer[byLength.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = byLength[i];
+		}
+		Arrays.sort(order, (a, b) -> clauses.get(b).length - clauses.get(a).length);
+		final IntList kept = new IntList();
+		for (int i = 0; i < order.length; i++) {
+			if (i < order.length / 2 && clauses.get(order[i]).length > 3) {
+				clauses.set(order[i], null);
+			} else {
+				kept.add(order[i]);
+			}
+		}
+		learnts = kept;
+		maxLearnts += maxLearnts / 10;
+	}
+
+	private void bump(final int v) {
+		activity[v] += increment;
+		if (activity[v] > 1e100) {
+			// Rescaling all activities keeps their order (and the heap)
+			for (int i = 1; i <= variables; i++) {
+				activity[i] *= 1e-100;
+			}
+			increment *= 1e-100;
+		}
+		if (heapIndex[v] >= 0) {
+			heapUp(heapIndex[v]);
+		}
+	}
+
+	/**
+	 * The Luby sequence (1, 1, 2, 1, 1, 2, 4, ...).
+	 */
+	private static long luby(int x) {
+		int size = 1, sequence = 0;
+		while (size < x + 1) {
+			sequence++;
+			size = 2 * size + 1;
+		}
+		while (size - 1 != x) {
+			size = (size - 1) >> 1;
+			sequence--;
+			x = x % size;
+		}
+		return 1L << sequence;
+	}
+
+	private void heapInsert(final int v) {
+		heap[heapSize] = v;
+		heapIndex[v] = heapSize;
+		heapUp(heapSize++);
+	}
+
+	private int heapRemoveMax() {
+		final int top = heap[0];
+		heapIndex[top] = -1;
+		if (--heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			heapDown(0);
+		}
+		return top;
+	}
+
+	private void heapUp(int i) {
+		final int v = heap[i];
+		while (i > 0 && activity[heap[(i - 1) >> 1]] < activity[v]) {
+			heap[i] = heap[(i - 1) >> 1];
+			heapIndex[heap[i]] = i;
+			i = (i - 1) >> 1;
+		}
+		heap[i] = v;
+		heapIndex[v] = i;
+	}
+
+	private void heapDown(int i) {
+		final int v = heap[i];
+		while (2 * i + 1 < heapSize) {
+			int child = 2 * i + 1;
+			if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+				child++;
+			}
+			if (activity[heap[child]] <= activity[v]) {
+				break;
+			}
+			heap[i] = heap[child];
+			heapIndex[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = v;
+		heapIndex[v] = i;
+	}
+}
@@ -24,6 +24,7 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -54,9 +55,10 @@ public class Duel {
 			NoSuchMethodException, SecurityException, InterruptedException {
 		// Loads up the two participant's names and runs a single set between the two
 		// solvers
+		final SplittableRandom seeds = new SplittableRandom(RunCompetitionMultiPhase.getMasterSeed());
 		ArrayList<Class<? extends GameSolverThread>> theParticipants = RunCompetitionMultiPhase
-				.parseCompetingClassNames(args, 2);
-		SingleSet setForDuel = new SingleSet(theParticipants.get(0), theParticipants.get(1));
+				.parseCompetingClassNames(args, 2, seeds.nextLong());
+		SingleSet setForDuel = new SingleSet(theParticipants.get(0), theParticipants.get(1), seeds.nextLong());
 		setForDuel.runSet();
 	}
 }
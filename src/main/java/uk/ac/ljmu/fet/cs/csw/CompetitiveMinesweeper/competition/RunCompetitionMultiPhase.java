@@ -24,6 +24,9 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -51,6 +54,26 @@ import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
  *         Moores University, (c) 2019"
  */
 public class RunCompetitionMultiPhase {
+	/**
+	 * The system property that allows a competition to be replayed. If set, its
+	 * (long) value is used as the master seed of the competition. Otherwise a
+	 * random master seed is chosen.
+	 */
+	public static final String seedProperty = "uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition.seed";
+
+	/**
+	 * Determines the master seed of a competition run (see {@link #seedProperty})
+	 * and reports it on the standard output so the run can be replayed later.
+	 * 
+	 * @return the master seed to derive all random decisions of the competition
+	 *         from
+	 */
+	public static long getMasterSeed() {
+		final String seedText = System.getProperty(seedProperty);
+		final long seed = seedText == null ? ThreadLocalRandom.current().nextLong() : Long.parseLong(seedText);
+		System.out.println("Competition seed: " + seed + " (replay with -D" + seedProperty + "=" + seed + ")");
+		return seed;
+	}
 
 	/**
 	 * Validates the argument list, loads them as class objects, and randomizes
@@ -60,8 +83,22 @@ public class RunCompetitionMultiPhase {
 	 * @return the class objects representing all solvers to take part in the
 	 *         competition
 	 */
-	@SuppressWarnings("unchecked")
 	public static ArrayList<Class<? extends GameSolverThread>> parseCompetingClassNames(String[] args, int minSolvers) {
+		return parseCompetingClassNames(args, minSolvers, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Validates the argument list, loads them as class objects, and randomizes
+	 * their order for fairness with a generator seeded with the given value
+	 * 
+	 * @param args the unparsed command line argument list
+	 * @param seed the seed for the randomisation of the order
+	 * @return the class objects representing all solvers to take part in the
+	 *         competition
+	 */
+	@SuppressWarnings("unchecked")
+	public static ArrayList<Class<? extends GameSolverThread>> parseCompetingClassNames(String[] args, int minSolvers,
+			long seed) {
 		if (args.length < minSolvers) {
 			System.err.println("There are not enough solvers listed in the cli argument list.");
 			System.err.println("You should specify at least " + minSolvers + ".");
@@ -78,16 +115,17 @@ public class RunCompetitionMultiPhase {
 				System.exit(1);
 			}
 		}
-		Collections.shuffle(preList);
+		Collections.shuffle(preList, new Random(seed));
 		return preList;
 	}
 
 	public static void main(String[] args) throws Exception {
 		// Preparing the teams
-		ArrayList<Class<? extends GameSolverThread>> preList = parseCompetingClassNames(args, 8);
+		final SplittableRandom seeds = new SplittableRandom(getMasterSeed());
+		ArrayList<Class<? extends GameSolverThread>> preList = parseCompetingClassNames(args, 8, seeds.nextLong());
 		TeamCompetition[] competitions = new TeamCompetition[(args.length + 3) / 4];
 		for (int i = 0; i < competitions.length; i++) {
-			competitions[i] = new TeamCompetition(true);
+			competitions[i] = new TeamCompetition(true, seeds.nextLong());
 		}
 		for (int i = 0; i < preList.size(); i++) {
 			// Round robin assignment to teams
@@ -122,7 +160,7 @@ public class RunCompetitionMultiPhase {
 
 		// Knockout phase
 		System.out.println("Sinlge elimination tournament starts.......");
-		topSolvers = SingleEliminationTournament.runCompetition(topSolvers);
+		topSolvers = SingleEliminationTournament.runCompetition(topSolvers, seeds.nextLong());
 
 		// Results
 		System.out.println("Sinlge elimination tournament completed final league table:");
@@ -23,6 +23,7 @@
 package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -47,9 +48,10 @@ import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
  */
 public class RunCompetitionSingleTeam {
 	public static void main(String[] args) throws Exception {
-		TeamCompetition competition = new TeamCompetition(false);
+		final SplittableRandom seeds = new SplittableRandom(RunCompetitionMultiPhase.getMasterSeed());
+		TeamCompetition competition = new TeamCompetition(false, seeds.nextLong());
 		ArrayList<Class<? extends GameSolverThread>> preList = RunCompetitionMultiPhase.parseCompetingClassNames(args,
-				3);
+				3, seeds.nextLong());
 		// All competitors into a single team competition
 		for (Class<? extends GameSolverThread> cp : preList) {
 			competition.addToCompetitors(cp);
@@ -25,6 +25,8 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -53,11 +55,28 @@ public class SingleEliminationTournament {
 	 */
 	public static ArrayList<Class<? extends GameSolverThread>> runCompetition(
 			ArrayList<Class<? extends GameSolverThread>> currentCompetitors) throws Exception {
+		return runCompetition(currentCompetitors, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Runs the tournament just like {@link #runCompetition(ArrayList)}, but derives
+	 * all random decisions (pairings, set seeds and the tie breaks) from the seed
+	 * passed. Thus a tournament can be replayed exactly.
+	 * 
+	 * @param currentCompetitors the list of competitors to be ordered
+	 * @param seed               the seed to derive the random decisions from
+	 * @return the ordered list of competitors by strength (the first item in the
+	 *         list is the strongest, the last is the weakest)
+	 * @throws Exception
+	 */
+	public static ArrayList<Class<? extends GameSolverThread>> runCompetition(
+			ArrayList<Class<? extends GameSolverThread>> currentCompetitors, long seed) throws Exception {
 		if (currentCompetitors.size() % 2 != 0) {
 			throw new RuntimeException("Cannot process non-even membered tournaments");
 		}
-		Collections.shuffle(currentCompetitors);
-		Random rndGen = new Random();
+		SplittableRandom seeds = new SplittableRandom(seed);
+		Random rndGen = new Random(seeds.nextLong());
+		Collections.shuffle(currentCompetitors, rndGen);
 		ArrayList<Class<? extends GameSolverThread>> winners = new ArrayList<Class<? extends GameSolverThread>>();
 		ArrayList<Class<? extends GameSolverThread>> losers = new ArrayList<Class<? extends GameSolverThread>>();
 		for (int i = 0; i < currentCompetitors.size() - 1; i += 2) {
@@ -65,7 +84,7 @@ public class SingleEliminationTournament {
 			SingleSet ss;
 			// Repeat each match until someone is a clear winner
 			do {
-				ss = new SingleSet(currentCompetitors.get(i), currentCompetitors.get(i + 1));
+				ss = new SingleSet(currentCompetitors.get(i), currentCompetitors.get(i + 1), seeds.nextLong());
 				ss.runSet();
 			} while (ss.getPointsForTeamOne() == 1 && miniRounds++ < 10);
 			// If after 10 sets we still don't have a clear winner we randomly
@@ -76,8 +95,8 @@ public class SingleEliminationTournament {
 			losers.add(ss.solverOne == winners.get(winners.size() - 1) ? ss.solverTwo : ss.solverOne);
 		}
 		if (winners.size() > 1) {
-			winners = runCompetition(winners);
-			winners.addAll(runCompetition(losers));
+			winners = runCompetition(winners, seeds.nextLong());
+			winners.addAll(runCompetition(losers, seeds.nextLong()));
 		} else {
 			winners.add(losers.get(0));
 		}
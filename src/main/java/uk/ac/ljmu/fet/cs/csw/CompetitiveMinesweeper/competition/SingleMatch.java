@@ -29,11 +29,20 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap.MapCopyException;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SolverRunners;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.gui.MineSweeper;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.SolverRunner;
 
 /**
  * Allows the arrangement of a single match between two solvers. To minimise the
@@ -48,6 +57,16 @@ public class SingleMatch implements Scorer {
 	public final static boolean quiet = System
 			.getProperty("uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition.SingleMatch.quietmode") != null;
 
+	/**
+	 * If set, the tie-breaker between two winners is their CPU time instead of
+	 * the wall clock time of their games (see
+	 * {@link #getCurrentScore(MineMap, long, MineMap, long)}). This is fairer on
+	 * loaded machines, where the solvers compete for the cores with other
+	 * matches as well.
+	 */
+	public final static boolean cpuTieBreak = System
+			.getProperty("uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition.SingleMatch.cputiebreak") != null;
+
 	public final static PrintStream realStdOut = System.out;
 	public final static PrintStream realStdErr = System.err;
 	/**
@@ -71,6 +90,11 @@ public class SingleMatch implements Scorer {
 	 */
 	public static final int maxCols = 100;
 
+	/**
+	 * Starts the solvers of all matches, see {@link #runMatch()}.
+	 */
+	private static final SolverRunner solverRunner = SolverRunners.platformThreads();
+
 	/**
 	 * The two solvers which take part in the match.
 	 */
@@ -81,9 +105,11 @@ public class SingleMatch implements Scorer {
 	 */
 	private boolean matchRan = false;
 	/**
-	 * Ensures a fresh random generator across all matches.
+	 * The seed from which all random decisions of this match are derived (the map
+	 * generation and the starting order of the solvers). Matches with the same
+	 * seed and solvers are played on the very same map.
 	 */
-	private static final Random rng = new Random();
+	public final long seed;
 
 	/**
 	 * The cumulative score of the match. These are the fields where
@@ -91,16 +117,35 @@ public class SingleMatch implements Scorer {
 	 * Once the match is done this never changes again.
 	 */
 	private int totalScoreOne = 0, totalScoreTwo = 0;
+	/**
+	 * The resources used by the solvers in all the rounds of the match so far.
+	 */
+	private SolverUsage totalUsageOne = SolverUsage.none, totalUsageTwo = SolverUsage.none;
 
 	/**
 	 * Keeps hold of the two solvers that needs to compete in the current match.
+	 * The match will be played with a randomly chosen seed.
 	 * 
 	 * @param solverOne The first solver to participate in the match.
 	 * @param solverTwo The second solver to participate in the match.
 	 */
 	public SingleMatch(Class<? extends GameSolverThread> solverOne, Class<? extends GameSolverThread> solverTwo) {
+		this(solverOne, solverTwo, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Keeps hold of the two solvers that needs to compete in the current match.
+	 * 
+	 * @param solverOne The first solver to participate in the match.
+	 * @param solverTwo The second solver to participate in the match.
+	 * @param seed      The seed of the match, allows replaying the match on the
+	 *                  same map.
+	 */
+	public SingleMatch(Class<? extends GameSolverThread> solverOne, Class<? extends GameSolverThread> solverTwo,
+			long seed) {
 		this.solverOne = solverOne;
 		this.solverTwo = solverTwo;
+		this.seed = seed;
 	}
 
 	/**
@@ -114,6 +159,9 @@ public class SingleMatch implements Scorer {
 	 * The final score of the match is determined based on the total points awarded
 	 * by {@link #getCurrentScore(MineMap, long, MineMap, long)} after each chance.
 	 * 
+	 * The solvers run on platform threads, as the JVM only measures the CPU time
+	 * and allocations of those (see {@link SolverUsage}).
+	 * 
 	 * @throws InstantiationException    if there is an issue of instantiation with
 	 *                                   one of the solvers
 	 * @throws IllegalAccessException    if there is an issue of instantiation with
@@ -126,7 +174,7 @@ public class SingleMatch implements Scorer {
 	 *                                   one of the solvers
 	 * @throws SecurityException         if there is an issue of instantiation with
 	 *                                   one of the solvers
-	 * @throws InterruptedException      if the sleep of the runMatch method was
+	 * @throws InterruptedException      if the waiting of the runMatch method was
 	 *                                   interrupted externally. If an interruption
 	 *                                   occurs, the match never reaches its
 	 *                                   completion
@@ -139,10 +187,13 @@ public class SingleMatch implements Scorer {
 			if (matchRan) {
 				throw new RuntimeException("Attemted to run a match two times");
 			} else {
+				final SplittableRandom rng = new SplittableRandom(seed);
 				MineMap singleMatchMap = new MineMap(rng.nextInt(maxRows - minRows) + minRows,
 						rng.nextInt(maxCols - minCols) + minCols,
 						// Ignores the easiest mine ratio, but allows any others
-						MineSweeper.mineRatios[rng.nextInt(MineSweeper.mineRatios.length - 1) + 1], 0);
+						MineSweeper.mineRatios[rng.nextInt(MineSweeper.mineRatios.length - 1) + 1], 0,
+						rng.nextLong());
+				final Random orderRng = new Random(rng.nextLong());
 
 				// We need to ask to solve the same map a few times to make sure there is little
 				// effect of initial random probing on the map
@@ -150,7 +201,8 @@ public class SingleMatch implements Scorer {
 					MineMap solverOneMap = new MineMap(singleMatchMap);
 					MineMap solverTwoMap = new MineMap(singleMatchMap);
 					ArrayList<GameSolverThread> theTwoSolvers = new ArrayList<>();
-					ArrayList<Thread> runnerThreads = new ArrayList<>();
+					ArrayList<Future<?>> runningSolvers = new ArrayList<>();
+					SolverUsage.Meter meterOne = null, meterTwo = null;
 					introduceRedirections();
 					GameSolverThread firstSolverInstance = solverOne.getConstructor().newInstance();
 					firstSolverInstance.sendMap(solverOneMap);
@@ -163,50 +215,56 @@ public class SingleMatch implements Scorer {
 						throw new RuntimeException("GUI based solvers cannot compete with SingleMatch");
 					}
 					// Randomizing the order with which the solvers are instantiated
-					Collections.shuffle(theTwoSolvers);
-					long startTime = System.currentTimeMillis();
-					// We should finish off both threads in the next minute
-					long maxAllowedTime = startTime + 60000;
+					Collections.shuffle(theTwoSolvers, orderRng);
+					long startTime = System.nanoTime();
 					for (GameSolverThread currSolver : theTwoSolvers) {
-						Thread runner = new Thread(currSolver);
-						runnerThreads.add(runner);
-						runner.start();
-					}
-					long oneCompleteAt = -1, twoCompleteAt = -1;
-					// We now have our two competing threads running, we can test for their
-					// completion
-					while (maxAllowedTime > System.currentTimeMillis() && (oneCompleteAt < 0 || twoCompleteAt < 0)) {
-						// Time is saved here so we can be sure one does not have an edge over two
-						// because it is tested for completion later
-						long currentTime = System.currentTimeMillis();
-						if (oneCompleteAt == -1 && solverOneMap.isEnded()) {
-							oneCompleteAt = currentTime;
+						final SolverUsage.Meter meter = new SolverUsage.Meter(currSolver);
+						if (currSolver == firstSolverInstance) {
+							meterOne = meter;
+						} else {
+							meterTwo = meter;
 						}
-						if (twoCompleteAt == -1 && solverTwoMap.isEnded()) {
-							twoCompleteAt = currentTime;
-						}
-						Thread.sleep(1);
+						runningSolvers.add(solverRunner.start(meter));
+					}
+					// We now have our two competing solvers running, we should finish off both
+					// games in the next minute
+					try {
+						CompletableFuture.allOf(solverOneMap.getGameEnd(), solverTwoMap.getGameEnd()).get(60,
+								TimeUnit.SECONDS);
+					} catch (TimeoutException | ExecutionException e) {
+						// One of the games did not end in time, its solver is caught below
 					}
+					// The maps record their end times themselves, so one does not have an edge
+					// over two because it is tested for completion later
+					long oneCompleteAt = solverOneMap.isEnded() ? solverOneMap.getEndedAt() : -1;
+					long twoCompleteAt = solverTwoMap.isEnded() ? solverTwoMap.getEndedAt() : -1;
 					revertRedirects();
-					// We wait a bit to allow both solvers to clean up and exit their solver
-					// threads.
-					Thread.sleep(10);
+					// We wait a bit (at most 10ms) to allow both solvers to clean up and exit
+					// their solver threads.
+					final long exitDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
 					for (int j = 0; j < 2; j++) {
-						if (runnerThreads.get(j).isAlive()) {
+						try {
+							runningSolvers.get(j).get(exitDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+						} catch (TimeoutException e) {
 							System.err.println(theTwoSolvers.get(j).getClass().getName()
 									+ " did not terminate at the end of the game. It should be excluded from competitions.");
 							System.exit(1);
+						} catch (ExecutionException e) {
+							// The solver failed, but it did terminate
 						}
 					}
-					final long oneDur = oneCompleteAt - startTime;
-					final long twoDur = twoCompleteAt - startTime;
-					totalScoreOne += getCurrentScore(solverOneMap, oneDur, solverTwoMap, twoDur);
-					totalScoreTwo += getCurrentScore(solverTwoMap, twoDur, solverOneMap, oneDur);
+					final SolverUsage usageOne = meterOne.getUsage(), usageTwo = meterTwo.getUsage();
+					totalUsageOne = totalUsageOne.plus(usageOne);
+					totalUsageTwo = totalUsageTwo.plus(usageTwo);
+					final int[] scores = scoreRound(cpuTieBreak, solverOneMap, usageOne, oneCompleteAt - startTime,
+							solverTwoMap, usageTwo, twoCompleteAt - startTime);
+					totalScoreOne += scores[0];
+					totalScoreTwo += scores[1];
 
 					// If interested in the performance of your solver you can check it out by
 					// uncommenting the below line:
-					// System.out.println("Duration of match was: " + (System.currentTimeMillis() -
-					// startTime) + "ms");
+					// System.out.println("Duration of match was: " + (System.nanoTime() - startTime)
+					// / 1000000 + "ms");
 				}
 				matchRan = true;
 			}
@@ -223,6 +281,30 @@ public class SingleMatch implements Scorer {
 		}
 	}
 
+	/**
+	 * Scores a single round of the match for both teams. The tie-breaker between
+	 * two winners is their CPU time if requested and both times are available,
+	 * otherwise it is the wall clock time of their games.
+	 * 
+	 * @param byCpu    should the CPU time decide between two winners (see
+	 *                 {@link #cpuTieBreak})
+	 * @param mapOne   The final map of the first team
+	 * @param usageOne The resources the first team used in the round
+	 * @param wallOne  The wall clock time the first team's game took (in ns)
+	 * @param mapTwo   The final map of the second team
+	 * @param usageTwo The resources the second team used in the round
+	 * @param wallTwo  The wall clock time the second team's game took (in ns)
+	 * @return the scores of the first and the second team in this order
+	 */
+	static int[] scoreRound(final boolean byCpu, final MineMap mapOne, final SolverUsage usageOne,
+			final long wallOne, final MineMap mapTwo, final SolverUsage usageTwo, final long wallTwo) {
+		final boolean cpuTimed = byCpu && usageOne.hasCpuTime() && usageTwo.hasCpuTime();
+		final long oneDur = cpuTimed ? usageOne.cpuTime : wallOne;
+		final long twoDur = cpuTimed ? usageTwo.cpuTime : wallTwo;
+		return new int[] { getCurrentScore(mapOne, oneDur, mapTwo, twoDur),
+				getCurrentScore(mapTwo, twoDur, mapOne, oneDur) };
+	}
+
 	/**
 	 * Calculates the score of the team which was listed first in its parameters.
 	 * The calculation is following the below scheme:
@@ -244,16 +326,18 @@ public class SingleMatch implements Scorer {
 	 * </ol>
 	 * 
 	 * @param teamOne The final map of the first team
-	 * @param durOne  The time it took team one to solve the map
+	 * @param durOne  The time it took team one to solve the map (in ns, wall
+	 *                clock or CPU time, see {@link #cpuTieBreak})
 	 * @param teamTwo The final map of the second team
-	 * @param durTwo  The time it took for the second team to solve the map
+	 * @param durTwo  The time it took for the second team to solve the map (in
+	 *                ns, measured the same way as durOne)
 	 * @return The score of the team which was listed first in the parameters
 	 */
-	private static int getCurrentScore(final MineMap teamOne, final long durOne, final MineMap teamTwo,
+	static int getCurrentScore(final MineMap teamOne, final long durOne, final MineMap teamTwo,
 			final long durTwo) {
 		if (teamOne.isWon()) {
 			if (teamTwo.isWon()) {
-				return durOne > durTwo ? 90 : 80;
+				return durOne < durTwo ? 90 : 80;
 			} else {
 				return 100;
 			}
@@ -301,6 +385,26 @@ public class SingleMatch implements Scorer {
 		return matchRan ? totalScoreTwo : -1;
 	}
 
+	/**
+	 * Tells the resources the first team's solver used in all rounds of the
+	 * match.
+	 * 
+	 * @return the usage, or null if the match has not been run just yet
+	 */
+	public SolverUsage getUsageOfTeamOne() {
+		return matchRan ? totalUsageOne : null;
+	}
+
+	/**
+	 * Tells the resources the second team's solver used in all rounds of the
+	 * match.
+	 * 
+	 * @return the usage, or null if the match has not been run just yet
+	 */
+	public SolverUsage getUsageOfTeamTwo() {
+		return matchRan ? totalUsageTwo : null;
+	}
+
 	/**
 	 * Allows to query whether the match has already been done or not.
 	 * 
@@ -317,8 +421,9 @@ public class SingleMatch implements Scorer {
 	 */
 	@Override
 	public String toString() {
-		return "Match between " + solverOne.getName() + " and " + solverTwo.getName() + " score: "
-				+ (matchRan ? ("" + getPointsForTeamOne() + "/" + getPointsForTeamTwo()) : "-");
+		return "Match between " + solverOne.getName() + " and " + solverTwo.getName() + " (seed: " + seed
+				+ ") score: " + (matchRan ? ("" + getPointsForTeamOne() + "/" + getPointsForTeamTwo()) : "-")
+				+ (matchRan ? " usage: " + totalUsageOne + " / " + totalUsageTwo : "");
 	}
 
 	public void introduceRedirections() {
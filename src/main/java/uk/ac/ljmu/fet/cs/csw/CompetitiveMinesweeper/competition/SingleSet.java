@@ -25,6 +25,9 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -55,22 +58,38 @@ public class SingleSet implements Scorer {
 	 * Prepares the set so it is ready to run with the {@link #runSet()} method. It
 	 * generates ten matches to be played. Each match is has a randomly generated
 	 * participant order to ensure there is no chance for preferential handling of
-	 * any participant.
+	 * any participant. The set is arranged with a randomly chosen seed.
 	 * 
 	 * @param solverOne The first solver to take part in the set.
 	 * @param solverTwo The second solver to take part in the set.
 	 */
 	public SingleSet(Class<? extends GameSolverThread> solverOne, Class<? extends GameSolverThread> solverTwo) {
+		this(solverOne, solverTwo, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Prepares the set just like {@link #SingleSet(Class, Class)}, but all random
+	 * decisions (the participant order and the seeds of the matches) are derived
+	 * from the seed passed. Thus a set can be replayed exactly.
+	 * 
+	 * @param solverOne The first solver to take part in the set.
+	 * @param solverTwo The second solver to take part in the set.
+	 * @param seed      The seed to derive the matches from.
+	 */
+	public SingleSet(Class<? extends GameSolverThread> solverOne, Class<? extends GameSolverThread> solverTwo,
+			long seed) {
 		this.solverOne = solverOne;
 		this.solverTwo = solverTwo;
+		final SplittableRandom seeds = new SplittableRandom(seed);
+		final Random orderRng = new Random(seeds.nextLong());
 		ArrayList<Class<? extends GameSolverThread>> solvers = new ArrayList<Class<? extends GameSolverThread>>();
 		solvers.add(solverOne);
 		solvers.add(solverTwo);
 		for (int i = 0; i < matches.length; i++) {
 			// Randomise the match participant order so our outcome depends less
 			// on the order we received the solvers
-			Collections.shuffle(solvers);
-			matches[i] = new SingleMatch(solvers.get(0), solvers.get(1));
+			Collections.shuffle(solvers, orderRng);
+			matches[i] = new SingleMatch(solvers.get(0), solvers.get(1), seeds.nextLong());
 		}
 	}
 
@@ -0,0 +1,151 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The resources a solver used while playing its games: the CPU time and user
+ * time of its thread and the memory it allocated. Unlike the wall clock time of
+ * a game, these do not depend on how many other threads shared the cores with
+ * the solver.
+ * 
+ * The JVM only accounts these for platform threads, solvers measured on
+ * virtual threads report {@link #unavailable} values.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public final class SolverUsage {
+	/**
+	 * The value of the measurements that could not be done
+	 */
+	public static final long unavailable = -1;
+	/**
+	 * The usage of a solver that has not run yet
+	 */
+	public static final SolverUsage none = new SolverUsage(0, 0, 0);
+
+	private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	/**
+	 * The CPU time (user and system) and the user time of the solver's thread in
+	 * nanoseconds
+	 */
+	public final long cpuTime, userTime;
+	/**
+	 * The bytes allocated by the solver's thread
+	 */
+	public final long allocatedBytes;
+
+	/**
+	 * Records the usage of a solver.
+	 * 
+	 * @param cpuTime        CPU time in ns, or {@link #unavailable}
+	 * @param userTime       user time in ns, or {@link #unavailable}
+	 * @param allocatedBytes allocated memory in bytes, or {@link #unavailable}
+	 */
+	public SolverUsage(final long cpuTime, final long userTime, final long allocatedBytes) {
+		this.cpuTime = cpuTime;
+		this.userTime = userTime;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * Sums the usage of two runs (e.g., the rounds of a match). If a value is
+	 * unavailable in either of the runs, it is unavailable in the sum as well.
+	 * 
+	 * @param other the usage to add to this one
+	 * @return the total usage
+	 */
+	public SolverUsage plus(final SolverUsage other) {
+		return new SolverUsage(sum(cpuTime, other.cpuTime), sum(userTime, other.userTime),
+				sum(allocatedBytes, other.allocatedBytes));
+	}
+
+	private static long sum(final long a, final long b) {
+		return a == unavailable || b == unavailable ? unavailable : a + b;
+	}
+
+	/**
+	 * @return true if the CPU time of the solver was measured
+	 */
+	public boolean hasCpuTime() {
+		return cpuTime != unavailable;
+	}
+
+	@Override
+	public String toString() {
+		return "cpu: " + (hasCpuTime() ? cpuTime / 1000000 + "ms" : "n/a") + " user: "
+				+ (userTime == unavailable ? "n/a" : userTime / 1000000 + "ms") + " allocated: "
+				+ (allocatedBytes == unavailable ? "n/a" : allocatedBytes / 1024 + "kB");
+	}
+
+	/**
+	 * Runs a solver and measures the resources its thread used meanwhile.
+	 * 
+	 * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+	 *         Moores University, (c) 2019"
+	 */
+	public static class Meter implements Runnable {
+		private final Runnable solver;
+		private volatile SolverUsage usage = null;
+
+		/**
+		 * @param solver the solver to run and measure, it should have received its
+		 *               map already
+		 */
+		public Meter(final Runnable solver) {
+			this.solver = solver;
+		}
+
+		/**
+		 * Runs the solver. The usage is recorded even if the solver fails.
+		 */
+		@Override
+		public void run() {
+			final long cpuBefore = threads.getCurrentThreadCpuTime();
+			final long userBefore = threads.getCurrentThreadUserTime();
+			final long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+			try {
+				solver.run();
+			} finally {
+				usage = new SolverUsage(difference(cpuBefore, threads.getCurrentThreadCpuTime()),
+						difference(userBefore, threads.getCurrentThreadUserTime()),
+						difference(bytesBefore, threads.getCurrentThreadAllocatedBytes()));
+			}
+		}
+
+		private static long difference(final long before, final long after) {
+			return before == unavailable || after == unavailable ? unavailable : after - before;
+		}
+
+		/**
+		 * @return the resources used by the solver, or null if it is still running
+		 */
+		public SolverUsage getUsage() {
+			return usage;
+		}
+	}
+}
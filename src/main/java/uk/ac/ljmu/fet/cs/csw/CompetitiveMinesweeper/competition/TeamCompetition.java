@@ -26,6 +26,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
@@ -66,15 +69,33 @@ public class TeamCompetition {
 	 * The results that were collected based on the sets.
 	 */
 	private final HashMap<Class<? extends GameSolverThread>, Integer> resultsTable = new HashMap<Class<? extends GameSolverThread>, Integer>();
+	/**
+	 * The generator of all random decisions in the competition (the order of the
+	 * competitors and the seeds of the sets).
+	 */
+	private final SplittableRandom seeds;
 
 	/**
-	 * Prepares the competition
+	 * Prepares the competition with a randomly chosen seed.
 	 * 
 	 * @param applyCompetitorLimit true if there should be no more than 4
 	 *                             competitors in a team competition
 	 */
 	public TeamCompetition(boolean applyCompetitorLimit) {
+		this(applyCompetitorLimit, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Prepares the competition so all its sets are derived from the given seed.
+	 * 
+	 * @param applyCompetitorLimit true if there should be no more than 4
+	 *                             competitors in a team competition
+	 * @param seed                 the seed to derive the sets from, allows
+	 *                             replaying the competition
+	 */
+	public TeamCompetition(boolean applyCompetitorLimit, long seed) {
 		this.applyCompetitorLimit = applyCompetitorLimit;
+		seeds = new SplittableRandom(seed);
 	}
 
 	/**
@@ -112,10 +133,10 @@ public class TeamCompetition {
 		if (competitors.size() < 3) {
 			throw new RuntimeException("No group is allowed to have less than 3 members!");
 		}
-		Collections.shuffle(competitors);
+		Collections.shuffle(competitors, new Random(seeds.nextLong()));
 		for (int i = 0; i < competitors.size() - 1; i++) {
 			for (int j = i + 1; j < competitors.size(); j++) {
-				sets.add(new SingleSet(competitors.get(i), competitors.get(j)));
+				sets.add(new SingleSet(competitors.get(i), competitors.get(j), seeds.nextLong()));
 			}
 		}
 	}
@@ -72,8 +72,8 @@ public class AIConfigPanel extends JPanel implements ActionListener {
 	 */
 	final JTextField cl2 = new JTextField(100);
 	/**
-	 * The slider that allows to set the speed of the AIs. The value of this gets
-	 * propagated to
+	 * The slider that allows to set the speed the moves of the AIs are replayed
+	 * at. The value of this gets propagated to
 	 * {@link uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap#uidelay
 	 * uidelay} in MineMap.
 	 */
@@ -28,6 +28,7 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SolverRunners;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
 /**
@@ -78,35 +79,31 @@ public class FullScreenSolveShow {
 		for (int i = 0; i < Integer.parseInt(args[4]); i++) {
 			for (int j = 0; j < Integer.parseInt(args[5]); j++) {
 				final int myI = i, myJ = j;
-				new Thread() {
-					@Override
-					public void run() {
-						try {
-							while (true) {
-								MineMap theActualMapThatIsSolved = GUIHelper.launchCompetitor(toBeTiledSolver,
-										GUIHelper.simpleLauncher,
-										new MineMap(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]),
-												Double.parseDouble(args[2]), Integer.parseInt(args[3])),
-										myI, myJ, false);
-								while (!theActualMapThatIsSolved.isEnded()) {
-									sleep(100);
-								}
-								// Serialise the updates on won/lost
-								synchronized (statsWindow) {
-									if (theActualMapThatIsSolved.isWon()) {
-										won++;
-									} else {
-										lost++;
-									}
-									statsLabel.setText("WON: " + won + " LOST: " + lost);
+				// The tiles only wait for their games, they don't need platform threads
+				SolverRunners.defaultRunner.start(() -> {
+					try {
+						while (true) {
+							MineMap theActualMapThatIsSolved = GUIHelper.launchCompetitor(toBeTiledSolver,
+									GUIHelper.simpleLauncher,
+									new MineMap(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]),
+											Double.parseDouble(args[2]), Integer.parseInt(args[3])),
+									myI, myJ, false);
+							theActualMapThatIsSolved.getGameEnd().join();
+							// Serialise the updates on won/lost
+							synchronized (statsWindow) {
+								if (theActualMapThatIsSolved.isWon()) {
+									won++;
+								} else {
+									lost++;
 								}
+								statsLabel.setText("WON: " + won + " LOST: " + lost);
 							}
-						} catch (Exception e) {
-							System.err.println("The gui could not start...");
-							System.exit(1);
 						}
+					} catch (Exception e) {
+						System.err.println("The gui could not start...");
+						System.exit(1);
 					}
-				}.start();
+				});
 			}
 		}
 	}
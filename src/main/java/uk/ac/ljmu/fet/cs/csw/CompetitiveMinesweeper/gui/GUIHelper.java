@@ -29,6 +29,7 @@ import java.lang.reflect.InvocationTargetException;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap.MapCopyException;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.HumanSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SolverRunners;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.GameSolverThread;
 
 /**
@@ -118,7 +119,7 @@ public class GUIHelper {
 		Dimension size = gui.getSize();
 		gui.setLocation(oldLoc.x + size.width * pushright, oldLoc.y + size.height * pushdown);
 		gst.sendGUI(gui);
-		new Thread(gst).start();
+		SolverRunners.defaultRunner.start(gst);
 		return myMap;
 	}
 }
@@ -28,8 +28,10 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -39,6 +41,8 @@ import javax.swing.JPanel;
 
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapChangeListener;
 
 /**
  * Offers the a UI for a particular mine sweeping game (the game is actually
@@ -51,7 +55,7 @@ import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
  * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
  *         Moores University, (c) 2019"
  */
-public class SimpleGamePanel extends JFrame implements Runnable {
+public class SimpleGamePanel extends JFrame implements Runnable, MapChangeListener {
 	private static final long serialVersionUID = -7488536857391039958L;
 	/**
 	 * Colour of unknown territory
@@ -104,6 +108,50 @@ public class SimpleGamePanel extends JFrame implements Runnable {
 	// the same coordinate again.
 	private int flashedRow = -1, flashedCol = -1;
 
+	/**
+	 * A move of the AI recorded for playback.
+	 */
+	private static class RecordedMove {
+		// The changes done by the move, encoded as (packed index << 4 | code), where
+		// the codes are 0-8 for revealed spots (with their near mine count) and the
+		// constants below for the rest.
+		final int[] changes;
+		// The spot to flash when the move is shown
+		final int lastRow, lastCol;
+
+		RecordedMove(final int[] changes, final int lastRow, final int lastCol) {
+			this.changes = changes;
+			this.lastRow = lastRow;
+			this.lastCol = lastCol;
+		}
+	}
+
+	// The playback buffer: the moves of the map not yet shown on the play area.
+	// The moves are recorded from the events of the map (on the solver's thread)
+	// and replayed by the refresh thread at the pace set in the map's uidelay. The
+	// AI never waits for the UI.
+	private final ConcurrentLinkedQueue<RecordedMove> pendingMoves = new ConcurrentLinkedQueue<>();
+	// The changes of the move currently being recorded, only used on the solver's
+	// thread
+	private int[] recordedChanges = new int[16];
+	private int recordedCount = 0;
+	private static final int flagCode = 9, unflagCode = 10, explodedCode = 11;
+	// The spot details to show for the change codes
+	private static final ExploredSpot[] codedSpots = new ExploredSpot[12];
+
+	static {
+		for (int i = 0; i < flagCode; i++) {
+			codedSpots[i] = new ExploredSpot(Spot.SAFE, i);
+		}
+		codedSpots[flagCode] = new ExploredSpot(Spot.FLAG, -1);
+		codedSpots[unflagCode] = new ExploredSpot(Spot.UNEXPLORED, -1);
+		codedSpots[explodedCode] = new ExploredSpot(Spot.EXPLODED, -1);
+	}
+
+	// Set when the map reports the end of the game, all moves of the map are
+	// already in the playback buffer by then.
+	private volatile boolean endReported = false;
+
 	private boolean disposeAfterRun = true;
 
 	/**
@@ -169,11 +217,63 @@ public class SimpleGamePanel extends JFrame implements Runnable {
 		// fixing the size of the window so it matches the grid
 		setResizable(false);
 		setVisible(true);
+		// Following the map from now on, the play area is initialised with the state
+		// of the map before the first change arrives
+		toMonitor.addChangeListener(this);
+		final MineMap.Snapshot initial = toMonitor.getSnapshot();
+		for (int rc = 0; rc < toMonitor.rows; rc++) {
+			for (int cc = 0; cc < toMonitor.cols; cc++) {
+				showSpot(field.get(rc).get(cc), initial.getPos(rc, cc));
+			}
+		}
+		if (initial.isEnded()) {
+			endReported = true;
+		}
 		// The panel is ready to show the game
 		// We will launch the refresh mechanism now (see the run() method)
 		new Thread(this).start();
 	}
 
+	@Override
+	public void spotsRevealed(final MineMap source, final int[] spots, final int[] nearMineCounts) {
+		for (int i = 0; i < spots.length; i++) {
+			recordChange(spots[i] << 4 | nearMineCounts[i]);
+		}
+	}
+
+	@Override
+	public void flagChanged(final MineMap source, final int rowCoord, final int colCoord, final boolean flagged) {
+		recordChange((rowCoord * source.cols + colCoord) << 4 | (flagged ? flagCode : unflagCode));
+	}
+
+	@Override
+	public void exploded(final MineMap source, final int rowCoord, final int colCoord) {
+		recordChange((rowCoord * source.cols + colCoord) << 4 | explodedCode);
+	}
+
+	@Override
+	public void moveCompleted(final MineMap source, final int rowCoord, final int colCoord) {
+		pendingMoves.add(new RecordedMove(Arrays.copyOf(recordedChanges, recordedCount), rowCoord, colCoord));
+		recordedCount = 0;
+	}
+
+	/**
+	 * Adds a change to the move currently being recorded.
+	 * 
+	 * @param change the encoded change
+	 */
+	private void recordChange(final int change) {
+		if (recordedCount == recordedChanges.length) {
+			recordedChanges = Arrays.copyOf(recordedChanges, recordedCount * 2);
+		}
+		recordedChanges[recordedCount++] = change;
+	}
+
+	@Override
+	public void gameEnded(final MineMap source, final boolean won) {
+		endReported = true;
+	}
+
 	/**
 	 * Colour changes for a label will be propagated if the current colour is not
 	 * the same as the one that was requested
@@ -192,87 +292,105 @@ public class SimpleGamePanel extends JFrame implements Runnable {
 	}
 
 	/**
-	 * This method updates all labels in the play area to show the state of the map
-	 * at the time when the method is called.
+	 * This method shows the next moves from the playback buffer on the play area.
+	 * Only the changed labels are touched, thus the cost of a refresh does not
+	 * depend on the size of the map.
+	 * 
+	 * @param allMoves if true, all buffered moves are shown, otherwise only the
+	 *                 oldest one
+	 * @return the last move shown, or null if there were no moves to show
 	 */
-	private void refreshArea() {
-		for (int rc = 0; rc < toMonitor.rows; rc++) {
-			List<FlashableJLabel> currRow = field.get(rc);
-			for (int cc = 0; cc < toMonitor.cols; cc++) {
-				FlashableJLabel currLabel = currRow.get(cc);
-				ExploredSpot currSpot = toMonitor.getPos(rc, cc);
-				// this char will contain an unicode char code
-				// this char depends on what is the current spot
-				char toShowinSpot = 1;
-				switch (currSpot.type) {
-				case EXPLODED:
-					// A star sign
-					toShowinSpot = 0x2600;
-					ensureColour(currLabel, textColour, clearColour);
-					break;
-				case FLAG:
-					// A flag sign
-					toShowinSpot = 0x2691;
-					ensureColour(currLabel, flagColour, clearColour);
-					break;
-				case MINE:
-					System.err.println("A mine was in an explored spot, MineMap is broken!");
-					System.exit(1);
-				case SAFE:
-					// A number (if there are mines nearby) or a space (if there are no mines
-					// around)
-					toShowinSpot = currSpot.nearMineCount == 0 ? ' ' : (char) ('0' + currSpot.nearMineCount);
-					ensureColour(currLabel, textColour, clearColour);
-					break;
-				case UNEXPLORED:
-					// Space ...
-					toShowinSpot = ' ';
-					ensureColour(currLabel, textColour, inFogColour);
-					break;
-				}
-				String newText = "" + toShowinSpot;
-				if (!currLabel.getText().equals(newText)) {
-					currLabel.setText(newText);
-				}
+	private RecordedMove refreshArea(final boolean allMoves) {
+		RecordedMove move, shown = null;
+		while ((move = pendingMoves.poll()) != null) {
+			for (final int change : move.changes) {
+				final int idx = change >>> 4;
+				showSpot(field.get(idx / toMonitor.cols).get(idx % toMonitor.cols), codedSpots[change & 15]);
+			}
+			shown = move;
+			if (!allMoves) {
+				break;
 			}
 		}
+		return shown;
 	}
 
 	/**
-	 * Ensures the window contains the most up to date look of the MineMap.
+	 * Updates a single label of the play area.
+	 * 
+	 * @param currLabel the label to update
+	 * @param currSpot  the details of the spot the label should show
+	 */
+	private void showSpot(final FlashableJLabel currLabel, final ExploredSpot currSpot) {
+		// this char will contain an unicode char code
+		// this char depends on what is the current spot
+		char toShowinSpot = 1;
+		switch (currSpot.type) {
+		case EXPLODED:
+			// A star sign
+			toShowinSpot = 0x2600;
+			ensureColour(currLabel, textColour, clearColour);
+			break;
+		case FLAG:
+			// A flag sign
+			toShowinSpot = 0x2691;
+			ensureColour(currLabel, flagColour, clearColour);
+			break;
+		case MINE:
+			System.err.println("A mine was in an explored spot, MineMap is broken!");
+			System.exit(1);
+		case SAFE:
+			// A number (if there are mines nearby) or a space (if there are no mines
+			// around)
+			toShowinSpot = currSpot.nearMineCount == 0 ? ' ' : (char) ('0' + currSpot.nearMineCount);
+			ensureColour(currLabel, textColour, clearColour);
+			break;
+		case UNEXPLORED:
+			// Space ...
+			toShowinSpot = ' ';
+			ensureColour(currLabel, textColour, inFogColour);
+			break;
+		}
+		String newText = "" + toShowinSpot;
+		if (!currLabel.getText().equals(newText)) {
+			currLabel.setText(newText);
+		}
+	}
+
+	/**
+	 * Ensures the window contains the most up to date look of the MineMap. The
+	 * moves of the AI are replayed from the playback buffer at the pace set in the
+	 * map's uidelay (one move per uidelay ms). Without a pace, everything buffered
+	 * is shown at every refresh.
 	 */
 	@Override
 	public void run() {
+		final int pace = toMonitor.uidelay;
 		do {
 			// Refresh the play area
-			refreshArea();
+			final RecordedMove shown = refreshArea(pace == 0);
 			// We can now flash the most recently picked/flagged item so the GUI can show
-			// the AI's operations. Note this does not show all the AI ops. It just shows
-			// the latest one when we reach this place in the code.
-			int currLastCol = toMonitor.getLastCol();
-			int currLastRow = toMonitor.getLastRow();
-			if (flashedRow != currLastRow || flashedCol != currLastCol) {
-				flashedRow = currLastRow;
-				flashedCol = currLastCol;
+			// the AI's operations. When paced, every move is flashed, otherwise only the
+			// latest one shown in this cycle.
+			if (shown != null && (flashedRow != shown.lastRow || flashedCol != shown.lastCol)) {
+				flashedRow = shown.lastRow;
+				flashedCol = shown.lastCol;
 				// We ask the label to flash itself
 				field.get(flashedRow).get(flashedCol).flash(pickedColour, 20);
 			}
 
 			// We have done all the refresh procedures needed for this cycle. We can now
-			// wait till the next grid refresh is due
+			// wait till the next move or grid refresh is due
 			try {
-				Thread.sleep(50);
+				Thread.sleep(shown != null && pace != 0 ? pace : 50);
 			} catch (InterruptedException iex) {
 				// ignore
 			}
 
-			// If the game has not ended yet we will repeat this loop.
-		} while (!toMonitor.isEnded());
-
-		// Refresh the area the last time (as in there could have been updates to the
-		// map in
-		// the last 50 ms long sleep)
-		refreshArea();
+			// If the game has not ended yet or there are moves still to show we will
+			// repeat this loop.
+		} while (!endReported || !pendingMoves.isEmpty());
+		toMonitor.removeChangeListener(this);
 
 		if (toMonitor.isWon()) {
 			// If the game has been successful we will show a fancy spiral originating at
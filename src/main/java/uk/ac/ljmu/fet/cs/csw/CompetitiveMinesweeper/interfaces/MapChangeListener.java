@@ -0,0 +1,106 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+
+/**
+ * Allows following the changes of a {@link MineMap} without rescanning it.
+ * Listeners can be registered with
+ * {@link MineMap#addChangeListener(MapChangeListener)}. Every change of the map
+ * is reported exactly once, in the order the changes happened. Thus the cost of
+ * following a map is proportional to the number of changes and not to the size
+ * of the map.
+ * 
+ * The events are delivered on the thread that changed the map (i.e., the
+ * solver's thread) right after the change was completed. Listeners should
+ * return quickly as the solver cannot continue until all listeners are done.
+ * Listeners running slower operations (e.g., UI updates) should just record
+ * the events and process them on their own thread.
+ * 
+ * All methods have an empty default implementation, so listeners only need to
+ * implement the events they are interested in.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public interface MapChangeListener {
+	/**
+	 * Reports safe spots that were revealed by a single operation. A pick that
+	 * traces a complete empty region is reported as a single batch.
+	 * 
+	 * @param source         the map that changed
+	 * @param spots          the packed indexes (rowCoord * source.cols +
+	 *                       colCoord) of the revealed spots. The array is owned by
+	 *                       the listener.
+	 * @param nearMineCounts the number of mines around the revealed spots (in the
+	 *                       same order as the spots). The array is owned by the
+	 *                       listener.
+	 */
+	default void spotsRevealed(final MineMap source, final int[] spots, final int[] nearMineCounts) {
+	}
+
+	/**
+	 * Reports a flag placed on or removed from a spot.
+	 * 
+	 * @param source   the map that changed
+	 * @param rowCoord the row of the spot
+	 * @param colCoord the column of the spot
+	 * @param flagged  true if the spot is flagged now, false if it is unexplored
+	 *                 again
+	 */
+	default void flagChanged(final MineMap source, final int rowCoord, final int colCoord, final boolean flagged) {
+	}
+
+	/**
+	 * Reports that a mine was picked.
+	 * 
+	 * @param source   the map that changed
+	 * @param rowCoord the row of the exploded spot
+	 * @param colCoord the column of the exploded spot
+	 */
+	default void exploded(final MineMap source, final int rowCoord, final int colCoord) {
+	}
+
+	/**
+	 * Marks the end of a single move (e.g., a pick or a batch of flags). All the
+	 * changes reported since the previous call belong to this move. Viewers
+	 * replaying the game at a slower pace than the AI plays it can use this to
+	 * show the moves one by one.
+	 * 
+	 * @param source   the map that changed
+	 * @param rowCoord the row of the last spot touched by the move
+	 * @param colCoord the column of the last spot touched by the move
+	 */
+	default void moveCompleted(final MineMap source, final int rowCoord, final int colCoord) {
+	}
+
+	/**
+	 * Reports the end of the game. This is the last event of a map.
+	 * 
+	 * @param source the map that changed
+	 * @param won    true if the game was won, false if a mine exploded
+	 */
+	default void gameEnded(final MineMap source, final boolean won) {
+	}
+}
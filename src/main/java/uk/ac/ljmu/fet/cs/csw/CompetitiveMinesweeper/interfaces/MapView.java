@@ -0,0 +1,88 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+
+/**
+ * The read only side of a mine map. This is all a {@link StepSolver} can see
+ * from the map it plays on. Both the live {@link MineMap} and its snapshots
+ * ({@link MineMap.Snapshot}) offer this view.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public interface MapView {
+	/**
+	 * @return the number of rows of the map
+	 */
+	int getRows();
+
+	/**
+	 * @return the number of columns of the map
+	 */
+	int getCols();
+
+	/**
+	 * Queries the explored state of a spot.
+	 * 
+	 * @param rowCoord the row coordinate of the requested spot
+	 * @param colCoord the column coordinate of the requested spot
+	 * @return The details about the given spot in the explored map
+	 * @throws ArrayIndexOutOfBoundsException if the requested position is not
+	 *                                        within the the map
+	 */
+	ExploredSpot getPos(int rowCoord, int colCoord) throws ArrayIndexOutOfBoundsException;
+
+	/**
+	 * @return true if the game has no more moves. false otherwise.
+	 */
+	boolean isEnded();
+
+	/**
+	 * @return true if the game is won, false if the game is still ongoing or the
+	 *         game is lost
+	 */
+	boolean isWon();
+
+	/**
+	 * @return the number of spots that have been picked or traced
+	 */
+	int getExploredAreaSize();
+
+	/**
+	 * @return the number of flags on the map (correct or not)
+	 */
+	int getFlagCount();
+
+	/**
+	 * @return the row of the last picked/flagged spot
+	 */
+	int getLastRow();
+
+	/**
+	 * @return the column of the last picked/flagged spot
+	 */
+	int getLastCol();
+}
@@ -0,0 +1,45 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces;
+
+import java.util.concurrent.Future;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SolverRunners;
+
+/**
+ * Decides on which thread a solver (or any other long running task of a game)
+ * runs. See {@link SolverRunners} for the available runners.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public interface SolverRunner {
+	/**
+	 * Starts a task in the background, the method returns immediately.
+	 * 
+	 * @param task the task to run, e.g., a {@link GameSolverThread} that already
+	 *             received its map
+	 * @return allows checking whether the task has finished already
+	 */
+	Future<?> start(Runnable task);
+}
@@ -0,0 +1,53 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Move;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractStepSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.StepSolverEngine;
+
+/**
+ * A solver that plays one move at a time instead of running until the end of
+ * its game. Such solvers don't need a thread of their own: the
+ * {@link StepSolverEngine} asks them for their moves and applies them, so a
+ * few worker threads can play thousands of games in parallel.
+ * 
+ * Just like with {@link GameSolverThread}s, every game needs a new solver
+ * instance, the solver can keep its state between moves in its fields. To use a
+ * step solver where a {@link GameSolverThread} is expected (e.g., in matches or
+ * in the GUI), extend {@link AbstractStepSolver}.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public interface StepSolver {
+	/**
+	 * Decides on the next move in the game. This is only called while the game is
+	 * not ended. The map must not be changed here, the returned move will be
+	 * applied by the caller.
+	 * 
+	 * @param view the current state of the map
+	 * @return the move to make, or null if the solver gives up on the game
+	 */
+	Move nextMove(MapView view);
+}
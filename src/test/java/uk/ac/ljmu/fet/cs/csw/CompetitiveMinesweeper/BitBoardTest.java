@@ -0,0 +1,109 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.BitBoard;
+
+public class BitBoardTest {
+	public static final Random r = new Random();
+	// Column counts around the word boundaries of the bitset
+	private static final int[] colCounts = { 1, 2, 3, 31, 63, 64, 65, 127, 128, 130 };
+
+	private BitBoard genBoard(final int rows, final int cols, final boolean[][] mirror) {
+		final BitBoard board = new BitBoard(rows, cols);
+		for (int rc = 0; rc < rows; rc++) {
+			for (int cc = 0; cc < cols; cc++) {
+				if (mirror[rc][cc] = r.nextInt(10) == 0) {
+					board.set(rc * cols + cc);
+				}
+			}
+		}
+		return board;
+	}
+
+	@Test(timeout = 500)
+	public void neighbourhoodShouldMatchAScan() {
+		for (int cols : colCounts) {
+			final int rows = r.nextInt(10) + 1;
+			final boolean[][] mirror = new boolean[rows][cols];
+			final BitBoard board = genBoard(rows, cols, mirror);
+			final BitBoard around = board.neighbourhood();
+			for (int rc = 0; rc < rows; rc++) {
+				for (int cc = 0; cc < cols; cc++) {
+					boolean expected = false;
+					for (int dr = Math.max(0, rc - 1); dr < Math.min(rows, rc + 2); dr++) {
+						for (int dc = Math.max(0, cc - 1); dc < Math.min(cols, cc + 2); dc++) {
+							expected |= mirror[dr][dc];
+						}
+					}
+					assertEquals("Neighbourhood mismatch at " + rc + "," + cc + " on a " + rows + "x" + cols + " board",
+							expected, around.get(rc, cc));
+				}
+			}
+			assertTrue("Neighbourhood should not leave the board", around.nextSetBit(around.size) < 0);
+		}
+	}
+
+	@Test(timeout = 500)
+	public void iterationShouldVisitAllSetSpots() {
+		for (int cols : colCounts) {
+			final int rows = r.nextInt(10) + 1;
+			final boolean[][] mirror = new boolean[rows][cols];
+			final BitBoard board = genBoard(rows, cols, mirror);
+			int visited = 0, expected = 0;
+			for (int idx = board.nextSetBit(0); idx >= 0; idx = board.nextSetBit(idx + 1)) {
+				assertTrue("Only set spots should be visited", mirror[idx / cols][idx % cols]);
+				visited++;
+			}
+			for (boolean[] row : mirror) {
+				for (boolean spot : row) {
+					expected += spot ? 1 : 0;
+				}
+			}
+			assertEquals("All set spots should be visited", expected, visited);
+			assertEquals("Cardinality should match the set spots", expected, board.cardinality());
+		}
+	}
+
+	@Test(timeout = 50)
+	public void flipShouldStayWithinTheBoard() {
+		final BitBoard board = new BitBoard(3, 7);
+		board.set(5);
+		board.flip();
+		assertEquals("Flip should only complement the spots of the board", 20, board.cardinality());
+		board.andNot(new BitBoard(board));
+		assertTrue("Subtracting a board from itself should give an empty board", board.isEmpty());
+	}
+
+	@Test(timeout = 50, expected = IllegalArgumentException.class)
+	public void shouldNotCombineDifferentBoards() {
+		new BitBoard(3, 4).or(new BitBoard(4, 3));
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.CellSet;
+
+public class CellSetTest {
+	public static final Random r = new Random();
+
+	@Test(timeout = 500)
+	public void shouldBehaveLikeASet() {
+		final int capacity = 200;
+		final CellSet set = new CellSet(capacity);
+		final HashSet<Integer> mirror = new HashSet<>();
+		for (int ops = 0; ops < 10000; ops++) {
+			final int idx = r.nextInt(capacity);
+			if (r.nextBoolean()) {
+				assertEquals("Adding should tell if the spot was new", mirror.add(idx), set.add(idx));
+			} else {
+				assertEquals("Removing should tell if the spot was there", mirror.remove(idx), set.remove(idx));
+			}
+			assertEquals("The sizes should match", mirror.size(), set.size());
+			assertEquals("Membership should match", mirror.contains(idx), set.contains(idx));
+		}
+		final int[] members = set.toArray();
+		Arrays.sort(members);
+		assertTrue("The members should match",
+				Arrays.equals(mirror.stream().mapToInt(Integer::intValue).sorted().toArray(), members));
+		for (int i = 0; i < set.size(); i++) {
+			assertTrue("Iteration should only list members", mirror.contains(set.get(i)));
+		}
+	}
+
+	@Test(timeout = 50)
+	public void copiesShouldBeIndependent() {
+		final CellSet set = new CellSet(10);
+		set.add(3);
+		set.add(7);
+		final CellSet copy = new CellSet(set);
+		copy.remove(3);
+		copy.add(5);
+		assertTrue("The original should not change", set.contains(3) && !set.contains(5));
+		assertEquals("The copy should have its own members", 2, copy.size());
+		set.clear();
+		assertTrue("Cleared sets should be empty", set.isEmpty() && !set.contains(7));
+		assertTrue("Clearing should not affect the copy", copy.contains(7));
+	}
+
+	@Test(timeout = 500)
+	public void randomChoicesShouldBeUniform() {
+		final CellSet set = new CellSet(100);
+		assertEquals("Empty sets should have nothing to choose", -1, set.random(r));
+		for (int idx = 0; idx < 100; idx += 10) {
+			set.add(idx);
+		}
+		final int[] hits = new int[100];
+		final int draws = 100000;
+		for (int i = 0; i < draws; i++) {
+			hits[set.random(r)]++;
+		}
+		for (int idx = 0; idx < 100; idx++) {
+			if (idx % 10 == 0) {
+				assertTrue("Every member should be chosen about equally often",
+						Math.abs(hits[idx] - draws / 10) < draws / 50);
+			} else {
+				assertEquals("Non members should never be chosen", 0, hits[idx]);
+			}
+		}
+	}
+}
@@ -0,0 +1,368 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ComponentResult;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Constraint;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Endgame;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.FrontierEnumerator;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.LogBinomials;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.MineCountWeights;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ParallelFrontierEnumerator;
+
+public class ConstraintSolverTest {
+	public static final Random r = new Random(SolverGames.seed);
+
+	/**
+	 * Creates a random map and explores a few of its safe spots.
+	 */
+	private static MineMap partiallyExplored(final boolean[][] layout) {
+		final int rows = layout.length, cols = layout[0].length;
+		for (int rc = 0; rc < rows; rc++) {
+			for (int cc = 0; cc < cols; cc++) {
+				layout[rc][cc] = r.nextDouble() < .2;
+			}
+		}
+		final MineMap theMap = new MineMap(layout, 0);
+		for (int picks = 0; picks < 4; picks++) {
+			final int rc = r.nextInt(rows), cc = r.nextInt(cols);
+			if (!layout[rc][cc]) {
+				theMap.pickASpot(rc, cc);
+			}
+		}
+		return theMap;
+	}
+
+	/**
+	 * Builds the constraints of the current frontier of the map.
+	 */
+	private static List<Constraint> constraintsOf(final MineMap theMap) {
+		final ConstraintSet constraints = ConstraintSet.follow(theMap);
+		constraints.reduce(new IntSet(theMap.fieldSize), new IntSet(theMap.fieldSize));
+		return constraints.getConstraints();
+	}
+
+	@Test(timeout = 2000)
+	public void reductionShouldOnlyFindTheTruth() {
+		for (int game = 0; game < 200; game++) {
+			final boolean[][] layout = new boolean[8][8];
+			final MineMap theMap = partiallyExplored(layout);
+			final ConstraintSet constraints = ConstraintSet.follow(theMap);
+			final IntSet safe = new IntSet(theMap.fieldSize), mines = new IntSet(theMap.fieldSize);
+			constraints.reduce(safe, mines);
+			for (int i = 0; i < safe.size(); i++) {
+				assertFalse("Safe spots should not be mines",
+						layout[theMap.rowOf(safe.get(i))][theMap.colOf(safe.get(i))]);
+			}
+			for (int i = 0; i < mines.size(); i++) {
+				assertTrue("Mines should be mines", layout[theMap.rowOf(mines.get(i))][theMap.colOf(mines.get(i))]);
+			}
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void enumerationShouldMatchABruteForceCount() {
+		int checked = 0;
+		while (checked < 100) {
+			final MineMap theMap = partiallyExplored(new boolean[7][7]);
+			final ConstraintSet constraints = ConstraintSet.follow(theMap);
+			constraints.reduce(new IntSet(theMap.fieldSize), new IntSet(theMap.fieldSize));
+			for (final List<Constraint> component : FrontierEnumerator.components(constraints.getConstraints())) {
+				final ComponentResult result = FrontierEnumerator.solve(component);
+				final int n = result.cells.length;
+				if (n > 16) {
+					continue;
+				}
+				assertTrue("Small components should be solved", result.isSolved());
+				final double[] ways = new double[n + 1];
+				final double[][] mineWays = new double[n + 1][n];
+				layouts: for (int layout = 0; layout < 1 << n; layout++) {
+					for (final Constraint c : component) {
+						int mines = 0;
+						for (int j = 0; j < n; j++) {
+							if ((layout >> j & 1) != 0 && c.contains(result.cells[j])) {
+								mines++;
+							}
+						}
+						if (mines != c.mines) {
+							continue layouts;
+						}
+					}
+					final int k = Integer.bitCount(layout);
+					ways[k]++;
+					for (int j = 0; j < n; j++) {
+						mineWays[k][j] += layout >> j & 1;
+					}
+				}
+				final double[] logWeights = new double[n + 1];
+				double total = 0;
+				for (int k = 0; k <= n; k++) {
+					assertEquals("The number of layouts should match", ways[k], result.getWays(k), 0);
+					logWeights[k] = -.7 * k;
+					total += ways[k] * Math.exp(logWeights[k]);
+				}
+				final double[] probabilities = result.probabilities(logWeights);
+				for (int j = 0; j < n; j++) {
+					double expected = 0;
+					for (int k = 0; k <= n; k++) {
+						expected += mineWays[k][j] * Math.exp(logWeights[k]);
+					}
+					assertEquals("The mine probabilities should match", expected / total, probabilities[j], 1e-9);
+					assertEquals("Safe spots should be recognised", expected == 0, result.isCertainlySafe(j));
+					assertEquals("Mines should be recognised", expected == total, result.isCertainlyMine(j));
+				}
+				checked++;
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void parallelEnumerationShouldMatchTheSequential() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int round = 0; round < 20; round++) {
+				final boolean[][] layout = new boolean[60][60];
+				final MineMap theMap = partiallyExplored(layout);
+				for (int picks = 0; picks < 200; picks++) {
+					final int rc = r.nextInt(60), cc = r.nextInt(60);
+					if (!layout[rc][cc]) {
+						theMap.pickASpot(rc, cc);
+					}
+				}
+				final List<Constraint> constraints = constraintsOf(theMap);
+				final List<ComponentResult> sequential = new FrontierEnumerator().enumerate(constraints);
+				final List<ComponentResult> parallel = new ParallelFrontierEnumerator(pool).enumerate(constraints);
+				assertEquals("Both should find the same components", sequential.size(), parallel.size());
+				for (int c = 0; c < sequential.size(); c++) {
+					final ComponentResult expected = sequential.get(c), actual = parallel.get(c);
+					assertEquals("Both should solve the same components", expected.isSolved(), actual.isSolved());
+					if (!expected.isSolved()) {
+						continue;
+					}
+					assertEquals("The mine counts should match", expected.maxMines(), actual.maxMines());
+					final double[] logWeights = new double[expected.maxMines() + 1];
+					for (int k = 0; k < logWeights.length; k++) {
+						assertEquals("The number of layouts should match", expected.getWays(k), actual.getWays(k),
+								expected.getWays(k) * 1e-12);
+						logWeights[k] = -1.1 * k;
+					}
+					final double[] p1 = expected.probabilities(logWeights), p2 = actual.probabilities(logWeights);
+					for (int j = 0; j < p1.length; j++) {
+						assertEquals("The mine probabilities should match", p1[j], p2[j], 1e-9);
+						assertEquals("Mines should be recognised", expected.isCertainlyMine(j),
+								actual.isCertainlyMine(j));
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void mineCountWeightsShouldMatchABruteForceCount() {
+		final LogBinomials binomials = new LogBinomials(25);
+		int checked = 0;
+		while (checked < 30) {
+			final MineMap theMap = partiallyExplored(new boolean[5][5]);
+			final List<Integer> unknown = new ArrayList<>();
+			for (int idx = 0; idx < theMap.fieldSize; idx++) {
+				if (theMap.getPos(idx).type == Spot.UNEXPLORED) {
+					unknown.add(idx);
+				}
+			}
+			final int n = unknown.size(), m = theMap.mineCount;
+			if (theMap.isEnded() || m == 0 || binomials.logChoose(n, m) > Math.log(100000)) {
+				continue;
+			}
+			final List<Constraint> constraints = constraintsOf(theMap);
+			final List<ComponentResult> components = new FrontierEnumerator().enumerate(constraints);
+			if (components.isEmpty()) {
+				continue;
+			}
+			final double[] expected = bruteForceProbabilities(constraints, unknown, m);
+			int frontierSize = 0;
+			for (final ComponentResult component : components) {
+				frontierSize += component.cells.length;
+			}
+			final MineCountWeights weights = new MineCountWeights(components, m, n - frontierSize, binomials);
+			final IntSet frontier = new IntSet(theMap.fieldSize);
+			for (int c = 0; c < components.size(); c++) {
+				final ComponentResult component = components.get(c);
+				final double[] probabilities = component.probabilities(weights.getLogWeights(c));
+				for (int j = 0; j < component.cells.length; j++) {
+					frontier.add(component.cells[j]);
+					assertEquals("The frontier probabilities should match", expected[unknown.indexOf(component.cells[j])],
+							probabilities[j], 1e-9);
+				}
+			}
+			for (int j = 0; j < n; j++) {
+				if (!frontier.contains(unknown.get(j))) {
+					assertEquals("The interior probability should match", expected[j], weights.getInteriorProbability(),
+							1e-9);
+				}
+			}
+			checked++;
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void endgameShouldSuggestTheSafestSpot() {
+		final LogBinomials binomials = new LogBinomials(25);
+		int checked = 0;
+		while (checked < 30) {
+			final MineMap theMap = partiallyExplored(new boolean[5][5]);
+			final List<Integer> unknown = new ArrayList<>();
+			for (int idx = 0; idx < theMap.fieldSize; idx++) {
+				if (theMap.getPos(idx).type == Spot.UNEXPLORED) {
+					unknown.add(idx);
+				}
+			}
+			final int n = unknown.size(), m = theMap.mineCount;
+			if (theMap.isEnded() || m == 0 || binomials.logChoose(n, m) > Math.log(100000)) {
+				continue;
+			}
+			final Endgame endgame = new Endgame(theMap);
+			final int suggestion = endgame.safestSpot();
+			endgame.detach();
+			final List<Constraint> constraints = constraintsOf(theMap);
+			if (constraints.isEmpty()) {
+				assertEquals("Without a frontier there should be no suggestion", -1, suggestion);
+				continue;
+			}
+			final double[] expected = bruteForceProbabilities(constraints, unknown, m);
+			double safest = 1;
+			for (final double p : expected) {
+				safest = Math.min(safest, p);
+			}
+			assertTrue("The suggestion should be unexplored", unknown.contains(suggestion));
+			assertEquals("The suggestion should be the safest spot", safest, expected[unknown.indexOf(suggestion)],
+					1e-9);
+			checked++;
+		}
+	}
+
+	@Test(timeout = 2000)
+	public void endgameShouldKeepItsDeductions() {
+		int checked = 0;
+		while (checked < 50) {
+			final MineMap theMap = partiallyExplored(new boolean[8][8]);
+			final ConstraintSet constraints = ConstraintSet.follow(theMap);
+			final IntSet safe = new IntSet(theMap.fieldSize), mines = new IntSet(theMap.fieldSize);
+			constraints.reduce(safe, mines);
+			constraints.detach();
+			if (theMap.isEnded() || safe.size() < 2) {
+				continue;
+			}
+			final Endgame tooSmall = new Endgame(theMap, 1);
+			assertEquals("Over the limit nothing should be suggested", -1, tooSmall.safestSpot());
+			tooSmall.detach();
+			// Picking the suggestions can grow the frontier over the limit
+			final Endgame endgame = new Endgame(theMap, theMap.getFrontierUnexploredCount() + 1);
+			for (int i = 0; i < safe.size(); i++) {
+				if (theMap.getPos(safe.get(i)).type == Spot.UNEXPLORED) {
+					final int suggestion = endgame.safestSpot();
+					assertTrue("The safe spots found should be suggested first", safe.contains(suggestion));
+					theMap.pickASpot(theMap.rowOf(suggestion), theMap.colOf(suggestion));
+					i = -1;
+				}
+			}
+			for (int mine = endgame.knownMine(); mine >= 0; mine = endgame.knownMine()) {
+				assertTrue("The mines found should be offered", mines.contains(mine));
+				theMap.flagASpot(theMap.rowOf(mine), theMap.colOf(mine));
+			}
+			for (int i = 0; i < mines.size(); i++) {
+				assertEquals("All the mines found should be offered", Spot.FLAG, theMap.getPos(mines.get(i)).type);
+			}
+			endgame.detach();
+			checked++;
+		}
+	}
+
+	/**
+	 * Calculates the mine probabilities of the unexplored spots from every layout
+	 * with the right number of mines.
+	 * 
+	 * @param constraints the constraints of the frontier
+	 * @param unknown     the packed indexes of the unexplored spots
+	 * @param mines       the number of mines on the unexplored spots
+	 * @return the probabilities in the order of the unexplored spots
+	 */
+	private static double[] bruteForceProbabilities(final List<Constraint> constraints, final List<Integer> unknown,
+			final int mines) {
+		final int n = unknown.size();
+		double total = 0;
+		final double[] probabilities = new double[n];
+		for (int layout = (1 << mines) - 1; layout < 1 << n; layout = nextWithSameBitCount(layout)) {
+			boolean fits = true;
+			for (final Constraint c : constraints) {
+				int inConstraint = 0;
+				for (int j = 0; j < n; j++) {
+					if ((layout >> j & 1) != 0 && c.contains(unknown.get(j))) {
+						inConstraint++;
+					}
+				}
+				fits &= inConstraint == c.mines;
+			}
+			if (fits) {
+				total++;
+				for (int j = 0; j < n; j++) {
+					probabilities[j] += layout >> j & 1;
+				}
+			}
+		}
+		for (int j = 0; j < n; j++) {
+			probabilities[j] /= total;
+		}
+		return probabilities;
+	}
+
+	/**
+	 * @return the next larger number with the same number of bits set
+	 */
+	private static int nextWithSameBitCount(final int bits) {
+		final int lowest = bits & -bits, ripple = bits + lowest;
+		return (((ripple ^ bits) >> 2) / lowest) | ripple;
+	}
+
+	@Test(timeout = 10000)
+	public void shouldNeverFlagWrongly() {
+		assertTrue("The solver should win a fair share of the games", SolverGames.play(ConstraintSolver::new, 200) > 95);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.EliminationSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.FrontierMatrix;
+
+public class FrontierMatrixTest {
+	public static final Random r = new Random(SolverGames.seed);
+
+	private static boolean[][] randomLayout(final int size, final double ratio) {
+		final boolean[][] layout = new boolean[size][size];
+		for (final boolean[] row : layout) {
+			for (int cc = 0; cc < size; cc++) {
+				row[cc] = r.nextDouble() < ratio;
+			}
+		}
+		return layout;
+	}
+
+	@Test(timeout = 5000)
+	public void incrementalRowsShouldMatchRebuiltOnes() {
+		for (int game = 0; game < 50; game++) {
+			final boolean[][] layout = randomLayout(12, .15);
+			final MineMap theMap = new MineMap(layout, 0);
+			final FrontierMatrix matrix = FrontierMatrix.follow(theMap);
+			final IntSet safe = new IntSet(theMap.fieldSize), mines = new IntSet(theMap.fieldSize);
+			for (int move = 0; move < 40 && !theMap.isEnded(); move++) {
+				final int rc = r.nextInt(12), cc = r.nextInt(12);
+				if (layout[rc][cc]) {
+					// Flags come and go (flagging toggles), so rows lose and regain their spots
+					theMap.flagASpot(rc, cc);
+				} else {
+					theMap.pickASpot(rc, cc);
+				}
+				matrix.solve(safe, mines);
+				final ConstraintSet rebuilt = ConstraintSet.follow(theMap);
+				rebuilt.reduce(new IntSet(theMap.fieldSize), new IntSet(theMap.fieldSize));
+				rebuilt.detach();
+				assertEquals("The rows should follow the map", rebuilt.getConstraints(), matrix.getConstraints());
+			}
+			matrix.detach();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void eliminationShouldOnlyFindTheTruth() {
+		for (int game = 0; game < 200; game++) {
+			final boolean[][] layout = randomLayout(10, .2);
+			final MineMap theMap = new MineMap(layout, 0);
+			for (int picks = 0; picks < 6; picks++) {
+				final int rc = r.nextInt(10), cc = r.nextInt(10);
+				if (!layout[rc][cc]) {
+					theMap.pickASpot(rc, cc);
+				}
+			}
+			final FrontierMatrix matrix = FrontierMatrix.follow(theMap);
+			final IntSet safe = new IntSet(theMap.fieldSize), mines = new IntSet(theMap.fieldSize);
+			matrix.solve(safe, mines);
+			matrix.detach();
+			for (int i = 0; i < safe.size(); i++) {
+				assertFalse("Safe spots should not be mines",
+						layout[theMap.rowOf(safe.get(i))][theMap.colOf(safe.get(i))]);
+			}
+			for (int i = 0; i < mines.size(); i++) {
+				assertTrue("Mines should be mines", layout[theMap.rowOf(mines.get(i))][theMap.colOf(mines.get(i))]);
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void solverShouldNeverFlagWrongly() {
+		assertTrue("The solver should win a fair share of the games", SolverGames.play(EliminationSolver::new, 200) > 90);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntList;
+
+public class IntListTest {
+	public static final Random r = new Random();
+
+	@Test(timeout = 500)
+	public void shouldBehaveLikeAList() {
+		final IntList list = new IntList();
+		final ArrayList<Integer> mirror = new ArrayList<>();
+		for (int ops = 0; ops < 10000; ops++) {
+			if (mirror.isEmpty() || r.nextInt(3) != 0) {
+				final int item = r.nextInt();
+				list.add(item);
+				mirror.add(item);
+			} else {
+				assertEquals("Removal should return the last item", (int) mirror.remove(mirror.size() - 1),
+						list.removeLast());
+			}
+			assertEquals("The sizes should match", mirror.size(), list.size());
+		}
+		assertArrayEquals("The contents should match", mirror.stream().mapToInt(Integer::intValue).toArray(),
+				list.toArray());
+		list.clear();
+		assertTrue("Cleared lists should be empty", list.isEmpty());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class, timeout = 50)
+	public void shouldNotReadPastTheEnd() {
+		final IntList list = new IntList();
+		list.add(1);
+		list.clear();
+		list.get(0);
+	}
+
+	@Test(timeout = 500)
+	public void shufflingShouldKeepTheItems() {
+		final IntList list = new IntList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(i);
+		}
+		list.shuffle(r);
+		final int[] items = list.toArray();
+		assertTrue("The order should change", items[0] != 0 || items[1] != 1 || items[2] != 2);
+		Arrays.sort(items);
+		for (int i = 0; i < items.length; i++) {
+			assertEquals("Every item should remain in the list exactly once", i, items[i]);
+		}
+	}
+}
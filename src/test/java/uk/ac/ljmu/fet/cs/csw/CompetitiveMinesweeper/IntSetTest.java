@@ -0,0 +1,60 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+
+public class IntSetTest {
+	public static final Random r = new Random();
+
+	@Test(timeout = 500)
+	public void shouldKeepTheOrderOfAddition() {
+		final int capacity = 300;
+		final IntSet set = new IntSet(capacity);
+		for (int round = 0; round < 20; round++) {
+			final LinkedHashSet<Integer> mirror = new LinkedHashSet<>();
+			for (int ops = 0; ops < 200; ops++) {
+				final int item = r.nextInt(capacity);
+				assertEquals("Adding should tell if the item was new", mirror.add(item), set.add(item));
+				assertEquals("The sizes should match", mirror.size(), set.size());
+			}
+			assertArrayEquals("The members should be listed in the order of their addition",
+					mirror.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+			set.clear();
+			assertTrue("Cleared sets should be empty", set.isEmpty());
+			for (int item : mirror) {
+				assertFalse("Cleared sets should not remember their old members", set.contains(item));
+			}
+		}
+	}
+}
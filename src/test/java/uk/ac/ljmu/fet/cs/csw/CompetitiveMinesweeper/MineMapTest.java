@@ -24,15 +24,21 @@ package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.BitBoard;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap.MapCopyException;
 import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapChangeListener;
 
 public class MineMapTest {
 	public static final Random r = new Random();
@@ -74,47 +80,37 @@ public class MineMapTest {
 	}
 
 	@Test(timeout = 500)
-	public void shouldObserveUIDelay() {
-		final int uiLongDel = 120, delRatio = 2, uiShortDel = uiLongDel / delRatio, acceptablePickTime = 10;
+	public void shouldNotWaitForTheUI() {
+		final int uiLongDel = 1200;
 		genMineDetails();
 		final MineMap mmdelayed = new MineMap(rows, cols, mineRatio, uiLongDel);
-		long before = System.currentTimeMillis();
+		assertEquals("The map should keep the pace for its viewers", uiLongDel, mmdelayed.uidelay);
+		// The test would time out if any of these waited for the UI
 		mmdelayed.flagASpot(1, 1);
-		long flagDuration = System.currentTimeMillis() - before;
-		assertTrue("Placing a flag should incur a uiDelay", flagDuration >= uiLongDel);
-
-		before = System.currentTimeMillis();
+		mmdelayed.flagASpot(1, 1);
+		mmdelayed.flagMany(new int[] { 0, 1, 2 }, true);
+		assertEquals("The flags should be placed without any delay", 3, mmdelayed.getFlagCount());
 		mmdelayed.pickASpot(2, 2);
-		long pickDuration = System.currentTimeMillis() - before;
-		assertTrue("Picking a spot should incur a uiDelay", pickDuration >= uiLongDel);
-
-		final MineMap mmnodelay = new MineMap(rows, cols, mineRatio, 0);
-		before = System.currentTimeMillis();
-		mmnodelay.flagASpot(1, 1);
-		long flagNoDDuration = System.currentTimeMillis() - before;
-		long flagDiff = flagDuration - flagNoDDuration;
-		assertTrue("Placing a flag should not incur any uiDelay: " + flagDiff,
-				Math.abs(flagDiff - uiLongDel) <= acceptablePickTime);
-
-		mmnodelay.pickASpot(2, 2);
-		long pickNoDDuration = System.currentTimeMillis() - before;
-		long pickDiff = pickDuration - pickNoDDuration;
-		assertTrue("Picking a spot should not incur any uiDelay: " + pickDiff,
-				Math.abs(pickDiff - uiLongDel) <= acceptablePickTime);
-
-		final MineMap mmsdelayed = new MineMap(rows, cols, mineRatio, uiShortDel);
-		before = System.currentTimeMillis();
-		mmsdelayed.flagASpot(1, 1);
-		long flagSDuration = System.currentTimeMillis() - before;
-
-		assertTrue("Placing a flag should incur a uiDelay", flagSDuration >= uiShortDel);
-		before = System.currentTimeMillis();
-		mmsdelayed.pickASpot(2, 2);
-		long pickSDuration = System.currentTimeMillis() - before;
-		assertTrue("Picking a spot should incur a uiDelay", pickSDuration >= uiShortDel);
-
-		assertEquals("Short delay's duration should be half of the long one", delRatio,
-				(int) Math.round((0.0 + pickDuration + flagDuration) / (pickSDuration + flagSDuration)));
+	}
+
+	@Test(timeout = 50)
+	public void shouldMarkTheEndOfEveryMove() {
+		final MineMap mm = new MineMap(5, 5, 0, 100);
+		final int[] moves = new int[1];
+		mm.addChangeListener(new MapChangeListener() {
+			@Override
+			public void moveCompleted(MineMap source, int rowCoord, int colCoord) {
+				moves[0]++;
+			}
+		});
+		final int[] spots = { mm.toIndex(0, 0), mm.toIndex(0, 1), mm.toIndex(4, 4) };
+		mm.flagMany(spots);
+		assertEquals("A batch should be a single move", 1, moves[0]);
+		mm.flagMany(spots, true);
+		assertEquals("A paced batch should show every move", 1 + spots.length, moves[0]);
+		mm.flagASpot(3, 3);
+		assertEquals("A single flag should be a move", 2 + spots.length, moves[0]);
+		assertEquals("The move should tell its spot", 3, mm.getLastRow());
 	}
 
 	@Test(timeout = 50)
@@ -310,6 +306,31 @@ public class MineMapTest {
 		} while (mm.isEnded());
 	}
 
+	@Test(timeout = 50)
+	public void copiesShouldBeIndependent() throws MapCopyException {
+		final MineMap orig = genDefaultMap();
+		final MineMap first = new MineMap(orig, true);
+		final MineMap second = new MineMap(orig);
+		do {
+			genNewCoords();
+			first.pickASpot(rc, cc);
+		} while (!first.isEnded());
+		genNewCoords();
+		second.flagASpot(rc, cc);
+		for (int drc = 0; drc < rows; drc++) {
+			for (int dcc = 0; dcc < cols; dcc++) {
+				assertEquals("Playing on the copies should not change the original", Spot.UNEXPLORED,
+						orig.getPos(drc, dcc).type);
+				if (drc != rc || dcc != cc) {
+					assertEquals("Playing on a copy should not change the other copy", Spot.UNEXPLORED,
+							second.getPos(drc, dcc).type);
+				}
+			}
+		}
+		assertEquals("The copies should keep their own counters", 0, second.getExploredAreaSize());
+		assertFalse("The copies should end independently", second.isEnded());
+	}
+
 	@Test(timeout = 50, expected = MapCopyException.class)
 	public void blockRepeatedCopy() throws MapCopyException {
 		MineMap mm = genDefaultMap();
@@ -324,6 +345,313 @@ public class MineMapTest {
 		MineMap secondCopy = new MineMap(firstCopy, true);
 	}
 
+	@Test(timeout = 500)
+	public void countersShouldMatchAFullScan() {
+		for (int games = 0; games < 20; games++) {
+			final MineMap mm = genDefaultMap();
+			do {
+				genNewCoords();
+				if (r.nextInt(3) == 0) {
+					mm.flagASpot(rc, cc);
+				} else {
+					mm.pickASpot(rc, cc);
+				}
+				int explored = 0, flags = 0;
+				for (int drc = 0; drc < rows; drc++) {
+					for (int dcc = 0; dcc < cols; dcc++) {
+						final Spot type = mm.getPos(drc, dcc).type;
+						explored += Spot.unknown.contains(type) ? 0 : 1;
+						flags += Spot.FLAG.equals(type) ? 1 : 0;
+					}
+				}
+				assertEquals("Explored area size should match the scanned one", explored, mm.getExploredAreaSize());
+				assertEquals("Flag count should match the scanned one", flags, mm.getFlagCount());
+			} while (!mm.isEnded() && mm.getExploredAreaSize() < mm.fieldSize / 2);
+		}
+	}
+
+	@Test(timeout = 500)
+	public void flagCountersShouldMatchTheMinesUnderneath() throws MapCopyException {
+		final MineMap base = genDefaultMap();
+		final MineMap mm = new MineMap(base, true);
+		for (int flags = 0; flags < cols; flags++) {
+			genNewCoords();
+			if (Spot.UNEXPLORED.equals(mm.getPos(rc, cc).type)) {
+				mm.flagASpot(rc, cc);
+			}
+		}
+		// Ending the game with a mine
+		do {
+			genNewCoords();
+		} while (!Spot.UNEXPLORED.equals(mm.getPos(rc, cc).type) || !mm.pickASpot(rc, cc));
+		int correct = 0, incorrect = 0;
+		for (int drc = 0; drc < rows; drc++) {
+			for (int dcc = 0; dcc < cols; dcc++) {
+				if (Spot.FLAG.equals(mm.getPos(drc, dcc).type)) {
+					// Checking what is under the flag on an untouched copy of the map
+					final MineMap probe = new MineMap(base);
+					probe.pickASpot(drc, dcc);
+					if (Spot.EXPLODED.equals(probe.getPos(drc, dcc).type)) {
+						correct++;
+					} else {
+						incorrect++;
+					}
+				}
+			}
+		}
+		assertEquals("Correctly flagged mines should match the scanned ones", correct,
+				mm.getCorrectlyIdentifiedMineCount());
+		assertEquals("Incorrectly flagged mines should match the scanned ones", incorrect,
+				mm.getInCorrectlyIdentifiedMineCount());
+	}
+
+	@Test(timeout = 500)
+	public void sameSeedShouldGiveTheSameMap() throws MapCopyException {
+		genMineDetails();
+		final long seed = r.nextLong();
+		final MineMap first = new MineMap(rows, cols, .2, 0, seed);
+		final MineMap second = new MineMap(rows, cols, .2, 0, seed);
+		assertEquals("Maps with the same seed should have the same amount of mines", first.mineCount,
+				second.mineCount);
+		for (int drc = 0; drc < rows; drc++) {
+			for (int dcc = 0; dcc < cols; dcc++) {
+				// Probing every spot on untouched copies of the two maps
+				final MineMap firstProbe = new MineMap(first);
+				final MineMap secondProbe = new MineMap(second);
+				firstProbe.pickASpot(drc, dcc);
+				secondProbe.pickASpot(drc, dcc);
+				assertSame("Maps with the same seed should have the same layout", firstProbe.getPos(drc, dcc),
+						secondProbe.getPos(drc, dcc));
+			}
+		}
+	}
+
+	@Test(timeout = 2000)
+	public void nearMineCountsShouldMatchTheLayout() throws MapCopyException {
+		// Big enough to have its counts computed in parallel
+		final int size = 600;
+		final boolean[][] layout = new boolean[size][size];
+		for (int drc = 0; drc < size; drc++) {
+			for (int dcc = 0; dcc < size; dcc++) {
+				layout[drc][dcc] = r.nextInt(4) == 0;
+			}
+		}
+		final MineMap base = new MineMap(layout, 0);
+		for (int probes = 0; probes < 200; probes++) {
+			final int prc = r.nextInt(size), pcc = r.nextInt(size);
+			if (layout[prc][pcc]) {
+				continue;
+			}
+			int expected = 0;
+			for (int drc = Math.max(0, prc - 1); drc < Math.min(size, prc + 2); drc++) {
+				for (int dcc = Math.max(0, pcc - 1); dcc < Math.min(size, pcc + 2); dcc++) {
+					expected += layout[drc][dcc] ? 1 : 0;
+				}
+			}
+			final MineMap probe = new MineMap(base);
+			probe.pickASpot(prc, pcc);
+			assertEquals("The near mine count should match the layout", expected, probe.getPos(prc, pcc).nearMineCount);
+		}
+	}
+
+	@Test(timeout = 1000)
+	public void shouldDeployTheRightAmountOfMines() throws MapCopyException {
+		for (double ratio : new double[] { 0, .05, .5, .51, .9, 1 }) {
+			genMineDetails();
+			final MineMap base = new MineMap(rows, cols, ratio, 0);
+			int mines = 0;
+			for (int drc = 0; drc < rows; drc++) {
+				for (int dcc = 0; dcc < cols; dcc++) {
+					final MineMap probe = new MineMap(base);
+					probe.pickASpot(drc, dcc);
+					mines += Spot.EXPLODED.equals(probe.getPos(drc, dcc).type) ? 1 : 0;
+				}
+			}
+			assertEquals("The deployed mines should match the mine count at ratio " + ratio, base.mineCount, mines);
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void shouldTraceHugeEmptyMaps() {
+		final MineMap mm = new MineMap(2000, 2000, 0, 0);
+		mm.pickASpot(1000, 1000);
+		assertEquals("An empty map should be completely revealed with a single pick", mm.fieldSize,
+				mm.getExploredAreaSize());
+		assertTrue("An empty map should be won after its complete reveal", mm.isWon());
+	}
+
+	@Test(timeout = 500)
+	public void shouldTraceAlongCorridors() {
+		// A snake like corridor: three rows of free spots followed by a wall of mines.
+		// Each wall has a three spot wide gap alternating between its two ends.
+		final int rowCount = 43, colCount = 40, gap = 3;
+		final boolean[][] layout = new boolean[rowCount][colCount];
+		int walls = 0;
+		for (int wallRow = 3; wallRow < rowCount; wallRow += 4) {
+			final int gapStart = walls++ % 2 == 0 ? colCount - gap : 0;
+			for (int c = 0; c < colCount; c++) {
+				layout[wallRow][c] = c < gapStart || c >= gapStart + gap;
+			}
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		assertEquals("Mines should be deployed according to the layout", walls * (colCount - gap), mm.mineCount);
+		mm.pickASpot(0, 0);
+		assertFalse("Tracing should not step on mines", mm.isEnded());
+		assertEquals("The complete corridor should be revealed", mm.fieldSize - mm.mineCount,
+				mm.getExploredAreaSize());
+		assertEquals("Spots next to walls should show their neighbouring mines", 2, mm.getPos(2, 0).nearMineCount);
+	}
+
+	@Test(timeout = 50)
+	public void shouldNotTraceOverFlags() {
+		final MineMap mm = new MineMap(5, 5, 0, 0);
+		for (int c = 0; c < 5; c++) {
+			mm.flagASpot(2, c);
+		}
+		mm.pickASpot(0, 0);
+		assertEquals("Flags should stop the tracing", 10, mm.getExploredAreaSize());
+		assertEquals("Flags should stay in place after tracing", Spot.FLAG, mm.getPos(2, 2).type);
+		assertEquals("Spots behind the flags should not be revealed", Spot.UNEXPLORED, mm.getPos(4, 4).type);
+	}
+
+	@Test(timeout = 500)
+	public void masksShouldMatchAFullScan() {
+		final MineMap mm = genDefaultMap();
+		do {
+			genNewCoords();
+			if (r.nextInt(3) == 0) {
+				mm.flagASpot(rc, cc);
+			} else {
+				mm.pickASpot(rc, cc);
+			}
+			final BitBoard frontier = mm.getFrontierMask(), unexplored = mm.getUnexploredMask(),
+					flags = mm.getFlagMask();
+			for (int drc = 0; drc < rows; drc++) {
+				for (int dcc = 0; dcc < cols; dcc++) {
+					final Spot type = mm.getPos(drc, dcc).type;
+					boolean nextToExplored = false;
+					for (int nrc = drc - 1; nrc < drc + 2; nrc++) {
+						for (int ncc = dcc - 1; ncc < dcc + 2; ncc++) {
+							nextToExplored |= !mm.checkOutOfRange(nrc, ncc)
+									&& !Spot.unknown.contains(mm.getPos(nrc, ncc).type);
+						}
+					}
+					assertEquals("Unexplored mask should match the scan", Spot.UNEXPLORED.equals(type),
+							unexplored.get(drc, dcc));
+					assertEquals("Flag mask should match the scan", Spot.FLAG.equals(type), flags.get(drc, dcc));
+					assertEquals("Frontier mask should match the scan", Spot.UNEXPLORED.equals(type) && nextToExplored,
+							frontier.get(drc, dcc));
+				}
+			}
+		} while (!mm.isEnded());
+	}
+
+	@Test(timeout = 5000)
+	public void snapshotsShouldNeverShowHalfTracedRegions() throws InterruptedException {
+		// Corridors of three rows separated by walls of mines, a single pick in the
+		// middle row of a corridor reveals the complete corridor
+		final int corridors = 100, width = 500, corridorSize = 3 * width;
+		final boolean[][] layout = new boolean[corridors * 4 - 1][width];
+		for (int wallRow = 3; wallRow < layout.length; wallRow += 4) {
+			Arrays.fill(layout[wallRow], true);
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		final Thread writer = new Thread(() -> {
+			for (int corridor = 0; corridor < corridors; corridor++) {
+				mm.pickASpot(corridor * 4 + 1, r.nextInt(width));
+			}
+		});
+		writer.start();
+		MineMap.Snapshot snapshot = null;
+		do {
+			snapshot = mm.getSnapshot(snapshot);
+			assertEquals("Snapshots should only contain complete traces", 0,
+					snapshot.getExploredAreaSize() % corridorSize);
+			int explored = 0;
+			for (int drc = 0; drc < snapshot.rows; drc++) {
+				for (int dcc = 0; dcc < snapshot.cols; dcc++) {
+					explored += Spot.SAFE.equals(snapshot.getPos(drc, dcc).type) ? 1 : 0;
+				}
+			}
+			assertEquals("Snapshots should be consistent with their counters", snapshot.getExploredAreaSize(),
+					explored);
+		} while (writer.isAlive());
+		writer.join();
+		assertEquals("All corridors should be revealed", corridors * corridorSize, mm.getExploredAreaSize());
+		snapshot = mm.getSnapshot();
+		assertSame("An unchanged map should not be copied again", snapshot, mm.getSnapshot(snapshot));
+	}
+
+	@Test(timeout = 500)
+	public void changeEventsShouldReplayTheMap() {
+		final MineMap mm = genDefaultMap();
+		final Spot[] mirror = new Spot[mm.fieldSize];
+		final int[] mirrorCounts = new int[mm.fieldSize];
+		final int[] events = new int[2];
+		Arrays.fill(mirror, Spot.UNEXPLORED);
+		mm.addChangeListener(new MapChangeListener() {
+			@Override
+			public void spotsRevealed(MineMap source, int[] spots, int[] nearMineCounts) {
+				events[0]++;
+				for (int i = 0; i < spots.length; i++) {
+					mirror[spots[i]] = Spot.SAFE;
+					mirrorCounts[spots[i]] = nearMineCounts[i];
+				}
+			}
+
+			@Override
+			public void flagChanged(MineMap source, int rowCoord, int colCoord, boolean flagged) {
+				mirror[rowCoord * source.cols + colCoord] = flagged ? Spot.FLAG : Spot.UNEXPLORED;
+			}
+
+			@Override
+			public void exploded(MineMap source, int rowCoord, int colCoord) {
+				mirror[rowCoord * source.cols + colCoord] = Spot.EXPLODED;
+			}
+
+			@Override
+			public void gameEnded(MineMap source, boolean won) {
+				events[1]++;
+				assertEquals("The end event should tell the result of the game", source.isWon(), won);
+			}
+		});
+		int revealingPicks = 0;
+		do {
+			genNewCoords();
+			if (r.nextInt(3) == 0) {
+				mm.flagASpot(rc, cc);
+			} else {
+				final int before = mm.getExploredAreaSize();
+				mm.pickASpot(rc, cc);
+				revealingPicks += mm.getExploredAreaSize() > before
+						&& Spot.SAFE.equals(mm.getPos(rc, cc).type) ? 1 : 0;
+			}
+		} while (!mm.isEnded());
+		for (int drc = 0; drc < rows; drc++) {
+			for (int dcc = 0; dcc < cols; dcc++) {
+				final ExploredSpot spot = mm.getPos(drc, dcc);
+				assertEquals("The events should replay the map", spot.type, mirror[drc * cols + dcc]);
+				if (Spot.SAFE.equals(spot.type)) {
+					assertEquals("The events should tell the near mine counts", spot.nearMineCount,
+							mirrorCounts[drc * cols + dcc]);
+				}
+			}
+		}
+		assertEquals("Every revealing pick should be a single event", revealingPicks, events[0]);
+		assertEquals("The end of the game should be reported once", 1, events[1]);
+	}
+
+	@Test(timeout = 50)
+	public void shouldShareSpotDetailsBetweenSameStates() {
+		final MineMap mm = genDefaultMap();
+		assertSame("Unexplored spots should be represented by the same object", mm.getPos(0, 0),
+				mm.getPos(rows - 1, cols - 1));
+		mm.flagASpot(0, 0);
+		mm.flagASpot(rows - 1, cols - 1);
+		assertSame("Flagged spots should be represented by the same object", mm.getPos(0, 0),
+				mm.getPos(rows - 1, cols - 1));
+	}
+
 	@Test(timeout = 50)
 	public void shouldNotAllowPickingAFlaggedSpot() {
 		MineMap mm = genDefaultMap();
@@ -368,4 +696,238 @@ public class MineMapTest {
 		new MineMap(mm, -1);
 	}
 
+	@Test(timeout = 500)
+	public void batchMovesShouldMatchSingleMoves() throws MapCopyException {
+		final MineMap base = new MineMap(30, 30, 0.15, 0, r.nextLong());
+		final int[] flags = new int[40], picks = new int[60];
+		for (int i = 0; i < flags.length; i++) {
+			flags[i] = r.nextInt(base.fieldSize);
+		}
+		for (int i = 0; i < picks.length; i++) {
+			picks[i] = r.nextInt(base.fieldSize);
+		}
+		final MineMap single = new MineMap(base), batched = new MineMap(base);
+		for (final int idx : flags) {
+			single.flagASpot(single.rowOf(idx), single.colOf(idx));
+		}
+		for (final int idx : picks) {
+			single.pickASpot(single.rowOf(idx), single.colOf(idx));
+		}
+		batched.flagMany(flags);
+		assertEquals("Batch picks should report the end of the game", single.isEnded(), batched.pickMany(picks));
+		for (int rc = 0; rc < base.rows; rc++) {
+			for (int cc = 0; cc < base.cols; cc++) {
+				assertSame("A batch should leave the same map behind as single moves", single.getPos(rc, cc),
+						batched.getPos(rc, cc));
+			}
+		}
+		assertEquals("The last move should be the same", single.getLastRow(), batched.getLastRow());
+		assertEquals("The last move should be the same", single.getLastCol(), batched.getLastCol());
+	}
+
+	@Test(timeout = 50)
+	public void batchPicksShouldStopAtAMine() {
+		final boolean[][] layout = new boolean[3][3];
+		layout[1][1] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		assertTrue("Picking a mine should end the game",
+				mm.pickMany(new int[] { mm.toIndex(0, 0), mm.toIndex(1, 1), mm.toIndex(2, 2) }));
+		assertSame("Spots after the mine should not be picked", Spot.UNEXPLORED, mm.getPos(2, 2).type);
+		assertEquals("The mine should be the last pick", 1, mm.getLastRow());
+	}
+
+	@Test(timeout = 50)
+	public void chordShouldRevealSatisfiedNeighbours() {
+		final boolean[][] layout = new boolean[3][3];
+		layout[0][0] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		mm.pickASpot(1, 1);
+		assertFalse("Unsatisfied spots should not be chorded", mm.chord(1, 1));
+		assertEquals("Unsatisfied spots should not be chorded", 1, mm.getExploredAreaSize());
+		mm.flagASpot(0, 0);
+		assertFalse("A correct chord should not end the game", mm.chord(1, 1));
+		assertEquals("All unflagged neighbours should be revealed", mm.fieldSize - 1, mm.getExploredAreaSize());
+		assertTrue("The game should be won after the chord", mm.isWon());
+	}
+
+	@Test(timeout = 50)
+	public void chordShouldTrustWrongFlags() {
+		final boolean[][] layout = new boolean[3][3];
+		layout[0][0] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		mm.pickASpot(1, 1);
+		mm.flagASpot(2, 2);
+		assertTrue("A wrong flag should make the chord step on the mine", mm.chord(1, 1));
+		assertSame("The mine should explode", Spot.EXPLODED, mm.getPos(0, 0).type);
+	}
+
+	private static int[] scanFrontier(final MineMap mm, final Spot centre, final Spot neighbour) {
+		final int[] found = new int[mm.fieldSize];
+		int count = 0;
+		for (int rc = 0; rc < mm.rows; rc++) {
+			for (int cc = 0; cc < mm.cols; cc++) {
+				if (!centre.equals(mm.getPos(rc, cc).type)) {
+					continue;
+				}
+				boolean onFrontier = false;
+				for (int drc = Math.max(0, rc - 1); drc < Math.min(mm.rows, rc + 2); drc++) {
+					for (int dcc = Math.max(0, cc - 1); dcc < Math.min(mm.cols, cc + 2); dcc++) {
+						onFrontier |= neighbour.equals(mm.getPos(drc, dcc).type);
+					}
+				}
+				if (onFrontier) {
+					found[count++] = mm.toIndex(rc, cc);
+				}
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	private static void assertFrontier(final MineMap mm) {
+		final int[] numbers = mm.getFrontierNumbers(), unexplored = mm.getFrontierUnexplored();
+		Arrays.sort(numbers);
+		Arrays.sort(unexplored);
+		assertTrue("The frontier numbers should match a full scan",
+				Arrays.equals(scanFrontier(mm, Spot.SAFE, Spot.UNEXPLORED), numbers));
+		assertTrue("The unexplored frontier should match a full scan",
+				Arrays.equals(scanFrontier(mm, Spot.UNEXPLORED, Spot.SAFE), unexplored));
+	}
+
+	@Test(timeout = 2000)
+	public void frontierShouldMatchABruteForceScan() throws MapCopyException {
+		final int size = 30;
+		final boolean[][] layout = new boolean[size][size];
+		for (int drc = 0; drc < size; drc++) {
+			for (int dcc = 0; dcc < size; dcc++) {
+				layout[drc][dcc] = r.nextInt(6) == 0;
+			}
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		// Building the index on the empty map, everything is maintained from here
+		assertFrontier(mm);
+		for (int moves = 0; moves < 300 && !mm.isEnded(); moves++) {
+			final int prc = r.nextInt(size), pcc = r.nextInt(size);
+			if (layout[prc][pcc] || r.nextInt(4) == 0) {
+				mm.flagASpot(prc, pcc);
+			} else {
+				mm.pickASpot(prc, pcc);
+			}
+			assertFrontier(mm);
+		}
+		// A copy builds its index from the current state of the map
+		assertFrontier(new MineMap(mm));
+	}
+
+	@Test(timeout = 2000)
+	public void bucketsShouldMatchAScan() {
+		final int size = 30;
+		final boolean[][] layout = new boolean[size][size];
+		for (int drc = 0; drc < size; drc++) {
+			for (int dcc = 0; dcc < size; dcc++) {
+				layout[drc][dcc] = r.nextInt(5) == 0;
+			}
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		for (int moves = 0; moves < 200; moves++) {
+			final int prc = r.nextInt(size), pcc = r.nextInt(size);
+			if (layout[prc][pcc]) {
+				mm.flagASpot(prc, pcc);
+			} else {
+				mm.pickASpot(prc, pcc);
+			}
+			for (int count = 0; count < 9; count++) {
+				final boolean[] listed = new boolean[mm.fieldSize];
+				int listedCount = 0;
+				for (int idx = mm.firstRevealed(count); idx >= 0; idx = mm.nextRevealed(idx)) {
+					assertFalse("Spots should be listed only once", listed[idx]);
+					listed[idx] = true;
+					listedCount++;
+				}
+				assertEquals("The bucket size should match its contents", listedCount, mm.getRevealedCount(count));
+				for (int idx = 0; idx < mm.fieldSize; idx++) {
+					final ExploredSpot spot = mm.getPos(mm.rowOf(idx), mm.colOf(idx));
+					assertEquals("Only the safe spots with the right count should be listed",
+							Spot.SAFE.equals(spot.type) && spot.nearMineCount == count, listed[idx]);
+				}
+			}
+		}
+	}
+
+	@Test(timeout = 50)
+	public void bucketIterationShouldSeeNewReveals() {
+		final boolean[][] layout = new boolean[1][6];
+		layout[0][0] = layout[0][5] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		mm.pickASpot(0, 1);
+		int visited = 0;
+		for (int idx = mm.firstRevealed(1); idx >= 0; idx = mm.nextRevealed(idx)) {
+			visited++;
+			// Revealing the other one of the row while iterating
+			mm.pickASpot(0, 4);
+		}
+		assertEquals("Spots revealed during the iteration should be visited", 2, visited);
+	}
+
+	@Test(timeout = 500)
+	public void randomSpotsShouldCoverTheUnexploredArea() {
+		final boolean[][] layout = new boolean[5][5];
+		layout[0][0] = layout[4][4] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		// Sampling before the first move, so the index is maintained from here
+		assertTrue("The empty map should have unexplored spots", mm.randomUnexploredSpot(r) >= 0);
+		mm.flagASpot(0, 0);
+		mm.pickASpot(0, 4);
+		mm.flagASpot(2, 2);
+		final boolean[] seen = new boolean[mm.fieldSize];
+		for (int draws = 0; draws < 2000; draws++) {
+			final int idx = mm.randomUnexploredSpot(r);
+			assertSame("Only unexplored spots should be chosen", Spot.UNEXPLORED,
+					mm.getPos(mm.rowOf(idx), mm.colOf(idx)).type);
+			seen[idx] = true;
+		}
+		for (int idx = 0; idx < mm.fieldSize; idx++) {
+			assertEquals("All unexplored spots should be chosen eventually",
+					Spot.UNEXPLORED.equals(mm.getPos(mm.rowOf(idx), mm.colOf(idx)).type), seen[idx]);
+		}
+		// Removing the wrong flag and flagging the other mine, then picking the rest
+		mm.flagASpot(2, 2);
+		mm.flagASpot(4, 4);
+		for (int idx = 0; idx < mm.fieldSize; idx++) {
+			mm.pickASpot(mm.rowOf(idx), mm.colOf(idx));
+		}
+		assertEquals("No spots should be left to choose from", -1, mm.randomUnexploredSpot(r));
+	}
+
+	@Test(timeout = 500)
+	public void gameEndShouldBeCompletedByTheLastMove() throws Exception {
+		final boolean[][] layout = new boolean[3][3];
+		layout[1][1] = true;
+		final MineMap mm = new MineMap(layout, 0);
+		final CompletableFuture<MineMap> end = mm.getGameEnd();
+		mm.pickASpot(0, 0);
+		assertFalse("The game is still running", end.isDone());
+		mm.getGameEnd().complete(null);
+		assertFalse("Others should not be able to end the game", mm.getGameEnd().isDone());
+		final long before = System.nanoTime();
+		mm.pickASpot(1, 1);
+		final long after = System.nanoTime();
+		assertTrue("The end should be reported right after the explosion", end.isDone());
+		assertSame("The ended map should be reported", mm, end.get());
+		assertTrue("The end should be timed during the last move",
+				before <= mm.getEndedAt() && mm.getEndedAt() <= after);
+		final MineMap copy = new MineMap(new MineMap(layout, 0), true);
+		copy.flagASpot(1, 1);
+		for (int idx = 0; idx < copy.fieldSize; idx++) {
+			copy.pickASpot(copy.rowOf(idx), copy.colOf(idx));
+		}
+		assertTrue("Winning should end the game as well", copy.getGameEnd().isDone() && copy.isWon());
+		final MineMap copyOfEnded = new MineMap(copy);
+		assertSame("Copies of ended maps should be ended", copyOfEnded, copyOfEnded.getGameEnd().getNow(null));
+		assertEquals("Copies should keep the end time", copy.getEndedAt(), copyOfEnded.getEndedAt());
+	}
+
+	@Test(timeout = 50, expected = IllegalStateException.class)
+	public void runningGamesShouldHaveNoEndTime() {
+		new MineMap(5, 5, .1, 0).getEndedAt();
+	}
 }
@@ -0,0 +1,81 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
+
+public class NeighbourhoodTest {
+	// Dimensions with all kinds of borders, including single row/column maps
+	private static final int[][] dimensions = { { 1, 1 }, { 1, 5 }, { 5, 1 }, { 2, 2 }, { 3, 7 }, { 10, 10 } };
+
+	private static int[] scanNeighbours(final int rows, final int cols, final int rowCoord, final int colCoord) {
+		final int[] found = new int[Neighbourhood.MAX_NEIGHBOURS];
+		int count = 0;
+		for (int rc = rowCoord - 1; rc < rowCoord + 2; rc++) {
+			for (int cc = colCoord - 1; cc < colCoord + 2; cc++) {
+				if (rc >= 0 && cc >= 0 && rc < rows && cc < cols && (rc != rowCoord || cc != colCoord)) {
+					found[count++] = rc * cols + cc;
+				}
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	@Test(timeout = 500)
+	public void neighboursShouldMatchAScan() {
+		final int[] buffer = new int[Neighbourhood.MAX_NEIGHBOURS];
+		for (int[] dims : dimensions) {
+			final Neighbourhood around = new Neighbourhood(dims[0], dims[1]);
+			for (int rc = 0; rc < dims[0]; rc++) {
+				for (int cc = 0; cc < dims[1]; cc++) {
+					final int idx = rc * dims[1] + cc;
+					final int[] expected = scanNeighbours(dims[0], dims[1], rc, cc);
+					final int count = around.neighboursOf(idx, buffer);
+					final int[] listed = Arrays.copyOf(buffer, count);
+					Arrays.sort(listed);
+					assertTrue("The neighbours of " + rc + "," + cc + " should match a scan on a " + dims[0] + "x"
+							+ dims[1] + " map", Arrays.equals(expected, listed));
+					assertEquals("The neighbour count should match", expected.length, around.count(idx));
+				}
+			}
+		}
+	}
+
+	@Test(timeout = 50)
+	public void forEachShouldVisitAllNeighbours() {
+		final Neighbourhood around = new Neighbourhood(4, 4);
+		final int[] sum = new int[1];
+		around.forEach(0, idx -> sum[0] += idx);
+		assertEquals("The corner should have its three neighbours visited", 1 + 4 + 5, sum[0]);
+		sum[0] = 0;
+		around.forEach(5, idx -> sum[0]++);
+		assertEquals("Inner spots should have eight neighbours", 8, sum[0]);
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat.MapFormula;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat.SatFrontierSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat.SatSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.sat.SatSolver.Result;
+
+public class SatSolverTest {
+	public static final Random r = new Random(SolverGames.seed);
+	private static final long noDeadline = Long.MAX_VALUE / 2;
+
+	private static long deadline() {
+		return System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+	}
+
+	@Test(timeout = 10000)
+	public void shouldAgreeWithABruteForceCheck() {
+		for (int round = 0; round < 300; round++) {
+			final int n = 3 + r.nextInt(10);
+			final int[][] formula = new int[(int) (n * (3 + 2 * r.nextDouble()))][3];
+			final SatSolver sat = new SatSolver();
+			for (int v = 0; v < n; v++) {
+				sat.newVariable();
+			}
+			for (final int[] clause : formula) {
+				for (int i = 0; i < 3; i++) {
+					clause[i] = (1 + r.nextInt(n)) * (r.nextBoolean() ? 1 : -1);
+				}
+				sat.addClause(clause);
+			}
+			boolean satisfiable = false;
+			for (int assignment = 0; assignment < 1 << n && !satisfiable; assignment++) {
+				satisfiable = satisfies(formula, assignment);
+			}
+			final Result result = sat.solve(deadline());
+			assertEquals("The answer should match", satisfiable ? Result.SATISFIABLE : Result.UNSATISFIABLE, result);
+			if (satisfiable) {
+				int model = 0;
+				for (int v = 1; v <= n; v++) {
+					model |= sat.modelValue(v) ? 1 << (v - 1) : 0;
+				}
+				assertTrue("The model should satisfy the formula", satisfies(formula, model));
+			}
+		}
+	}
+
+	private static boolean satisfies(final int[][] formula, final int assignment) {
+		for (final int[] clause : formula) {
+			boolean any = false;
+			for (final int literal : clause) {
+				any |= ((assignment >> (Math.abs(literal) - 1) & 1) == 1) == literal > 0;
+			}
+			if (!any) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Test(timeout = 10000)
+	public void cardinalityShouldAllowTheRightCounts() {
+		for (int n = 1; n <= 8; n++) {
+			for (int k = 0; k <= n; k++) {
+				final SatSolver sat = new SatSolver();
+				final int[] literals = new int[n];
+				for (int i = 0; i < n; i++) {
+					literals[i] = sat.newVariable();
+				}
+				sat.addExactly(literals, k);
+				for (int assignment = 0; assignment < 1 << n; assignment++) {
+					final int[] assumptions = new int[n];
+					for (int i = 0; i < n; i++) {
+						assumptions[i] = (assignment >> i & 1) == 1 ? literals[i] : -literals[i];
+					}
+					assertEquals("Only " + k + " of " + n + " should be allowed",
+							Integer.bitCount(assignment) == k ? Result.SATISFIABLE : Result.UNSATISFIABLE,
+							sat.solve(deadline(), assumptions));
+				}
+			}
+		}
+	}
+
+	/**
+	 * n+1 pigeons in n holes: unsatisfiable, and hard for resolution based
+	 * solvers.
+	 */
+	private static SatSolver pigeonHoles(final int holes) {
+		final SatSolver sat = new SatSolver();
+		final int[][] in = new int[holes + 1][holes];
+		for (final int[] pigeon : in) {
+			for (int h = 0; h < holes; h++) {
+				pigeon[h] = sat.newVariable();
+			}
+			sat.addClause(pigeon);
+		}
+		for (int h = 0; h < holes; h++) {
+			for (int p = 0; p < in.length; p++) {
+				for (int q = p + 1; q < in.length; q++) {
+					sat.addClause(-in[p][h], -in[q][h]);
+				}
+			}
+		}
+		return sat;
+	}
+
+	@Test(timeout = 10000)
+	public void shouldProveSmallPigeonHolesUnsatisfiable() {
+		assertEquals("Pigeons should not fit", Result.UNSATISFIABLE, pigeonHoles(6).solve(noDeadline));
+	}
+
+	@Test(timeout = 5000)
+	public void shouldRespectTheDeadline() {
+		final SatSolver sat = pigeonHoles(11);
+		final long before = System.nanoTime();
+		assertEquals("The solver should give up", Result.UNKNOWN,
+				sat.solve(before + TimeUnit.MILLISECONDS.toNanos(50)));
+		assertTrue("The solver should give up in time", System.nanoTime() - before < TimeUnit.SECONDS.toNanos(1));
+		final int learnt = sat.getLearntCount();
+		assertTrue("The solver should learn from its conflicts", learnt > 0);
+		sat.solve(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10), 1);
+		assertTrue("Learned clauses should be kept for the next call", sat.getLearntCount() >= Math.min(learnt, 10000));
+	}
+
+	@Test(timeout = 10000)
+	public void forcedSpotsShouldBeTheTruth() {
+		for (int game = 0; game < 100; game++) {
+			final boolean[][] layout = new boolean[10][10];
+			for (final boolean[] row : layout) {
+				for (int cc = 0; cc < 10; cc++) {
+					row[cc] = r.nextDouble() < .2;
+				}
+			}
+			final MineMap theMap = new MineMap(layout, 0);
+			final ConstraintSet constraints = ConstraintSet.follow(theMap);
+			for (int picks = 0; picks < 6; picks++) {
+				final int rc = r.nextInt(10), cc = r.nextInt(10);
+				if (!layout[rc][cc]) {
+					theMap.pickASpot(rc, cc);
+				}
+			}
+			final IntSet safe = new IntSet(theMap.fieldSize), mines = new IntSet(theMap.fieldSize);
+			constraints.reduce(safe, mines);
+			new MapFormula().findForced(constraints.getConstraints(), safe, mines, deadline());
+			constraints.detach();
+			for (int i = 0; i < safe.size(); i++) {
+				assertFalse("Safe spots should not be mines",
+						layout[theMap.rowOf(safe.get(i))][theMap.colOf(safe.get(i))]);
+			}
+			for (int i = 0; i < mines.size(); i++) {
+				assertTrue("Mines should be mines", layout[theMap.rowOf(mines.get(i))][theMap.colOf(mines.get(i))]);
+			}
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void solverShouldNeverFlagWrongly() {
+		assertTrue("The solver should win a fair share of the games", SolverGames.play(SatFrontierSolver::new, 200) > 90);
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Supplier;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+
+/**
+ * Plays the same seeded games with the solvers under test, so their results
+ * can be compared and do not depend on the run.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class SolverGames {
+	/**
+	 * The seed of the random numbers of the solver tests
+	 */
+	public static final long seed = 2019;
+
+	/**
+	 * Plays 16x16 games with 15.6% mines (like the intermediate level of the
+	 * classic game) to their end, and checks that the solver only flagged mines.
+	 * The maps of game i are generated from the seed + i.
+	 * 
+	 * @param solvers creates the solver of a game
+	 * @param games   the number of games to play
+	 * @return the number of games won
+	 */
+	public static int play(final Supplier<? extends AbstractSolver> solvers, final int games) {
+		int won = 0;
+		for (int game = 0; game < games; game++) {
+			final MineMap theMap = new MineMap(16, 16, .156, 0, seed + game);
+			final AbstractSolver solver = solvers.get();
+			solver.sendMap(theMap);
+			solver.run();
+			assertTrue("The solver should finish its games", theMap.isEnded());
+			assertEquals("Only mines should be flagged", 0, theMap.getInCorrectlyIdentifiedMineCount());
+			won += theMap.isWon() ? 1 : 0;
+		}
+		return won;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SimpleLineByLineSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SolverRunners;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.SolverRunner;
+
+public class SolverRunnersTest {
+	private static void playAll(final SolverRunner runner, final int games)
+			throws InterruptedException, ExecutionException {
+		final MineMap[] maps = new MineMap[games];
+		final Future<?>[] solvers = new Future<?>[games];
+		for (int i = 0; i < games; i++) {
+			maps[i] = new MineMap(10, 10, .1, 0, i);
+			final SimpleLineByLineSolver solver = new SimpleLineByLineSolver();
+			solver.sendMap(maps[i]);
+			solvers[i] = runner.start(solver);
+		}
+		for (int i = 0; i < games; i++) {
+			solvers[i].get();
+			assertTrue("The solver should play until the end of its game", maps[i].isEnded());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void shouldRunTensOfThousandsOfSolversOnVirtualThreads()
+			throws InterruptedException, ExecutionException {
+		playAll(SolverRunners.virtualThreads(), 20000);
+	}
+
+	@Test(timeout = 2000)
+	public void shouldRunMoreSolversThanThePoolSize() throws InterruptedException, ExecutionException {
+		playAll(SolverRunners.fromDescription("pool:2"), 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class, timeout = 50)
+	public void shouldRejectUnknownRunners() {
+		SolverRunners.fromDescription("carrier pigeon");
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.CSW6Solver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition.SolverUsage;
+
+public class SolverUsageTest {
+	private static SolverUsage.Meter playOn(final boolean virtual) throws InterruptedException {
+		final CSW6Solver solver = new CSW6Solver();
+		solver.sendMap(new MineMap(50, 50, .1, 0, 1));
+		final SolverUsage.Meter meter = new SolverUsage.Meter(solver);
+		final Thread runner = virtual ? Thread.ofVirtual().start(meter) : Thread.ofPlatform().start(meter);
+		runner.join();
+		return meter;
+	}
+
+	@Test(timeout = 5000)
+	public void shouldMeasurePlatformThreads() throws InterruptedException {
+		final SolverUsage usage = playOn(false).getUsage();
+		assertTrue("The solver should have used the CPU", usage.hasCpuTime() && usage.cpuTime > 0);
+		assertTrue("User time is part of the CPU time", usage.userTime <= usage.cpuTime);
+		assertTrue("The solver should have allocated memory", usage.allocatedBytes > 0);
+	}
+
+	@Test(timeout = 5000)
+	public void virtualThreadsShouldNotBeMeasured() throws InterruptedException {
+		final SolverUsage usage = playOn(true).getUsage();
+		assertFalse("The JVM does not measure virtual threads", usage.hasCpuTime());
+		assertEquals("Unavailable values should stay unavailable in sums", SolverUsage.unavailable,
+				SolverUsage.none.plus(usage).allocatedBytes);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Move;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractStepSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.SimpleLineByLineSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.StepSolverEngine;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.ExploreOnesStepper;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.interfaces.MapView;
+
+public class StepSolverEngineTest {
+	/**
+	 * Picks the unexplored spots one by one, line by line.
+	 */
+	public static class LineByLineStepper extends AbstractStepSolver {
+		private int next = 0;
+
+		@Override
+		public Move nextMove(final MapView view) {
+			while (next < view.getRows() * view.getCols()) {
+				final int rc = next / view.getCols(), cc = next++ % view.getCols();
+				if (view.getPos(rc, cc).type == Spot.UNEXPLORED) {
+					return Move.pick(rc, cc);
+				}
+			}
+			return null;
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void shouldPlayManyGamesOnFewWorkers() throws InterruptedException {
+		final MineMap[] maps = new MineMap[2000];
+		try (StepSolverEngine engine = new StepSolverEngine(3)) {
+			for (int i = 0; i < maps.length; i++) {
+				maps[i] = new MineMap(20, 20, .05, 0, i);
+				engine.submit(maps[i], new LineByLineStepper());
+			}
+		}
+		for (final MineMap theMap : maps) {
+			assertTrue("All games should be played to their end", theMap.isEnded());
+		}
+	}
+
+	@Test(timeout = 1000)
+	public void shouldPlayLikeTheThreadedVersion() throws InterruptedException {
+		final MineMap stepped = new MineMap(30, 30, .1, 0, 42);
+		final MineMap threaded = new MineMap(30, 30, .1, 0, 42);
+		try (StepSolverEngine engine = new StepSolverEngine(1)) {
+			engine.submit(stepped, new LineByLineStepper());
+		}
+		final LineByLineStepper solver = new LineByLineStepper();
+		solver.sendMap(threaded);
+		final Thread runner = new Thread(solver);
+		runner.start();
+		runner.join();
+		assertTrue("Both games should end", stepped.isEnded() && threaded.isEnded());
+		assertEquals("The same moves should explore the same area", threaded.getExploredAreaSize(),
+				stepped.getExploredAreaSize());
+		assertEquals("The same moves should end at the same spot", threaded.getLastRow() * 30 + threaded.getLastCol(),
+				stepped.getLastRow() * 30 + stepped.getLastCol());
+	}
+
+	@Test(timeout = 1000)
+	public void stepSolversShouldNotGetTheMap() throws InterruptedException {
+		final MineMap theMap = new MineMap(10, 10, .1, 0);
+		final boolean[] gotTheMap = { false };
+		try (StepSolverEngine engine = new StepSolverEngine(1)) {
+			engine.submit(theMap, view -> {
+				gotTheMap[0] |= view instanceof MineMap;
+				return null;
+			});
+		}
+		assertFalse("The solver should only see a read only view of the map", gotTheMap[0]);
+	}
+
+	@Test(timeout = 10000)
+	public void exploreOnesShouldStepThroughItsGames() throws InterruptedException {
+		final MineMap[] maps = new MineMap[200];
+		try (StepSolverEngine engine = new StepSolverEngine(2)) {
+			for (int i = 0; i < maps.length; i++) {
+				maps[i] = new MineMap(16, 16, .1, 0, i);
+				engine.submit(maps[i], new ExploreOnesStepper());
+			}
+		}
+		int won = 0;
+		for (final MineMap theMap : maps) {
+			assertTrue("All games should be played to their end", theMap.isEnded());
+			won += theMap.isWon() ? 1 : 0;
+		}
+		assertTrue("The ones should lead to some wins", won > 0);
+	}
+
+	@Test(timeout = 1000)
+	public void shouldRunThreadedSolvers() throws InterruptedException {
+		final MineMap theMap = new MineMap(10, 10, .1, 0);
+		try (StepSolverEngine engine = new StepSolverEngine(2)) {
+			engine.submitSolverThread(theMap, new SimpleLineByLineSolver());
+		}
+		assertTrue("The threaded solver should play until the end", theMap.isEnded());
+	}
+
+	@Test(timeout = 1000)
+	public void shouldFinishGivenUpGames() throws InterruptedException {
+		final MineMap theMap = new MineMap(10, 10, .1, 0);
+		try (StepSolverEngine engine = new StepSolverEngine(2)) {
+			engine.submit(theMap, view -> null);
+			engine.submit(new MineMap(10, 10, .1, 0), view -> {
+				throw new IllegalStateException("Deliberate failure");
+			});
+			engine.awaitCompletion();
+		}
+		assertFalse("Nobody should have played the game", theMap.isEnded());
+	}
+
+	@Test(timeout = 1000)
+	public void errorsShouldNotBlockTheEngine() throws InterruptedException {
+		try (StepSolverEngine engine = new StepSolverEngine(1)) {
+			engine.submit(new MineMap(10, 10, .1, 0), view -> {
+				throw new StackOverflowError("Deliberate failure");
+			});
+			engine.awaitCompletion();
+		}
+	}
+
+	@Test(timeout = 1000, expected = RejectedExecutionException.class)
+	public void closedEnginesShouldRejectGames() {
+		final StepSolverEngine engine = new StepSolverEngine(1);
+		engine.close();
+		engine.submit(new MineMap(10, 10, .1, 0), new LineByLineStepper());
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.util.function.Supplier;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.AbstractSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.EliminationSolver;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.ExploreOnes;
+
+/**
+ * Compares {@link EliminationSolver} with {@link ExploreOnes}: how many games
+ * they finish per second and how many of them they win. Both play the same
+ * maps (the same seeds) on a single thread.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class EliminationBenchmark {
+	private static final int games = 300;
+
+	/**
+	 * Plays all the games with a solver.
+	 * 
+	 * @return the games per second and the number of games won
+	 */
+	private static double[] measure(final int size, final double ratio, final Supplier<AbstractSolver> solvers) {
+		int won = 0;
+		final long before = System.nanoTime();
+		for (int i = 0; i < games; i++) {
+			final MineMap theMap = new MineMap(size, size, ratio, 0, i);
+			final AbstractSolver solver = solvers.get();
+			solver.sendMap(theMap);
+			solver.run();
+			won += theMap.isWon() ? 1 : 0;
+		}
+		return new double[] { games * 1e9 / (System.nanoTime() - before), won };
+	}
+
+	public static void main(final String[] args) {
+		for (final int size : new int[] { 9, 16, 30, 100 }) {
+			for (final double ratio : new double[] { 0.12, 0.16, 0.20 }) {
+				// Warming up both solvers before the measurements
+				measure(size, ratio, ExploreOnes::new);
+				measure(size, ratio, EliminationSolver::new);
+				final double[] ones = measure(size, ratio, ExploreOnes::new),
+						elimination = measure(size, ratio, EliminationSolver::new);
+				System.out.printf(
+						"%4dx%-4d %.2f ExploreOnes: %8.1f games/s %4.0f won | EliminationSolver: %8.1f games/s %4.0f won%n",
+						size, size, ratio, ones[0], ones[1], elimination[0], elimination[1]);
+			}
+		}
+	}
+}
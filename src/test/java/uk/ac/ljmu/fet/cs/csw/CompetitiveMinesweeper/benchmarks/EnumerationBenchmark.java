@@ -0,0 +1,131 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.IntSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ComponentResult;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.Constraint;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ConstraintSet;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.FrontierEnumerator;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.LogBinomials;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.MineCountWeights;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.constraints.ParallelFrontierEnumerator;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.gui.MineSweeper;
+
+/**
+ * Compares the single threaded frontier enumeration with the fork/join based
+ * one on large maps, for all the mine ratios offered by the GUI. The frontiers
+ * come from maps where a third of the safe spots were picked at random, so
+ * they have both many components and large ones. Every frontier is enumerated
+ * from scratch (fresh enumerators, so nothing is reused from the previous
+ * round). The time of weighting the results with the global mine count is
+ * listed as well.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class EnumerationBenchmark {
+	private static final int size = 150;
+	private static final int frontiers = 10;
+	private static final int repeats = 5;
+
+	/**
+	 * A mid-game frontier of a size x size map.
+	 */
+	private static List<Constraint> frontier(final double ratio, final long seed) {
+		final Random rnd = new Random(seed);
+		final boolean[][] layout = new boolean[size][size];
+		for (final boolean[] row : layout) {
+			for (int cc = 0; cc < size; cc++) {
+				row[cc] = rnd.nextDouble() < ratio;
+			}
+		}
+		final MineMap theMap = new MineMap(layout, 0);
+		final int target = (theMap.fieldSize - theMap.mineCount) / 3;
+		while (theMap.getExploredAreaSize() < target) {
+			final int rc = rnd.nextInt(size), cc = rnd.nextInt(size);
+			if (!layout[rc][cc]) {
+				theMap.pickASpot(rc, cc);
+			}
+		}
+		final ConstraintSet constraints = ConstraintSet.follow(theMap);
+		constraints.reduce(new IntSet(theMap.fieldSize), new IntSet(theMap.fieldSize));
+		return constraints.getConstraints();
+	}
+
+	/**
+	 * Enumerates all the frontiers a few times.
+	 * 
+	 * @return the time spent (in ns) per frontier
+	 */
+	private static long measure(final List<List<Constraint>> all, final boolean parallel) {
+		final long before = System.nanoTime();
+		for (int i = 0; i < repeats; i++) {
+			for (final List<Constraint> constraints : all) {
+				(parallel ? new ParallelFrontierEnumerator() : new FrontierEnumerator()).enumerate(constraints);
+			}
+		}
+		return (System.nanoTime() - before) / repeats / all.size();
+	}
+
+	public static void main(final String[] args) {
+		final LogBinomials binomials = new LogBinomials(size * size);
+		for (final double ratio : MineSweeper.mineRatios) {
+			final List<List<Constraint>> all = new ArrayList<>();
+			for (int i = 0; i < frontiers; i++) {
+				all.add(frontier(ratio, i));
+			}
+			// Warming up both variants before the measurements
+			measure(all, false);
+			measure(all, true);
+			final long sequential = measure(all, false), parallel = measure(all, true);
+			int components = 0, unsolved = 0;
+			long weighting = 0;
+			for (final List<Constraint> constraints : all) {
+				final List<ComponentResult> results = new ParallelFrontierEnumerator().enumerate(constraints);
+				components += results.size();
+				int frontierSize = 0;
+				for (final ComponentResult result : results) {
+					unsolved += result.isSolved() ? 0 : 1;
+					frontierSize += result.cells.length;
+				}
+				final long before = System.nanoTime();
+				new MineCountWeights(results, (int) (ratio * size * size / 2), size * size / 2 - frontierSize,
+						binomials);
+				weighting += System.nanoTime() - before;
+			}
+			System.out.printf(
+					"ratio %.2f: %6.1f components %5.1f unsolved | sequential: %8.3f ms | parallel: %8.3f ms (%.2fx) | weighting: %7.3f ms%n",
+					ratio, (double) components / frontiers, (double) unsolved / frontiers, sequential / 1e6,
+					parallel / 1e6, (double) sequential / parallel, weighting / 1e6 / frontiers);
+		}
+	}
+}
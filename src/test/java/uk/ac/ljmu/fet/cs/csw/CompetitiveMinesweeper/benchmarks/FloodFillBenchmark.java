@@ -0,0 +1,158 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.ExploredSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+
+/**
+ * Compares the work list based tracing of {@link MineMap#pickASpot(int, int)}
+ * with the recursive tracing MineMap used before. The comparison is done on
+ * the worst case boards of the tracing: completely empty boards and boards
+ * with long snake like corridors.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath). The recursive variant runs in a
+ * thread with a huge stack as it would overflow the default one on the bigger
+ * boards.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class FloodFillBenchmark {
+	private static final int repetitions = 5;
+
+	/**
+	 * The tracing algorithm of MineMap before it switched to the work list based
+	 * implementation. Kept here only as a reference for the benchmark.
+	 */
+	private static class RecursiveTracer {
+		private final boolean[][] mines;
+		private final int[][] howManyAround;
+		private final ExploredSpot[][] exploredMap;
+
+		RecursiveTracer(final boolean[][] mines) {
+			this.mines = mines;
+			final int rows = mines.length, cols = mines[0].length;
+			howManyAround = new int[rows][cols];
+			exploredMap = new ExploredSpot[rows][cols];
+			for (int rc = 0; rc < rows; rc++) {
+				for (int cc = 0; cc < cols; cc++) {
+					exploredMap[rc][cc] = new ExploredSpot(Spot.UNEXPLORED, -1);
+					if (mines[rc][cc]) {
+						for (int dr = rc - 1; dr < rc + 2; dr++) {
+							for (int dc = cc - 1; dc < cc + 2; dc++) {
+								if (!outOfRange(dr, dc)) {
+									howManyAround[dr][dc]++;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		boolean outOfRange(final int rc, final int cc) {
+			return rc < 0 || cc < 0 || rc >= mines.length || cc >= mines[0].length;
+		}
+
+		void traceFrom(final int rc, final int cc) {
+			if (Spot.UNEXPLORED.equals(exploredMap[rc][cc].type)) {
+				exploredMap[rc][cc] = new ExploredSpot(Spot.SAFE, howManyAround[rc][cc]);
+				if (howManyAround[rc][cc] == 0) {
+					for (int dc = cc - 1; dc < cc + 2; dc++) {
+						for (int dr = rc - 1; dr < rc + 2; dr++) {
+							if (!outOfRange(dr, dc)) {
+								traceFrom(dr, dc);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generates a board with a snake like corridor: three free rows followed by a
+	 * wall of mines which has a three spot wide gap at alternating ends.
+	 */
+	private static boolean[][] snake(final int size) {
+		final boolean[][] layout = new boolean[size][size];
+		int walls = 0;
+		for (int wallRow = 3; wallRow < size; wallRow += 4) {
+			final int gapStart = walls++ % 2 == 0 ? size - 3 : 0;
+			for (int c = 0; c < size; c++) {
+				layout[wallRow][c] = c < gapStart || c >= gapStart + 3;
+			}
+		}
+		return layout;
+	}
+
+	private static long timeWorkList(final boolean[][] layout) {
+		final MineMap mm = new MineMap(layout, 0);
+		final long before = System.nanoTime();
+		mm.pickASpot(0, 0);
+		return System.nanoTime() - before;
+	}
+
+	private static long timeRecursive(final boolean[][] layout) throws InterruptedException {
+		final long[] result = new long[1];
+		final Thread deepStack = new Thread(null, () -> {
+			final RecursiveTracer rt = new RecursiveTracer(layout);
+			final long before = System.nanoTime();
+			try {
+				rt.traceFrom(0, 0);
+				result[0] = System.nanoTime() - before;
+			} catch (StackOverflowError soe) {
+				result[0] = -1;
+			}
+		}, "RecursiveTracer", 1L << 31);
+		deepStack.start();
+		deepStack.join();
+		return result[0];
+	}
+
+	private static void compare(final String name, final boolean[][] layout) throws InterruptedException {
+		long workList = 0, recursive = 0;
+		for (int i = 0; i < repetitions; i++) {
+			workList += timeWorkList(layout);
+			final long rec = timeRecursive(layout);
+			recursive = recursive < 0 || rec < 0 ? -1 : recursive + rec;
+		}
+		System.out.printf("%-24s work list: %8.2f ms   recursive: %s%n", name, workList / 1e6 / repetitions,
+				recursive < 0 ? "stack overflow" : String.format("%8.2f ms", recursive / 1e6 / repetitions));
+	}
+
+	public static void main(final String[] args) throws InterruptedException {
+		// Warm up both implementations so the JIT has compiled them
+		for (int i = 0; i < 10; i++) {
+			timeWorkList(new boolean[200][200]);
+			timeRecursive(new boolean[200][200]);
+		}
+		for (int size : new int[] { 100, 500, 1000, 2000 }) {
+			compare("empty " + size + "x" + size, new boolean[size][size]);
+			compare("snake " + size + "x" + size, snake(size));
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.util.SplittableRandom;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+
+/**
+ * Measures how long it takes to generate a {@link MineMap} from 10x10 up to
+ * 10,000x10,000 spots at various mine ratios. For reference, it also runs the
+ * rejection sampling based mine deployment MineMap used before (with its per
+ * mine neighbour count updates) on the same sizes.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath). The biggest maps need about 200MB
+ * of heap.
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class GenerationBenchmark {
+	private static final int repetitions = 3;
+
+	/**
+	 * The mine deployment of MineMap before it switched to Floyd's sampling.
+	 * Kept here only as a reference for the benchmark. Its effort grows without
+	 * bounds as the mine ratio approaches 1.
+	 */
+	private static byte[] rejectionSampling(final int rows, final int cols, final double mineRatio,
+			final long seed) {
+		final byte[] cells = new byte[rows * cols];
+		final SplittableRandom rnd = new SplittableRandom(seed);
+		final int mineCount = (int) Math.round(rows * cols * mineRatio);
+		for (int mines = 0; mines < mineCount; mines++) {
+			final int rc = rnd.nextInt(rows), cc = rnd.nextInt(cols);
+			if ((cells[rc * cols + cc] & 0x10) != 0) {
+				mines--;
+				continue;
+			}
+			cells[rc * cols + cc] |= 0x10;
+			for (int dr = Math.max(0, rc - 1); dr < Math.min(rows, rc + 2); dr++) {
+				for (int dc = Math.max(0, cc - 1); dc < Math.min(cols, cc + 2); dc++) {
+					cells[dr * cols + dc]++;
+				}
+			}
+		}
+		return cells;
+	}
+
+	private static double timeCurrent(final int size, final double ratio) {
+		long total = 0;
+		for (int i = 0; i < repetitions; i++) {
+			final long before = System.nanoTime();
+			new MineMap(size, size, ratio, 0, i);
+			total += System.nanoTime() - before;
+		}
+		return total / 1e6 / repetitions;
+	}
+
+	private static double timeRejection(final int size, final double ratio) {
+		long total = 0;
+		for (int i = 0; i < repetitions; i++) {
+			final long before = System.nanoTime();
+			rejectionSampling(size, size, ratio, i);
+			total += System.nanoTime() - before;
+		}
+		return total / 1e6 / repetitions;
+	}
+
+	public static void main(final String[] args) {
+		// Warm up both implementations so the JIT has compiled them
+		for (int i = 0; i < 200; i++) {
+			new MineMap(100, 100, .2, 0, i);
+			rejectionSampling(100, 100, .2, i);
+		}
+		// The parallel count path is only used for big maps
+		for (int i = 0; i < 20; i++) {
+			new MineMap(1000, 1000, .2, 0, i);
+		}
+		for (int size : new int[] { 10, 100, 1000, 10000 }) {
+			for (double ratio : new double[] { .05, .2, .5, .99 }) {
+				// The old deployment is skipped where it would take minutes
+				final boolean skipOld = size == 10000 && ratio > .5;
+				System.out.printf("%5dx%-5d ratio %.2f   current: %10.3f ms   rejection sampling: %s%n", size, size,
+						ratio, timeCurrent(size, ratio), skipOld ? "skipped"
+								: String.format("%10.3f ms", timeRejection(size, ratio)));
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.util.Random;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.BitBoard;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+
+/**
+ * Compares the bitset based bulk queries of {@link MineMap} (the frontier, the
+ * unexplored and the flag masks) with the getPos based array scans solvers had
+ * to do before. The queries are run on half explored maps of various sizes.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class MaskBenchmark {
+	private static final int repetitions = 20;
+	// Keeps the JIT from eliminating the measured work
+	private static long sink;
+
+	/**
+	 * Prepares a map with a known layout and explores (and flags) about half of
+	 * its safe spots without hitting any mines.
+	 */
+	private static MineMap halfExplored(final int size) {
+		final Random rnd = new Random(size);
+		final boolean[][] layout = new boolean[size][size];
+		for (int rc = 0; rc < size; rc++) {
+			for (int cc = 0; cc < size; cc++) {
+				layout[rc][cc] = rnd.nextInt(6) == 0;
+			}
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		while (mm.getExploredAreaSize() < mm.fieldSize / 2) {
+			final int rc = rnd.nextInt(size), cc = rnd.nextInt(size);
+			if (layout[rc][cc]) {
+				if (Spot.UNEXPLORED.equals(mm.getPos(rc, cc).type)) {
+					mm.flagASpot(rc, cc);
+				}
+			} else {
+				mm.pickASpot(rc, cc);
+			}
+		}
+		return mm;
+	}
+
+	private static int scanFrontier(final MineMap mm) {
+		int frontier = 0;
+		for (int rc = 0; rc < mm.rows; rc++) {
+			for (int cc = 0; cc < mm.cols; cc++) {
+				if (!Spot.UNEXPLORED.equals(mm.getPos(rc, cc).type)) {
+					continue;
+				}
+				search: for (int dr = rc - 1; dr < rc + 2; dr++) {
+					for (int dc = cc - 1; dc < cc + 2; dc++) {
+						if (!mm.checkOutOfRange(dr, dc) && !Spot.unknown.contains(mm.getPos(dr, dc).type)) {
+							frontier++;
+							break search;
+						}
+					}
+				}
+			}
+		}
+		return frontier;
+	}
+
+	private static int scanType(final MineMap mm, final Spot type) {
+		int count = 0;
+		for (int rc = 0; rc < mm.rows; rc++) {
+			for (int cc = 0; cc < mm.cols; cc++) {
+				count += type.equals(mm.getPos(rc, cc).type) ? 1 : 0;
+			}
+		}
+		return count;
+	}
+
+	private static double time(final Runnable query) {
+		final long before = System.nanoTime();
+		for (int i = 0; i < repetitions; i++) {
+			query.run();
+		}
+		return (System.nanoTime() - before) / 1e6 / repetitions;
+	}
+
+	private static void compare(final MineMap mm) {
+		final Runnable[] queries = { () -> sink += scanFrontier(mm), () -> sink += mm.getFrontierMask().cardinality(),
+				() -> sink += scanType(mm, Spot.UNEXPLORED), () -> sink += mm.getUnexploredMask().cardinality(),
+				() -> sink += scanType(mm, Spot.FLAG), () -> sink += mm.getFlagMask().cardinality() };
+		final double[] times = new double[queries.length];
+		for (int i = 0; i < queries.length; i++) {
+			times[i] = time(queries[i]);
+		}
+		System.out.printf(
+				"%5dx%-5d frontier scan: %8.3f ms mask: %8.3f ms | unexplored scan: %8.3f ms mask: %8.3f ms | flags scan: %8.3f ms mask: %8.3f ms%n",
+				mm.rows, mm.cols, times[0], times[1], times[2], times[3], times[4], times[5]);
+	}
+
+	public static void main(final String[] args) {
+		final MineMap warmUp = halfExplored(200);
+		for (int i = 0; i < 50; i++) {
+			sink += scanFrontier(warmUp) + scanType(warmUp, Spot.FLAG) + warmUp.getFrontierMask().cardinality()
+					+ warmUp.getUnexploredMask().cardinality() + warmUp.getFlagMask().cardinality();
+		}
+		for (int size : new int[] { 10, 100, 1000, 4000 }) {
+			compare(halfExplored(size));
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+}
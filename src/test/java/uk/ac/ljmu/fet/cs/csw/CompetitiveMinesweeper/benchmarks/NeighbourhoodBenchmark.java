@@ -0,0 +1,122 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.util.Random;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Neighbourhood;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.Spot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.CoordinatesForSpot;
+
+/**
+ * Compares the neighbour walks solvers used to write by hand (coordinate loops
+ * with range checks, allocating coordinates for every hit) with the offset
+ * table based {@link Neighbourhood} of the map. Both walks count the
+ * unexplored neighbours of every spot of a half explored map.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class NeighbourhoodBenchmark {
+	private static final int repetitions = 20;
+	// Keeps the JIT from eliminating the measured work
+	private static long sink;
+
+	private static MineMap halfExplored(final int size) {
+		final Random rnd = new Random(size);
+		final boolean[][] layout = new boolean[size][size];
+		for (int rc = 0; rc < size; rc++) {
+			for (int cc = 0; cc < size; cc++) {
+				layout[rc][cc] = rnd.nextInt(6) == 0;
+			}
+		}
+		final MineMap mm = new MineMap(layout, 0);
+		while (mm.getExploredAreaSize() < mm.fieldSize / 2) {
+			final int rc = rnd.nextInt(size), cc = rnd.nextInt(size);
+			if (!layout[rc][cc]) {
+				mm.pickASpot(rc, cc);
+			}
+		}
+		return mm;
+	}
+
+	private static long handWritten(final MineMap mm) {
+		long found = 0;
+		for (int rc = 0; rc < mm.rows; rc++) {
+			for (int cc = 0; cc < mm.cols; cc++) {
+				for (int dc = cc - 1; dc < cc + 2; dc++) {
+					for (int dr = rc - 1; dr < rc + 2; dr++) {
+						if (!mm.checkOutOfRange(dr, dc) && Spot.UNEXPLORED.equals(mm.getPos(dr, dc).type)) {
+							found += new CoordinatesForSpot(dr, dc).rowCoord >= 0 ? 1 : 0;
+						}
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	private static long offsetTables(final MineMap mm) {
+		final Neighbourhood around = mm.getNeighbourhood();
+		final int[] neighbours = new int[Neighbourhood.MAX_NEIGHBOURS];
+		long found = 0;
+		for (int idx = 0; idx < mm.fieldSize; idx++) {
+			found += Spot.UNEXPLORED.equals(mm.getPos(idx).type) ? 1 : 0;
+			final int count = around.neighboursOf(idx, neighbours);
+			for (int i = 0; i < count; i++) {
+				found += Spot.UNEXPLORED.equals(mm.getPos(neighbours[i]).type) ? 1 : 0;
+			}
+		}
+		return found;
+	}
+
+	private static double time(final Runnable walk) {
+		final long before = System.nanoTime();
+		for (int i = 0; i < repetitions; i++) {
+			walk.run();
+		}
+		return (System.nanoTime() - before) / 1e6 / repetitions;
+	}
+
+	public static void main(final String[] args) {
+		final MineMap warmUp = halfExplored(200);
+		for (int i = 0; i < 50; i++) {
+			sink += handWritten(warmUp) + offsetTables(warmUp);
+		}
+		for (int size : new int[] { 10, 100, 1000, 3000 }) {
+			final MineMap mm = halfExplored(size);
+			if (handWritten(mm) != offsetTables(mm)) {
+				throw new IllegalStateException("The two walks disagree");
+			}
+			System.out.printf("%5dx%-5d hand written: %9.3f ms offset tables: %9.3f ms%n", size, size,
+					time(() -> sink += handWritten(mm)), time(() -> sink += offsetTables(mm)));
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+}
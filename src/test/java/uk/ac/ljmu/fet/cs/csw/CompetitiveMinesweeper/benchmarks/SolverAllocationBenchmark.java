@@ -0,0 +1,134 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap.MapCopyException;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.CoordinatesForSpot;
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.solvers.onepriority.ExploreOnes;
+
+/**
+ * Measures how much memory {@link ExploreOnes} allocates per game. The solver
+ * (which handles spots as packed indexes in reused lists) is compared with the
+ * same algorithm written with the coordinate object lists it used before. Both
+ * play copies of the same maps, the allocations are read from the per thread
+ * allocation counters of the JVM.
+ * 
+ * This is not a unit test, run its main method manually (e.g., from the IDE
+ * or with exec:java on the test classpath).
+ * 
+ * @author "Gabor Kecskemeti, Department of Computer Science, Liverpool John
+ *         Moores University, (c) 2019"
+ */
+public class SolverAllocationBenchmark {
+	private static final int games = 200;
+	private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	/**
+	 * The ExploreOnes algorithm on coordinate object lists.
+	 */
+	private static void listBased(final MineMap theMapToSolve) {
+		mainloop: do {
+			List<CoordinatesForSpot> allOnes = ExploreOnes.searchForOnesOnFrontier(theMapToSolve);
+			if (allOnes.isEmpty()) {
+				ExploreOnes.doFullAreaRandomPick(theMapToSolve);
+			} else {
+				Collections.shuffle(allOnes);
+				List<List<CoordinatesForSpot>> unexploredLocationsAroundOnes = ExploreOnes
+						.searchUnexploredAround(theMapToSolve, allOnes);
+				int biggestSize = -1;
+				List<CoordinatesForSpot> neighbourhoodToPickFrom = null;
+				for (int i = 0; i < unexploredLocationsAroundOnes.size(); i++) {
+					List<CoordinatesForSpot> aNeighbourhood = unexploredLocationsAroundOnes.get(i);
+					if (ExploreOnes.areThereAnyFlagsAround(theMapToSolve, allOnes.get(i))) {
+						ExploreOnes.pickAllOnList(theMapToSolve, aNeighbourhood);
+					} else if (aNeighbourhood.size() == 1) {
+						theMapToSolve.flagASpot(aNeighbourhood.get(0).rowCoord, aNeighbourhood.get(0).colCoord);
+						continue mainloop;
+					} else if (biggestSize < aNeighbourhood.size()) {
+						biggestSize = aNeighbourhood.size();
+						neighbourhoodToPickFrom = aNeighbourhood;
+					}
+				}
+				if (biggestSize > 1) {
+					ExploreOnes.pickARandomSpotFromList(theMapToSolve, neighbourhoodToPickFrom);
+				} else {
+					ExploreOnes.doFullAreaRandomPick(theMapToSolve);
+				}
+			}
+		} while (!theMapToSolve.isEnded());
+	}
+
+	private static void packed(final MineMap theMapToSolve) {
+		final ExploreOnes solver = new ExploreOnes();
+		solver.sendMap(theMapToSolve);
+		solver.run();
+	}
+
+	/**
+	 * Plays all the maps with a solver.
+	 * 
+	 * @return the bytes allocated and the time spent (in ns) per game
+	 */
+	private static long[] measure(final MineMap[] maps, final boolean usePacked) throws MapCopyException {
+		final long thread = Thread.currentThread().threadId();
+		long allocated = 0, time = 0;
+		for (final MineMap base : maps) {
+			// Copies and their indexes are prepared outside the measurement
+			final MineMap game = new MineMap(base);
+			game.getFrontierNumberCount();
+			game.randomUnexploredSpot(new Random(0));
+			final long bytesBefore = threads.getThreadAllocatedBytes(thread);
+			final long before = System.nanoTime();
+			if (usePacked) {
+				packed(game);
+			} else {
+				listBased(game);
+			}
+			time += System.nanoTime() - before;
+			allocated += threads.getThreadAllocatedBytes(thread) - bytesBefore;
+		}
+		return new long[] { allocated / maps.length, time / maps.length };
+	}
+
+	public static void main(final String[] args) throws MapCopyException {
+		for (int size : new int[] { 30, 60, 100 }) {
+			final MineMap[] maps = new MineMap[games];
+			for (int i = 0; i < games; i++) {
+				maps[i] = new MineMap(size, size, 0.1, 0, size * games + i);
+			}
+			// Warming up both variants before the measurements
+			measure(maps, false);
+			measure(maps, true);
+			final long[] lists = measure(maps, false), packed = measure(maps, true);
+			System.out.printf("%4dx%-4d lists: %10d B/game %8.3f ms/game | packed: %10d B/game %8.3f ms/game%n", size,
+					size, lists[0], lists[1] / 1e6, packed[0], packed[1] / 1e6);
+		}
+	}
+}
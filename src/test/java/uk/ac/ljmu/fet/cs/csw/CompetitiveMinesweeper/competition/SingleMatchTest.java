@@ -0,0 +1,79 @@
+/*
+ *  ========================================================================
+ *  Competitive Minesweeper
+ *  ========================================================================
+ *  
+ *  This file is part of Competitive Minesweeper.
+ *  
+ *  Competitive Minesweeper Interpreter is free software: you can redistribute
+ *  it and/or modify it under the terms of the GNU General Public License as
+ *  published by the Free Software Foundation, either version 3 of the License,
+ *  or (at your option) any later version.
+ *  
+ *  Competitive Minesweeper Interpreter is distributed in the hope that it will
+ *  be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General
+ *  Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with Competitive Minesweeper.  If not, see <http://www.gnu.org/licenses/>.
+ *  
+ *  (C) Copyright 2019, Gabor Kecskemeti (g.kecskemeti@ljmu.ac.uk)
+ */
+package uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.competition;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.ljmu.fet.cs.csw.CompetitiveMinesweeper.base.MineMap;
+
+public class SingleMatchTest {
+	private static MineMap playedMap(final boolean win) {
+		final MineMap map = new MineMap(new boolean[][] { { true, false, false } }, 0);
+		if (win) {
+			map.pickASpot(0, 2);
+			map.flagASpot(0, 0);
+		} else {
+			map.pickASpot(0, 0);
+		}
+		assertEquals("The game should be decided", win, map.isWon());
+		assertTrue("The game should be over", map.isEnded());
+		return map;
+	}
+
+	@Test(timeout = 1000)
+	public void fasterWinnerShouldGetMorePoints() {
+		final MineMap one = playedMap(true), two = playedMap(true);
+		assertEquals("The faster team should get 90", 90, SingleMatch.getCurrentScore(one, 10, two, 20));
+		assertEquals("The slower team should get 80", 80, SingleMatch.getCurrentScore(two, 20, one, 10));
+		assertEquals("The faster team should get 90", 90, SingleMatch.getCurrentScore(two, 10, one, 20));
+		assertEquals("The slower team should get 80", 80, SingleMatch.getCurrentScore(one, 20, two, 10));
+	}
+
+	@Test(timeout = 1000)
+	public void soleWinnerShouldGetAllPoints() {
+		final MineMap won = playedMap(true), lost = playedMap(false);
+		assertEquals("The winner should get 100", 100, SingleMatch.getCurrentScore(won, 20, lost, 10));
+		assertEquals("The loser should get nothing", 0, SingleMatch.getCurrentScore(lost, 10, won, 20));
+	}
+
+	@Test(timeout = 1000)
+	public void lowerCpuTimeShouldWinTheTieBreak() {
+		final MineMap one = playedMap(true), two = playedMap(true);
+		// The first team finishes later on the wall clock, but uses less CPU
+		final SolverUsage frugal = new SolverUsage(10, 10, 0), hungry = new SolverUsage(20, 20, 0);
+		assertArrayEquals("The lower CPU time should win", new int[] { 90, 80 },
+				SingleMatch.scoreRound(true, one, frugal, 200, two, hungry, 100));
+		assertArrayEquals("The lower CPU time should win", new int[] { 80, 90 },
+				SingleMatch.scoreRound(true, one, hungry, 100, two, frugal, 200));
+		assertArrayEquals("Without the CPU tie-break the wall clock decides", new int[] { 80, 90 },
+				SingleMatch.scoreRound(false, one, frugal, 200, two, hungry, 100));
+		final SolverUsage unmeasured = new SolverUsage(SolverUsage.unavailable, SolverUsage.unavailable,
+				SolverUsage.unavailable);
+		assertArrayEquals("Unmeasured solvers fall back to the wall clock", new int[] { 80, 90 },
+				SingleMatch.scoreRound(true, one, frugal, 200, two, unmeasured, 100));
+	}
+}